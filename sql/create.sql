@@ -237,6 +237,16 @@ comment '文件夹、目录表';
 create index index_catologue_name
 	on develop_catalogue (node_pid, node_name);
 
+create table develop_catalogue_version
+(
+	tenant_id int not null comment '租户id'
+		primary key,
+	version bigint default 0 not null comment '目录版本号，租户下目录、任务、函数、资源修改时递增',
+	gmt_create datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+	gmt_modified datetime default CURRENT_TIMESTAMP not null comment '修改时间'
+)
+comment '租户目录版本表';
+
 
 create table develop_function
 (
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.common.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 插件客户端每类操作的线程数和超时时间
+ */
+public class ClientBulkheadConfig {
+
+    public static final long DEFAULT_TIMEOUT = 300000L;
+
+    private final Map<ClientOperationType, Integer> poolSizes = new EnumMap<>(ClientOperationType.class);
+
+    private final Map<ClientOperationType, Long> timeouts = new EnumMap<>(ClientOperationType.class);
+
+    public static ClientBulkheadConfig defaultConfig() {
+        return new ClientBulkheadConfig();
+    }
+
+    public int getPoolSize(ClientOperationType operationType) {
+        return poolSizes.getOrDefault(operationType, operationType.getDefaultPoolSize());
+    }
+
+    public long getTimeout(ClientOperationType operationType) {
+        return timeouts.getOrDefault(operationType, DEFAULT_TIMEOUT);
+    }
+
+    public ClientBulkheadConfig setPoolSize(ClientOperationType operationType, int poolSize) {
+        if (poolSize > 0) {
+            poolSizes.put(operationType, poolSize);
+        }
+        return this;
+    }
+
+    public ClientBulkheadConfig setTimeout(ClientOperationType operationType, long timeout) {
+        if (timeout > 0) {
+            timeouts.put(operationType, timeout);
+        }
+        return this;
+    }
+}
@@ -26,6 +26,8 @@ import com.dtstack.taier.pluginapi.constrant.ConfigConstant;
 import com.dtstack.taier.pluginapi.util.MD5Util;
 import com.dtstack.taier.pluginapi.util.MathUtil;
 import com.dtstack.taier.pluginapi.util.PublicUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -33,6 +35,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * 插件客户端
@@ -48,11 +52,25 @@ public class ClientCache {
 
     private static final String MD5_SUM_KEY = "md5sum";
     private static final String MD5_ZIP_KEY = "md5zip";
+    private static final String FINGERPRINT_SEPARATOR = ":";
+    private static final int FINGERPRINT_CACHE_SIZE = 1000;
     private String pluginPath;
 
+    private ClientBulkheadConfig bulkheadConfig = ClientBulkheadConfig.defaultConfig();
+
     private Map<String, IClient> defaultClientMap = Maps.newConcurrentMap();
 
-    private Map<String, Map<String, IClient>> cache = Maps.newConcurrentMap();
+    /**
+     * 插件配置指纹 -> 客户端构建任务，构建完成后读取无需加锁
+     */
+    private Map<String, FutureTask<IClient>> clientTasks = Maps.newConcurrentMap();
+
+    /**
+     * 插件配置 -> 指纹，避免每次调用都解析 json 和计算 md5
+     */
+    private Cache<String, String> fingerprintCache = CacheBuilder.newBuilder()
+            .maximumSize(FINGERPRINT_CACHE_SIZE)
+            .build();
 
     private static ClientCache singleton = new ClientCache();
 
@@ -64,54 +82,85 @@ public class ClientCache {
         return singleton;
     }
 
+    public static ClientCache getInstance(String pluginPath, ClientBulkheadConfig bulkheadConfig) {
+        singleton.pluginPath = pluginPath;
+        singleton.bulkheadConfig = bulkheadConfig;
+        return singleton;
+    }
+
     /**
      *
      * @param pluginInfo 集群配置信息
      * @return
      */
     public IClient getClient(String pluginInfo) throws ClientAccessException {
-        String typeName = "";
+        String fingerprint = null;
         try {
             if (StringUtils.isBlank(pluginInfo)) {
                 throw new RdosDefineException("plugin info is empty");
             }
-
-            Properties properties = PublicUtil.jsonStrToObjectWithOutNull(pluginInfo, Properties.class);
-            typeName = properties.getProperty(ConfigConstant.TYPE_NAME_KEY);
-            if (StringUtils.isBlank(typeName)) {
-                throw new RdosDefineException("typeName  is empty");
-            }
-            String md5plugin = MD5Util.getMd5String(pluginInfo);
-            String md5sum = null;
-            if (!properties.containsKey(MD5_SUM_KEY) || (md5sum = MathUtil.getString(properties.get(MD5_SUM_KEY))) == null) {
-                String md5zip = MathUtil.getString(properties.get(MD5_ZIP_KEY));
-                if (md5zip == null) {
-                    md5zip = "";
+            fingerprint = fingerprintCache.getIfPresent(pluginInfo);
+            if (fingerprint != null) {
+                FutureTask<IClient> clientTask = clientTasks.get(fingerprint);
+                if (clientTask != null && clientTask.isDone()) {
+                    return getClient(fingerprint, clientTask);
                 }
-                md5sum = md5zip + md5plugin;
-                properties.setProperty(MD5_SUM_KEY, md5sum);
             }
 
-            Map<String, IClient> clientMap = cache.computeIfAbsent(typeName, k -> Maps.newConcurrentMap());
-            IClient client = clientMap.get(md5sum);
-            if (client == null) {
-                synchronized (clientMap) {
-                    client = clientMap.get(md5sum);
-                    if (client == null) {
-                        client = ClientFactory.buildPluginClient(pluginInfo, pluginPath);
-                        client.init(properties);
-                        clientMap.putIfAbsent(md5sum, client);
-                    }
+            Properties properties = PublicUtil.jsonStrToObjectWithOutNull(pluginInfo, Properties.class);
+            fingerprint = fingerprint(pluginInfo, properties);
+            fingerprintCache.put(pluginInfo, fingerprint);
+            FutureTask<IClient> clientTask = clientTasks.get(fingerprint);
+            if (clientTask == null) {
+                FutureTask<IClient> newTask = new FutureTask<>(() -> {
+                    IClient client = ClientFactory.buildPluginClient(pluginInfo, pluginPath, bulkheadConfig);
+                    client.init(properties);
+                    return client;
+                });
+                clientTask = clientTasks.putIfAbsent(fingerprint, newTask);
+                if (clientTask == null) {
+                    // 同一个插件配置只由一个线程构建，其余线程等待构建结果
+                    clientTask = newTask;
+                    newTask.run();
                 }
             }
-
-            return client;
+            return getClient(fingerprint, clientTask);
         } catch (Throwable e) {
-            LOGGER.error("------- typeName {}  plugin info {} get client error ", typeName, pluginInfo, e);
+            LOGGER.error("------- fingerprint {}  plugin info {} get client error ", fingerprint, pluginInfo, e);
             throw new ClientAccessException(e);
         }
     }
 
+    private IClient getClient(String fingerprint, FutureTask<IClient> clientTask) throws Exception {
+        try {
+            return clientTask.get();
+        } catch (ExecutionException e) {
+            // 构建失败不缓存，下次调用重新构建
+            clientTasks.remove(fingerprint, clientTask);
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * 插件配置指纹：typeName:md5sum，md5sum 由 md5zip + 插件配置 md5 组成
+     */
+    private String fingerprint(String pluginInfo, Properties properties) {
+        String typeName = properties.getProperty(ConfigConstant.TYPE_NAME_KEY);
+        if (StringUtils.isBlank(typeName)) {
+            throw new RdosDefineException("typeName  is empty");
+        }
+        String md5sum = null;
+        if (!properties.containsKey(MD5_SUM_KEY) || (md5sum = MathUtil.getString(properties.get(MD5_SUM_KEY))) == null) {
+            String md5zip = MathUtil.getString(properties.get(MD5_ZIP_KEY));
+            if (md5zip == null) {
+                md5zip = "";
+            }
+            md5sum = md5zip + MD5Util.getMd5String(pluginInfo);
+            properties.setProperty(MD5_SUM_KEY, md5sum);
+        }
+        return typeName + FINGERPRINT_SEPARATOR + md5sum;
+    }
+
     public IClient getDefaultPlugin(String typeName) {
         IClient defaultClient = defaultClientMap.get(typeName);
         try {
@@ -121,7 +170,7 @@ public class ClientCache {
                     if (defaultClient == null) {
                         JSONObject pluginInfo = new JSONObject();
                         pluginInfo.put(ConfigConstant.TYPE_NAME_KEY, typeName);
-                        defaultClient = ClientFactory.buildPluginClient(pluginInfo.toJSONString(), pluginPath);
+                        defaultClient = ClientFactory.buildPluginClient(pluginInfo.toJSONString(), pluginPath, bulkheadConfig);
                         defaultClientMap.putIfAbsent(typeName, defaultClient);
                     }
                 }
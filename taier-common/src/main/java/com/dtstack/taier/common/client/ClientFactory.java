@@ -43,6 +43,10 @@ public class ClientFactory {
     private static Map<String, ClassLoader> pluginClassLoader = Maps.newConcurrentMap();
 
     public static IClient createPluginClass(ClassLoader classLoader) throws Exception {
+        return createPluginClass(classLoader, ClientBulkheadConfig.defaultConfig());
+    }
+
+    public static IClient createPluginClass(ClassLoader classLoader, ClientBulkheadConfig bulkheadConfig) throws Exception {
         return ClassLoaderCallBackMethod.callbackAndReset(()-> {
             ServiceLoader<IClient> serviceLoader = ServiceLoader.load(IClient.class);
 
@@ -52,11 +56,15 @@ public class ClientFactory {
             if (matchingClient.size() != 1) {
                 throw new RuntimeException("zero or more than one plugin client found" + matchingClient);
             }
-            return new ClientProxy(matchingClient.get(0));
+            return new ClientProxy(matchingClient.get(0), bulkheadConfig);
         }, classLoader, true);
     }
 
     public static IClient buildPluginClient(String pluginInfo,String pluginPath) throws Exception {
+        return buildPluginClient(pluginInfo, pluginPath, ClientBulkheadConfig.defaultConfig());
+    }
+
+    public static IClient buildPluginClient(String pluginInfo, String pluginPath, ClientBulkheadConfig bulkheadConfig) throws Exception {
         Map<String, Object> params = PublicUtil.jsonStrToObject(pluginInfo, Map.class);
         String clientTypeStr = MathUtil.getString(params.get(ConfigConstant.TYPE_NAME_KEY));
         if (StringUtils.isBlank(clientTypeStr)) {
@@ -72,7 +80,7 @@ public class ClientFactory {
             return createDtClassLoader(pluginFile);
         });
 
-        return ClientFactory.createPluginClass(classLoader);
+        return ClientFactory.createPluginClass(classLoader, bulkheadConfig);
     }
 
 
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.common.client;
+
+/**
+ * 插件客户端操作分类，每一类操作使用独立的线程池和超时时间，
+ * 避免某一类慢操作（比如获取日志）占满线程影响其他操作
+ */
+public enum ClientOperationType {
+
+    /**
+     * 提交任务、资源判断、语法检查
+     */
+    SUBMIT("submit", 10),
+
+    /**
+     * 获取任务状态
+     */
+    STATUS("status", 10),
+
+    /**
+     * 获取任务日志、checkpoint
+     */
+    LOG("log", 5),
+
+    /**
+     * 停止任务
+     */
+    STOP("stop", 5),
+
+    /**
+     * 初始化、测试联通性、执行查询、集群资源等元数据操作
+     */
+    METADATA("metadata", 5);
+
+    private final String name;
+
+    private final int defaultPoolSize;
+
+    ClientOperationType(String name, int defaultPoolSize) {
+        this.name = name;
+        this.defaultPoolSize = defaultPoolSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDefaultPoolSize() {
+        return defaultPoolSize;
+    }
+}
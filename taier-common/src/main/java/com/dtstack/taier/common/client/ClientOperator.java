@@ -24,6 +24,7 @@ import com.dtstack.taier.common.exception.RdosDefineException;
 import com.dtstack.taier.pluginapi.JobClient;
 import com.dtstack.taier.pluginapi.JobIdentifier;
 import com.dtstack.taier.pluginapi.client.IClient;
+import com.dtstack.taier.pluginapi.client.QueryCursor;
 import com.dtstack.taier.pluginapi.constrant.ConfigConstant;
 import com.dtstack.taier.pluginapi.enums.TaskStatus;
 import com.dtstack.taier.pluginapi.exception.ExceptionUtil;
@@ -35,8 +36,11 @@ import com.google.common.base.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 /**
  * Reason:
@@ -57,10 +61,14 @@ public class ClientOperator {
     }
 
     public static ClientOperator getInstance(String pluginPath) {
+        return getInstance(pluginPath, ClientBulkheadConfig.defaultConfig());
+    }
+
+    public static ClientOperator getInstance(String pluginPath, ClientBulkheadConfig bulkheadConfig) {
         if (singleton == null) {
             synchronized (ClientOperator.class) {
                 if (singleton == null) {
-                    clientCache = ClientCache.getInstance(pluginPath);
+                    clientCache = ClientCache.getInstance(pluginPath, bulkheadConfig);
                     LOGGER.info("init client operator plugin path {}",pluginPath);
                     singleton = new ClientOperator();
                 }
@@ -93,6 +101,36 @@ public class ClientOperator {
     }
 
 
+    /**
+     * 批量获取同一个插件下的任务状态
+     *
+     * @param pluginInfo     插件信息
+     * @param jobIdentifiers 任务标识
+     * @return jobId -> 任务状态，请求失败时返回空
+     */
+    public Map<String, TaskStatus> getJobStatus(String pluginInfo, List<JobIdentifier> jobIdentifiers) {
+        if (null == pluginInfo || null == jobIdentifiers) {
+            throw new IllegalArgumentException("pluginInfo|jobIdentifiers is null.");
+        }
+
+        List<JobIdentifier> validIdentifiers = jobIdentifiers.stream()
+                .filter(identifier -> !Strings.isNullOrEmpty(identifier.getEngineJobId()) || !Strings.isNullOrEmpty(identifier.getApplicationId()))
+                .collect(Collectors.toList());
+        if (validIdentifiers.isEmpty()) {
+            return new HashMap<>(0);
+        }
+
+        try {
+            IClient client = clientCache.getClient(pluginInfo);
+            Map<String, TaskStatus> result = client.getJobStatus(validIdentifiers);
+            return result == null ? new HashMap<>(0) : result;
+        } catch (Exception e) {
+            // 批量请求失败多为插件或集群的临时异常，不能判定任务不存在，本轮不返回状态
+            LOGGER.error("getStatus happens error, size:{}, skip this round", validIdentifiers.size(), e);
+            return new HashMap<>(0);
+        }
+    }
+
     public String getEngineLog(String pluginInfo, JobIdentifier jobIdentifier) {
         checkoutOperator(pluginInfo, jobIdentifier);
 
@@ -174,6 +212,11 @@ public class ClientOperator {
         return client.executeQuery(sql, database);
     }
 
+    public QueryCursor executeQueryCursor(String pluginInfo, String sql, String database, int fetchSize, int maxRows) throws Exception {
+        IClient client = clientCache.getClient(pluginInfo);
+        return client.executeQueryCursor(sql, database, fetchSize, maxRows);
+    }
+
     public String uploadStringToHdfs(String pluginInfo, String bytes, String hdfsPath) throws Exception {
         IClient client = clientCache.getClient(pluginInfo);
         return client.uploadStringToHdfs(bytes, hdfsPath);
@@ -26,6 +26,7 @@ import com.dtstack.taier.pluginapi.JobIdentifier;
 import com.dtstack.taier.pluginapi.callback.CallBack;
 import com.dtstack.taier.pluginapi.callback.ClassLoaderCallBackMethod;
 import com.dtstack.taier.pluginapi.client.IClient;
+import com.dtstack.taier.pluginapi.client.QueryCursor;
 import com.dtstack.taier.pluginapi.enums.TaskStatus;
 import com.dtstack.taier.pluginapi.exception.ClientArgumentException;
 import com.dtstack.taier.pluginapi.exception.ExceptionUtil;
@@ -34,12 +35,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.*;
 
 /**
  * 代理IClient实现类的proxy
+ * 每类操作（{@link ClientOperationType}）使用独立的有界线程池和超时时间，排队已满时直接拒绝
  * Date: 2017/12/19
  * Company: www.dtstack.com
  *
@@ -50,165 +54,86 @@ public class ClientProxy implements IClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientProxy.class);
 
+    /**
+     * 每个线程允许排队的调用数
+     */
+    private static final int QUEUE_SIZE_PER_THREAD = 20;
+
+    /**
+     * 空闲线程的存活时间，长时间不用的插件客户端不占用线程
+     */
+    private static final long KEEP_ALIVE_TIME = 60000L;
+
     private IClient targetClient;
 
-    private ExecutorService executorService;
+    private ClientBulkheadConfig bulkheadConfig;
 
-    private long timeout = 300000;
+    private Map<ClientOperationType, ExecutorService> executorServices = new EnumMap<>(ClientOperationType.class);
 
     public ClientProxy(IClient targetClient) {
+        this(targetClient, ClientBulkheadConfig.defaultConfig());
+    }
+
+    public ClientProxy(IClient targetClient, ClientBulkheadConfig bulkheadConfig) {
         this.targetClient = targetClient;
-        executorService = new ThreadPoolExecutor(10, 10, 0L, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<Runnable>(), new CustomThreadFactory(targetClient.getClass().getSimpleName() + "_" + this.getClass().getSimpleName()));
+        this.bulkheadConfig = bulkheadConfig;
+        for (ClientOperationType operationType : ClientOperationType.values()) {
+            int poolSize = bulkheadConfig.getPoolSize(operationType);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(poolSize * QUEUE_SIZE_PER_THREAD), new CustomThreadFactory(targetClient.getClass().getSimpleName() + "_"
+                    + this.getClass().getSimpleName() + "_" + operationType.getName()), new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            executorServices.put(operationType, executor);
+        }
     }
 
     @Override
     public void init(Properties prop) throws Exception {
         try {
-            CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(new CallBack<String>() {
-                        @Override
-                        public String execute() throws Exception {
-                            targetClient.init(prop);
-                            return null;
-                        }
-                    }, targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
+            call(ClientOperationType.METADATA, () -> {
+                targetClient.init(prop);
+                return null;
+            });
         } catch (Exception e) {
             // 初始化失败,关闭线程池
-            executorService.shutdown();
+            executorServices.values().forEach(ExecutorService::shutdown);
             throw new RdosDefineException(e);
         }
     }
 
     @Override
     public JobResult submitJob(JobClient jobClient) {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(new CallBack<JobResult>() {
-
-                        @Override
-                        public JobResult execute() throws Exception {
-                            return targetClient.submitJob(jobClient);
-                        }
-                    }, targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.SUBMIT, () -> targetClient.submitJob(jobClient));
     }
 
     @Override
     public JobResult cancelJob(JobIdentifier jobIdentifier) {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(new CallBack<JobResult>() {
-
-                        @Override
-                        public JobResult execute() throws Exception {
-                            return targetClient.cancelJob(jobIdentifier);
-                        }
-                    }, targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.STOP, () -> targetClient.cancelJob(jobIdentifier));
     }
 
     @Override
     public TaskStatus getJobStatus(JobIdentifier jobIdentifier) throws IOException {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(new CallBack<TaskStatus>() {
+        return call(ClientOperationType.STATUS, () -> targetClient.getJobStatus(jobIdentifier));
+    }
 
-                        @Override
-                        public TaskStatus execute() throws Exception {
-                            return targetClient.getJobStatus(jobIdentifier);
-                        }
-                    }, targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+    @Override
+    public Map<String, TaskStatus> getJobStatus(List<JobIdentifier> jobIdentifiers) throws IOException {
+        return call(ClientOperationType.STATUS, () -> targetClient.getJobStatus(jobIdentifiers));
     }
 
     @Override
     public String getJobMaster(JobIdentifier jobIdentifier) {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(new CallBack<String>() {
-
-                        @Override
-                        public String execute() throws Exception {
-                            return targetClient.getJobMaster(jobIdentifier);
-                        }
-                    }, targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.STATUS, () -> targetClient.getJobMaster(jobIdentifier));
     }
 
     @Override
     public String getMessageByHttp(String path) {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(new CallBack<String>() {
-
-                        @Override
-                        public String execute() throws Exception {
-                            return targetClient.getMessageByHttp(path);
-                        }
-                    }, targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.LOG, () -> targetClient.getMessageByHttp(path));
     }
 
     @Override
     public String getJobLog(JobIdentifier jobIdentifier) {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(new CallBack<String>() {
-
-                        @Override
-                        public String execute() throws Exception {
-                            return targetClient.getJobLog(jobIdentifier);
-                        }
-                    }, targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.LOG, () -> targetClient.getJobLog(jobIdentifier));
     }
 
     @Override
@@ -226,7 +151,11 @@ public class ClientProxy implements IClient {
                 } catch (Exception e) {
                     return getJudgeResultWithException(e, e);
                 }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
+            }, executorServices.get(ClientOperationType.SUBMIT)).get(bulkheadConfig.getTimeout(ClientOperationType.SUBMIT), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 提交线程池已满，资源判断不通过，任务延迟后再次判断而不是失败
+            LOGGER.warn("{} judgeSlots rejected, too many pending calls", targetClient.getClass().getSimpleName());
+            return JudgeResult.notOk("judgeSlots rejected, too many pending submit calls");
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             return getJudgeResultWithException(e, e.getCause());
         }
@@ -246,87 +175,33 @@ public class ClientProxy implements IClient {
 
     @Override
     public String getCheckpoints(JobIdentifier jobIdentifier) {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(new CallBack<String>() {
-
-                        @Override
-                        public String execute() throws Exception {
-                            return targetClient.getCheckpoints(jobIdentifier);
-                        }
-                    }, targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.LOG, () -> targetClient.getCheckpoints(jobIdentifier));
     }
 
     @Override
     public ComponentTestResult testConnect(String pluginInfo) {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.testConnect(pluginInfo),
-                            targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.METADATA, () -> targetClient.testConnect(pluginInfo));
     }
 
     @Override
     public List<List<Object>> executeQuery(String sql, String database) {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.executeQuery(sql,database),
-                            targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.METADATA, () -> targetClient.executeQuery(sql, database));
+    }
+
+    @Override
+    public QueryCursor executeQueryCursor(String sql, String database, int fetchSize, int maxRows) {
+        QueryCursor cursor = call(ClientOperationType.METADATA, () -> targetClient.executeQueryCursor(sql, database, fetchSize, maxRows));
+        return new ClassLoaderQueryCursor(cursor);
     }
 
     @Override
     public String uploadStringToHdfs(String bytes, String hdfsPath) {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.uploadStringToHdfs(bytes,hdfsPath),
-                            targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.METADATA, () -> targetClient.uploadStringToHdfs(bytes, hdfsPath));
     }
 
     @Override
     public ClusterResource getClusterResource() {
-        try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.getClusterResource(),
-                            targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new RdosDefineException(e);
-        }
+        return call(ClientOperationType.METADATA, () -> targetClient.getClusterResource());
     }
 
     @Override
@@ -341,17 +216,89 @@ public class ClientProxy implements IClient {
 
     @Override
     public CheckResult grammarCheck(JobClient jobClient) {
+        return call(ClientOperationType.SUBMIT, () -> targetClient.grammarCheck(jobClient));
+    }
+
+    /**
+     * 在对应操作的线程池中切换到插件的 classloader 执行，阻塞等待结果，超时后取消尚未开始执行的调用
+     */
+    private <T> T call(ClientOperationType operationType, CallBack<T> callBack) {
+        CompletableFuture<T> future = null;
         try {
-            return CompletableFuture.supplyAsync(() -> {
-                try {
-                    return ClassLoaderCallBackMethod.callbackAndReset(() -> targetClient.grammarCheck(jobClient), targetClient.getClass().getClassLoader(), true);
-                } catch (Exception e) {
-                    throw new RdosDefineException(e);
-                }
-            }, executorService).get(timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            future = supplyAsync(operationType, callBack);
+            return future.get(bulkheadConfig.getTimeout(operationType), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("{} {} operation rejected, too many pending calls", targetClient.getClass().getSimpleName(), operationType.getName());
+            throw new RdosDefineException(e);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RdosDefineException(e);
+        } catch (InterruptedException | ExecutionException e) {
             throw new RdosDefineException(e);
         }
     }
 
+    private <T> CompletableFuture<T> supplyAsync(ClientOperationType operationType, CallBack<T> callBack) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ClassLoaderCallBackMethod.callbackAndReset(callBack, targetClient.getClass().getClassLoader(), true);
+            } catch (Exception e) {
+                throw new RdosDefineException(e);
+            }
+        }, executorServices.get(operationType));
+    }
+
+
+    /**
+     * 游标的读取在调用线程中进行，每次调用时切换到插件的 classloader
+     */
+    private class ClassLoaderQueryCursor implements QueryCursor {
+
+        private final QueryCursor cursor;
+
+        private ClassLoaderQueryCursor(QueryCursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public List<String> getColumnNames() {
+            return cursor.getColumnNames();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return callWithClassLoader(cursor::hasNext);
+        }
+
+        @Override
+        public List<Object> next() {
+            return callWithClassLoader(cursor::next);
+        }
+
+        @Override
+        public void cancel() {
+            callWithClassLoader(() -> {
+                cursor.cancel();
+                return null;
+            });
+        }
+
+        @Override
+        public void close() {
+            callWithClassLoader(() -> {
+                cursor.close();
+                return null;
+            });
+        }
+
+        private <T> T callWithClassLoader(CallBack<T> callBack) {
+            try {
+                return ClassLoaderCallBackMethod.callbackAndReset(callBack, targetClient.getClass().getClassLoader(), true);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RdosDefineException(e);
+            }
+        }
+    }
 }
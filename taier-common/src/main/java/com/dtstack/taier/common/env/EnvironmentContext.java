@@ -19,6 +19,8 @@
 package com.dtstack.taier.common.env;
 
 import com.dtstack.dtcenter.loader.client.ClientCache;
+import com.dtstack.taier.common.client.ClientBulkheadConfig;
+import com.dtstack.taier.common.client.ClientOperationType;
 import com.dtstack.taier.common.util.AddressUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.InitializingBean;
@@ -186,6 +188,13 @@ public class EnvironmentContext implements InitializingBean {
         return Long.parseLong(environment.getProperty("jobPriorityStep", "10000"));
     }
 
+    /**
+     * 队列排序时每次资源不足抵扣的优先级值，默认是 jobPriorityStep 的两倍，资源不足的任务等待越久越靠前
+     */
+    public long getJobPriorityAgingStep() {
+        return Long.parseLong(environment.getProperty("jobPriorityAgingStep", Long.toString(2 * getJobPriorityStep())));
+    }
+
     public long getJobLackingInterval() {
         String intervalObj = environment.getProperty("jobLackingInterval");
         if (StringUtils.isBlank(intervalObj)) {
@@ -223,6 +232,26 @@ public class EnvironmentContext implements InitializingBean {
         return Integer.parseInt(environment.getProperty("taskStatusDealerPoolSize", "10"));
     }
 
+    public int getTaskStatusDealerBatchSize() {
+        return Integer.parseInt(environment.getProperty("taskStatusDealerBatchSize", "100"));
+    }
+
+    /**
+     * 插件客户端每类操作的线程数，如 client.bulkhead.status.size
+     */
+    public int getClientBulkheadPoolSize(ClientOperationType operationType) {
+        return Integer.parseInt(environment.getProperty("client.bulkhead." + operationType.getName() + ".size",
+                String.valueOf(operationType.getDefaultPoolSize())));
+    }
+
+    /**
+     * 插件客户端每类操作的超时时间（毫秒），如 client.bulkhead.log.timeout
+     */
+    public long getClientBulkheadTimeout(ClientOperationType operationType) {
+        return Long.parseLong(environment.getProperty("client.bulkhead." + operationType.getName() + ".timeout",
+                String.valueOf(ClientBulkheadConfig.DEFAULT_TIMEOUT)));
+    }
+
     public int getTestConnectTimeout() {
         return Integer.parseInt(environment.getProperty("testConnectTimeout", "100"));
     }
@@ -267,6 +296,35 @@ public class EnvironmentContext implements InitializingBean {
         return Long.parseLong(environment.getProperty("job.status.check.interval", "3500"));
     }
 
+    /**
+     * 父实例成功状态的本地索引只能感知本节点的状态变更，只适合单个调度节点部署，默认关闭
+     */
+    public boolean getJobStatusIndexSwitch() {
+        return Boolean.parseBoolean(environment.getProperty("job.status.index.switch", "false"));
+    }
+
+    public long getJobStatusIndexExpire() {
+        return Long.parseLong(environment.getProperty("job.status.index.expire", "30000"));
+    }
+
+    public int getJobStatusIndexMaxSize() {
+        return Integer.parseInt(environment.getProperty("job.status.index.max.size", "100000"));
+    }
+
+    /**
+     * 实例状态批量写入的批次大小，小于等于1时逐条同步写入
+     */
+    public int getJobStatusWriterBatchSize() {
+        return Integer.parseInt(environment.getProperty("job.status.writer.batch.size", "200"));
+    }
+
+    /**
+     * 实例状态批量写入的最长等待时间（毫秒）
+     */
+    public long getJobStatusWriterFlushInterval() {
+        return Long.parseLong(environment.getProperty("job.status.writer.flush.interval", "200"));
+    }
+
     public String getComponentJdbcToReplace() {
         return environment.getProperty("component.jdbc.replace", "/default");
     }
@@ -398,6 +456,28 @@ public class EnvironmentContext implements InitializingBean {
         return Integer.parseInt(environment.getProperty("fillData.job.max.task.build.thread", "20"));
     }
 
+    /**
+     * 数据源元数据缓存的过期时间（秒），小于等于0时不缓存
+     * 缓存只在本节点清除，过期时间即其他节点看到修改的最大延迟
+     */
+    public long getDatasourceMetaCacheExpire() {
+        return Long.parseLong(environment.getProperty("datasource.meta.cache.expire", "60"));
+    }
+
+    /**
+     * 数据源元数据缓存的最大条数
+     */
+    public long getDatasourceMetaCacheSize() {
+        return Long.parseLong(environment.getProperty("datasource.meta.cache.size", "10000"));
+    }
+
+    /**
+     * 目录树缓存的过期时间（秒），小于等于0时不缓存
+     */
+    public long getCatalogueTreeCacheExpire() {
+        return Long.parseLong(environment.getProperty("catalogue.tree.cache.expire", "60"));
+    }
+
 
     /* datadevelop */
 
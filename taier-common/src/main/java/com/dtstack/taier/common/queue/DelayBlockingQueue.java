@@ -65,6 +65,18 @@ public class DelayBlockingQueue<E extends Delayed> {
         return e;
     }
 
+    /**
+     * 忽略剩余延迟时间，取出最早到期的元素
+     */
+    public E pollIgnoreDelay() {
+        E e = delayQ.peek();
+        if (e != null && delayQ.remove(e)) {
+            available.release();
+            return e;
+        }
+        return null;
+    }
+
     public int size() {
         return size - available.availablePermits();
     }
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.common.queue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 按 key 建立索引的优先级阻塞队列（二叉堆）
+ * 1. 按 key 判断是否存在 O(1)
+ * 2. 按 key 删除、更新优先级 O(log n)
+ * 3. 同一个 key 只保留一个元素，重复 put 会替换原有元素并重新排序
+ *
+ * @param <E> 元素
+ */
+public class IndexedPriorityBlockingQueue<E> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Comparator<? super E> comparator;
+
+    private final Function<? super E, String> keyExtractor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * key -> 元素在堆中的下标
+     */
+    private final Map<String, Integer> index;
+
+    private Object[] heap;
+
+    private int size;
+
+    public IndexedPriorityBlockingQueue(int initialCapacity, Comparator<? super E> comparator, Function<? super E, String> keyExtractor) {
+        int capacity = Math.max(initialCapacity, DEFAULT_CAPACITY);
+        this.heap = new Object[capacity];
+        this.index = new HashMap<>(capacity);
+        this.comparator = comparator;
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * 加入队列，key 已存在时替换原有元素并按新的优先级调整位置
+     *
+     * @return true: 新加入 | false: 替换已有元素
+     */
+    public boolean put(E e) {
+        String key = keyExtractor.apply(e);
+        lock.lock();
+        try {
+            Integer i = index.get(key);
+            if (i != null) {
+                heap[i] = e;
+                siftUp(siftDown(i));
+                return false;
+            }
+            if (size >= heap.length) {
+                heap = Arrays.copyOf(heap, heap.length << 1);
+            }
+            heap[size] = e;
+            index.put(key, size);
+            siftUp(size++);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            return removeAt(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public E poll() {
+        lock.lock();
+        try {
+            return size == 0 ? null : removeAt(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(String key) {
+        lock.lock();
+        try {
+            return index.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按 key 删除
+     *
+     * @return 被删除的元素，不存在时返回 null
+     */
+    public E remove(String key) {
+        lock.lock();
+        try {
+            Integer i = index.get(key);
+            return i == null ? null : removeAt(i);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private E removeAt(int i) {
+        E removed = elementAt(i);
+        index.remove(keyExtractor.apply(removed));
+        int last = --size;
+        if (i != last) {
+            E moved = elementAt(last);
+            heap[last] = null;
+            heap[i] = moved;
+            index.put(keyExtractor.apply(moved), i);
+            siftUp(siftDown(i));
+        } else {
+            heap[last] = null;
+        }
+        return removed;
+    }
+
+    /**
+     * @return 元素最终所在的下标
+     */
+    private int siftUp(int i) {
+        E e = elementAt(i);
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            E p = elementAt(parent);
+            if (comparator.compare(e, p) >= 0) {
+                break;
+            }
+            setAt(i, p);
+            i = parent;
+        }
+        setAt(i, e);
+        return i;
+    }
+
+    /**
+     * @return 元素最终所在的下标
+     */
+    private int siftDown(int i) {
+        E e = elementAt(i);
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            int right = child + 1;
+            if (right < size && comparator.compare(elementAt(right), elementAt(child)) < 0) {
+                child = right;
+            }
+            E c = elementAt(child);
+            if (comparator.compare(e, c) <= 0) {
+                break;
+            }
+            setAt(i, c);
+            i = child;
+        }
+        setAt(i, e);
+        return i;
+    }
+
+    private void setAt(int i, E e) {
+        heap[i] = e;
+        index.put(keyExtractor.apply(e), i);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int i) {
+        return (E) heap[i];
+    }
+}
@@ -23,13 +23,27 @@ import com.dtstack.taier.pluginapi.JobClient;
 import java.util.Comparator;
 
 /**
+ * 按优先级值升序排序，值越小越先提交
+ * 资源不足时任务的优先级值会增加，agingStep 按资源不足的次数抵扣优先级值，
+ * agingStep 大于每次增加的值时，等待越久的任务越靠前，避免低优先级任务一直得不到提交
  * company: www.dtstack.com
  * author: toutian
  * create: 2020/8/20
  */
 public class JobClientComparator implements Comparator<JobClient> {
+
+    private final long agingStep;
+
+    public JobClientComparator() {
+        this(0L);
+    }
+
+    public JobClientComparator(long agingStep) {
+        this.agingStep = agingStep;
+    }
+
     @Override
     public int compare(JobClient o1, JobClient o2) {
-        return Long.compare(o1.getPriority(), o2.getPriority());
+        return Long.compare(o1.getPriority() - agingStep * o1.getLackingCount(), o2.getPriority() - agingStep * o2.getLackingCount());
     }
 }
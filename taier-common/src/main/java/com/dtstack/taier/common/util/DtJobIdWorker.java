@@ -1,31 +1,51 @@
 package com.dtstack.taier.common.util;
 
-import com.dtstack.taier.common.client.ClientOperator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
 /**
+ * 实例 id 生成器，id 为 秒级时间戳 + 3 位节点号 + 5 位序列号 组成的数字转 32 进制
+ * 1. 时间戳和序列号合并为一个 long，通过 CAS 无锁递增，同一节点生成的 id 递增
+ * 2. 一秒内序列号用完时进位到下一秒，等待时钟追上后再继续生成；时钟回拨时沿用上次的时间戳
+ *
  * @author yuebai
  * @date 2021-09-08
  */
 public class DtJobIdWorker {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(ClientOperator.class);
+    private static final Logger LOGGER = LoggerFactory.getLogger(DtJobIdWorker.class);
 
     private static volatile DtJobIdWorker singleton;
 
+    /**
+     * 每秒的序列号个数
+     */
+    private static final long SEQUENCE_SIZE = 100000L;
+
+    /**
+     * 节点号个数
+     */
+    private static final long NETWORK_SIZE = 1000L;
+
+    /**
+     * 序列号用完时等待时钟的间隔
+     */
+    private static final long WAIT_NANOS = 100_000L;
+
     //the last one net work
-    private Integer network;
+    private final long network;
 
-    //auto increment sequence
-    private long sequence;
+    //the last build jobId timeStamp * SEQUENCE_SIZE + sequence
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong(0L);
 
-    //the last build jobId timeStamp
-    private long lastTimestamp = 0L;
+    //the lastTimeStamp of the latest logged clock regression
+    private final AtomicLong loggedBackwardsTimestamp = new AtomicLong(-1L);
 
-    private DtJobIdWorker(Integer network, long sequence) {
+    private DtJobIdWorker(Integer network) {
         this.network = network;
-        this.sequence = sequence;
     }
 
     public static DtJobIdWorker getInstance(Integer network, long sequence) {
@@ -35,10 +55,13 @@ public class DtJobIdWorker {
         if (null == network) {
             throw new IllegalArgumentException("net work can not null");
         }
+        if (network < 0 || network >= NETWORK_SIZE) {
+            throw new IllegalArgumentException("net work must between 0 and " + (NETWORK_SIZE - 1));
+        }
         if (singleton == null) {
-            synchronized (ClientOperator.class) {
+            synchronized (DtJobIdWorker.class) {
                 if (singleton == null) {
-                    singleton = new DtJobIdWorker(network, sequence);
+                    singleton = new DtJobIdWorker(network);
                     LOGGER.info("init DtJobIdUtils DtJobIdUtils{}", network);
                 }
             }
@@ -75,41 +98,40 @@ public class DtJobIdWorker {
 
 
     //next JobId
-    public synchronized String nextJobId() {
-        long timestamp = timeGen();
+    public String nextJobId() {
+        long timestampAndSequence = nextTimestampAndSequence();
+        long timestamp = timestampAndSequence / SEQUENCE_SIZE;
+        long sequence = timestampAndSequence % SEQUENCE_SIZE;
+        // 等价于 timestamp、%03d network、%05d sequence 拼接后的数字
+        return digits32((timestamp * NETWORK_SIZE + network) * SEQUENCE_SIZE + sequence);
+    }
 
-        if (timestamp < lastTimestamp) {
+    private long nextTimestampAndSequence() {
+        long timestamp = timeGen();
+        long lastTimestamp = lastTimestampAndSequence.get() / SEQUENCE_SIZE;
+        // 时钟回拨期间 lastTimeStamp 不变，同一次回拨只记录一次
+        if (timestamp < lastTimestamp && loggedBackwardsTimestamp.getAndSet(lastTimestamp) != lastTimestamp) {
             LOGGER.error("Clock moved backwards.  lastTimeStamp {} timeStamp {}", lastTimestamp, timestamp);
-            timestamp = lastTimestamp;
         }
-
-        //increment sequence
-        if (lastTimestamp == timestamp) {
-            sequence = sequence + 1;
-            if (sequence > 99999) {
-                //out of sequence
-                timestamp = tilNextMillis(lastTimestamp);
-                sequence  = 0;
+        while (true) {
+            long last = lastTimestampAndSequence.get();
+            lastTimestamp = last / SEQUENCE_SIZE;
+            long next = Math.max(timestamp * SEQUENCE_SIZE, last + 1);
+            if (next / SEQUENCE_SIZE > Math.max(timestamp, lastTimestamp)) {
+                //out of sequence, wait for next second
+                LockSupport.parkNanos(WAIT_NANOS);
+                timestamp = timeGen();
+                continue;
+            }
+            if (lastTimestampAndSequence.compareAndSet(last, next)) {
+                return next;
             }
-        } else {
-            sequence = 0;
+            timestamp = timeGen();
         }
-        //refresh
-        lastTimestamp = timestamp;
-        String jobId = String.valueOf(lastTimestamp).concat(String.format("%03d", network)).concat(String.format("%05d", sequence));
-        return digits32(Long.parseLong(jobId));
     }
 
     //get seconds
     private long timeGen() {
         return System.currentTimeMillis() / 1000;
     }
-
-    private long tilNextMillis(long lastTimestamp) {
-        long timestamp = timeGen();
-        while (timestamp <= lastTimestamp) {
-            timestamp = timeGen();
-        }
-        return timestamp;
-    }
 }
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.common.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 预编译的 ${xxx}、@@{xxx} 参数模板
+ * 1. 编译时记录每个 ${、@@{ 起始位置及其后第一个 }，按文本缓存编译结果
+ * 2. 渲染时一次扫描拼接，结果与按参数顺序逐个 String.replace 一致
+ * 3. 替换值可能与上下文拼出新的占位符(值为空、含 $ @ { }，或占位符嵌套)时返回 null，由调用方按原逻辑逐个替换
+ */
+public final class ParamTemplate {
+
+    /**
+     * 缓存的模板文本总长度上限
+     */
+    private static final long MAX_CACHED_CHARS = 16 * 1024 * 1024;
+
+    private static final Cache<String, ParamTemplate> TEMPLATE_CACHE = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_CHARS)
+            .weigher((String text, ParamTemplate template) -> text.length() + 1)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    private final String text;
+
+    private final int[] starts;
+
+    private final int[] ends;
+
+    private final String[] placeholders;
+
+    /**
+     * 占位符是否位于前一个未闭合的占位符内，如 ${${a}} 中的 ${a}
+     */
+    private final boolean[] enclosed;
+
+    private ParamTemplate(String text) {
+        this.text = text;
+        int capacity = 8;
+        int[] starts = new int[capacity];
+        int[] ends = new int[capacity];
+        boolean[] enclosed = new boolean[capacity];
+        int size = 0;
+        int maxEnd = 0;
+        int brace = text.indexOf('{');
+        while (brace >= 0) {
+            int start = -1;
+            if (brace > 0 && text.charAt(brace - 1) == '$') {
+                start = brace - 1;
+            } else if (brace > 1 && text.charAt(brace - 1) == '@' && text.charAt(brace - 2) == '@') {
+                start = brace - 2;
+            }
+            if (start >= 0) {
+                int close = text.indexOf('}', brace + 1);
+                if (close < 0) {
+                    break;
+                }
+                if (size == capacity) {
+                    capacity <<= 1;
+                    starts = Arrays.copyOf(starts, capacity);
+                    ends = Arrays.copyOf(ends, capacity);
+                    enclosed = Arrays.copyOf(enclosed, capacity);
+                }
+                starts[size] = start;
+                ends[size] = close + 1;
+                enclosed[size] = start < maxEnd;
+                maxEnd = Math.max(maxEnd, close + 1);
+                size++;
+            }
+            brace = text.indexOf('{', brace + 1);
+        }
+        this.starts = Arrays.copyOf(starts, size);
+        this.ends = Arrays.copyOf(ends, size);
+        this.enclosed = Arrays.copyOf(enclosed, size);
+        this.placeholders = new String[size];
+        for (int i = 0; i < size; i++) {
+            placeholders[i] = text.substring(this.starts[i], this.ends[i]);
+        }
+    }
+
+    /**
+     * 获取文本对应的模板，相同文本只编译一次
+     */
+    public static ParamTemplate compile(String text) {
+        ParamTemplate template = TEMPLATE_CACHE.getIfPresent(text);
+        if (template == null) {
+            template = new ParamTemplate(text);
+            if (text.length() < MAX_CACHED_CHARS) {
+                TEMPLATE_CACHE.put(text, template);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * 是否为可以一次渲染的占位符：${xxx} 或 @@{xxx}，且参数名中不含 { }
+     */
+    public static boolean isPlaceholder(String placeholder) {
+        int brace = placeholder.indexOf('{');
+        if (!((brace == 1 && placeholder.startsWith("$")) || (brace == 2 && placeholder.startsWith("@@")))) {
+            return false;
+        }
+        int close = placeholder.indexOf('}');
+        return close == placeholder.length() - 1 && placeholder.indexOf('{', brace + 1) < 0;
+    }
+
+    /**
+     * 渲染模板
+     *
+     * @param resolver 根据完整占位符(如 ${bdp.system.bizdate})返回替换值，不是参数时返回 null，同一占位符可能调用多次
+     * @return 替换后的文本；无法保证与逐个替换结果一致时返回 null
+     */
+    public String render(Function<String, String> resolver) {
+        StringBuilder result = null;
+        int cursor = 0;
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < cursor) {
+                continue;
+            }
+            String value = resolver.apply(placeholders[i]);
+            if (value == null) {
+                continue;
+            }
+            if (enclosed[i] || !isSafeValue(value)) {
+                return null;
+            }
+            if (result == null) {
+                result = new StringBuilder(text.length() + 64);
+            }
+            result.append(text, cursor, starts[i]).append(value);
+            cursor = ends[i];
+        }
+        if (result == null) {
+            return text;
+        }
+        return result.append(text, cursor, text.length()).toString();
+    }
+
+    private static boolean isSafeValue(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '$' || c == '@' || c == '{' || c == '}') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -8,7 +8,6 @@ import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.TimeZone;
 import java.util.regex.Matcher;
@@ -28,6 +27,8 @@ public class TimeParamOperator {
 
     private static final String ISODATE_FORMATE = "yyyy-MM-dd'T'HH:mm:ss'Z'";
 
+    private static final TimeZone GMT8 = TimeZone.getTimeZone("GMT+8");
+
     private static final Pattern pattern = Pattern.compile("([a-zA-Z]{4,14})\\s*([\\-\\+])\\s*(\\d+)");
 
     private static final Pattern customizePattern = Pattern.compile("^(yyyyMMdd|hh24miss)\\s*([\\-\\+])\\s*(.*)");
@@ -132,7 +133,7 @@ public class TimeParamOperator {
                 timeFmtStr = paramsArrays[0].trim();
                 if (paramsArrays.length > 2) {
                     //第三个参数为连接符
-                    split = paramsArrays[2].replaceAll("'","");
+                    split = StringUtils.remove(paramsArrays[2], '\'');
                 }
                 if (YEAR_FMT.equals(timeFmtStr)) {
                     String year = StringUtils.deleteWhitespace(paramsArrays[1]);
@@ -159,7 +160,7 @@ public class TimeParamOperator {
                 if (line.contains(",")) {
                     String[] paramsArrays = line.split(",");
                     line = paramsArrays[0];
-                    split = String.valueOf(paramsArrays[1]).replaceAll("'", "");
+                    split = StringUtils.remove(String.valueOf(paramsArrays[1]), '\'');
                 }
                 Matcher matcher = customizePattern.matcher(line);
                 if (matcher.find() && matcher.groupCount() == 3) {
@@ -206,12 +207,12 @@ public class TimeParamOperator {
                 } else if (formattedPattern.matcher(line).matches()) {
                     //时间格式化
                     try {
-                        FastDateFormat cycDate = FastDateFormat.getInstance(STD_FMT, TimeZone.getTimeZone("GMT+8"));
+                        FastDateFormat cycDate = FastDateFormat.getInstance(STD_FMT, GMT8);
                         Date cycd = cycDate.parse(cycTime);
                         if (line.contains("hh24")) {
-                            line = line.replaceAll("hh24", "HH");
+                            line = StringUtils.replace(line, "hh24", "HH");
                         }
-                        result = FastDateFormat.getInstance(line, TimeZone.getTimeZone("GMT+8")).format(cycd);
+                        result = FastDateFormat.getInstance(line, GMT8).format(cycd);
                     } catch (ParseException e) {
                         e.printStackTrace();
                     }
@@ -230,17 +231,17 @@ public class TimeParamOperator {
         } else if (command.startsWith("${") && command.endsWith("}")) {
             // 特殊处理 ${bdp.system.currenttime}
             if (SYSTEM_CURRENTTIME.equals(command.substring(2, command.length() - 1).trim())) {
-                return new SimpleDateFormat(STD_FMT).format(new Date());
+                return FastDateFormat.getInstance(STD_FMT).format(new Date());
             }
 
             // 支持基于业务日期作为基准取值的格式 时间减一天，其余照原逻辑处理 不多做任何校验
             String yesterdayCycTime = minusDay(1, cycTime, STD_FMT);
-            String normalCommand = command.replaceFirst("\\{", "[").replaceFirst("}", "]");
+            String normalCommand = StringUtils.replaceOnce(StringUtils.replaceOnce(command, "{", "["), "}", "]");
             return dealCustomizeTimeOperator(normalCommand, yesterdayCycTime);
         } else if (command.startsWith("$(") && command.endsWith(")")) {
             // 支持基于当前时间作为基准取值的格式，其余照原逻辑处理 不多做任何校验
-            String currentTime = new SimpleDateFormat(STD_FMT).format(new Date());
-            String normalCommand = command.replaceFirst("\\(", "[");
+            String currentTime = FastDateFormat.getInstance(STD_FMT).format(new Date());
+            String normalCommand = StringUtils.replaceOnce(command, "(", "[");
             normalCommand = normalCommand.substring(0, normalCommand.length() - 1) + "]";
             return dealCustomizeTimeOperator(normalCommand, currentTime);
         } else {
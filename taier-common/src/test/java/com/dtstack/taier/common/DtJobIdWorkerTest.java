@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.common;
+
+import com.dtstack.taier.common.util.DtJobIdWorker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+public class DtJobIdWorkerTest {
+
+    @Test
+    public void testNextJobId() throws Exception {
+        DtJobIdWorker worker = DtJobIdWorker.getInstance(12, 0);
+        int threads = 8;
+        int perThread = 20000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(threads);
+        List<Throwable> errors = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    long last = -1;
+                    for (int j = 0; j < perThread; j++) {
+                        String jobId = worker.nextJobId();
+                        // 同一线程生成的 id 递增
+                        long value = Long.parseLong(jobId, 32);
+                        if (value <= last) {
+                            throw new IllegalStateException(jobId + " not increase");
+                        }
+                        last = value;
+                        ids.add(jobId);
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+        Assert.assertEquals(threads * perThread, ids.size());
+
+        // 秒级时间戳 + 3 位节点号 + 5 位序列号
+        Set<String> seconds = new HashSet<>();
+        for (String jobId : ids) {
+            String value = String.valueOf(Long.parseLong(jobId, 32));
+            Assert.assertEquals(18, value.length());
+            Assert.assertEquals("012", value.substring(10, 13));
+            seconds.add(value.substring(0, 10));
+        }
+        long now = System.currentTimeMillis() / 1000;
+        for (String second : seconds) {
+            Assert.assertTrue(Long.parseLong(second) <= now);
+        }
+    }
+}
@@ -18,12 +18,16 @@
 
 package com.dtstack.taier.common;
 
+import com.dtstack.taier.common.queue.DelayBlockingQueue;
+import com.dtstack.taier.common.queue.IndexedPriorityBlockingQueue;
 import com.dtstack.taier.common.queue.comparator.JobClientComparator;
 import com.dtstack.taier.pluginapi.JobClient;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.Delayed;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class GroupPriorityQueueTest {
 
@@ -44,4 +48,90 @@ public class GroupPriorityQueueTest {
         Assert.assertEquals(jjj.getPriority(), job1.getPriority());
 
     }
+
+    @Test
+    public void testIndexedPriorityQueueJob() throws Exception {
+        IndexedPriorityBlockingQueue<JobClient> queue = new IndexedPriorityBlockingQueue<>(10, new JobClientComparator(), JobClient::getJobId);
+        for (int i = 10; i > 0; i--) {
+            queue.put(newJobClient("job" + i, i));
+        }
+        Assert.assertEquals(10, queue.size());
+        Assert.assertTrue(queue.contains("job5"));
+
+        // 重复的 jobId 只保留一个，并按新的优先级排序
+        Assert.assertFalse(queue.put(newJobClient("job7", 0)));
+        Assert.assertEquals(10, queue.size());
+
+        Assert.assertNotNull(queue.remove("job5"));
+        Assert.assertNull(queue.remove("job5"));
+        Assert.assertFalse(queue.contains("job5"));
+
+        Assert.assertEquals("job7", queue.take().getJobId());
+        long lastPriority = Long.MIN_VALUE;
+        int count = 0;
+        JobClient jobClient;
+        while ((jobClient = queue.poll()) != null) {
+            Assert.assertTrue(jobClient.getPriority() >= lastPriority);
+            lastPriority = jobClient.getPriority();
+            count++;
+        }
+        Assert.assertEquals(8, count);
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testAgingPriorityQueueJob() throws Exception {
+        IndexedPriorityBlockingQueue<JobClient> queue = new IndexedPriorityBlockingQueue<>(10, new JobClientComparator(20), JobClient::getJobId);
+        // 资源不足 3 次的任务，优先级值每次增加 10，抵扣 20
+        JobClient lackingJob = newJobClient("lacking", 130);
+        lackingJob.setLackingCount(3);
+        queue.put(lackingJob);
+        queue.put(newJobClient("new", 100));
+        Assert.assertEquals("lacking", queue.take().getJobId());
+        Assert.assertEquals("new", queue.take().getJobId());
+    }
+
+    @Test
+    public void testDelayQueuePollIgnoreDelay() throws Exception {
+        DelayBlockingQueue<SimpleDelay> queue = new DelayBlockingQueue<>(2);
+        queue.put(new SimpleDelay("late", 60000));
+        queue.put(new SimpleDelay("early", 30000));
+        Assert.assertFalse(queue.tryPut(new SimpleDelay("full", 0)));
+        Assert.assertNull(queue.poll());
+
+        Assert.assertEquals("early", queue.pollIgnoreDelay().name);
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals("late", queue.pollIgnoreDelay().name);
+        Assert.assertNull(queue.pollIgnoreDelay());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    private static class SimpleDelay implements Delayed {
+
+        private final String name;
+
+        private final long expired;
+
+        private SimpleDelay(String name, long delay) {
+            this.name = name;
+            this.expired = System.currentTimeMillis() + delay;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expired - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), o.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private JobClient newJobClient(String jobId, long priority) {
+        JobClient jobClient = new JobClient();
+        jobClient.setJobId(jobId);
+        jobClient.setPriority(priority);
+        return jobClient;
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.common;
+
+import com.dtstack.taier.common.util.ParamTemplate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class ParamTemplateTest {
+
+    @Test
+    public void testRender() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("${bdp.system.bizdate}", "20220101");
+        params.put("@@{component}", "hdfs://ns1");
+        params.put("${a}", "x");
+        String sql = "select '${bdp.system.bizdate}', '@@{component}' from t where a = '${a}' and b = '${b}' ${ ${bdp.system.bizdate";
+        Assert.assertEquals(sequentialReplace(sql, params), ParamTemplate.compile(sql).render(params::get));
+        Assert.assertSame(ParamTemplate.compile(sql), ParamTemplate.compile(sql));
+    }
+
+    @Test
+    public void testUnsafeValue() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("${a}", "");
+        params.put("${b}", "x");
+        Assert.assertNull(ParamTemplate.compile("$${a}{b}").render(params::get));
+
+        params.put("${a}", "b");
+        Assert.assertNull(ParamTemplate.compile("${${a}}").render(params::get));
+    }
+
+    @Test
+    public void testIsPlaceholder() {
+        Assert.assertTrue(ParamTemplate.isPlaceholder("${bdp.system.cyctime}"));
+        Assert.assertTrue(ParamTemplate.isPlaceholder("@@{component}"));
+        Assert.assertFalse(ParamTemplate.isPlaceholder("${a}b}"));
+        Assert.assertFalse(ParamTemplate.isPlaceholder("${a{b}"));
+        Assert.assertFalse(ParamTemplate.isPlaceholder("@{a}"));
+    }
+
+    @Test
+    public void testSameAsSequentialReplace() {
+        Random random = new Random(7);
+        String[] pieces = {"${", "@@{", "}", "$", "@", "{", "a", "b", "c", " ", "\n"};
+        String[] names = {"a", "b", "c", "ab", "", "a b"};
+        String[] values = {"1", "", "$", "x}", "b", "20220101", "@@", "{"};
+        for (int round = 0; round < 20000; round++) {
+            StringBuilder sql = new StringBuilder();
+            int length = random.nextInt(30);
+            for (int i = 0; i < length; i++) {
+                sql.append(pieces[random.nextInt(pieces.length)]);
+            }
+            Map<String, String> params = new LinkedHashMap<>();
+            int size = random.nextInt(5);
+            for (int i = 0; i < size; i++) {
+                String prefix = random.nextBoolean() ? "${" : "@@{";
+                params.putIfAbsent(prefix + names[random.nextInt(names.length)] + "}", values[random.nextInt(values.length)]);
+            }
+            String rendered = ParamTemplate.compile(sql.toString()).render(params::get);
+            if (rendered != null) {
+                Assert.assertEquals(sql.toString(), sequentialReplace(sql.toString(), params), rendered);
+            }
+        }
+    }
+
+    private static String sequentialReplace(String sql, Map<String, String> params) {
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            sql = sql.replace(entry.getKey(), entry.getValue());
+        }
+        return sql;
+    }
+}
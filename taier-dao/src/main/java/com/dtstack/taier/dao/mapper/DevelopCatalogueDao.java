@@ -52,6 +52,13 @@ public interface DevelopCatalogueDao {
      */
     List<BatchCatalogue> listByPidAndTenantId(@Param("nodePid") Long nodePid, @Param("tenantId") Long tenantId);
 
+    /**
+     * 查询租户下的所有目录
+     * @param tenantId
+     * @return
+     */
+    List<BatchCatalogue> listByTenantId(@Param("tenantId") Long tenantId);
+
     /**
      * 根据租户和目录等级查询
      * @param level
@@ -130,4 +137,18 @@ public interface DevelopCatalogueDao {
      */
     BatchCatalogue getBeanByTenantIdAndNameAndParentId(@Param("tenantId")Long tenantId, @Param("name")String name, @Param("parentId")Long parentId);
 
+    /**
+     * 查询租户的目录版本号，没有修改过时返回 null
+     * @param tenantId
+     * @return
+     */
+    Long getCatalogueVersion(@Param("tenantId") Long tenantId);
+
+    /**
+     * 递增租户的目录版本号
+     * @param tenantId
+     * @return
+     */
+    Integer increaseCatalogueVersion(@Param("tenantId") Long tenantId);
+
 }
@@ -43,6 +43,13 @@ public interface DevelopFunctionDao {
      */
     List<BatchFunction> listByNodePidAndTenantId(@Param("tenantId") Long tenantId, @Param("nodePid") Long nodePid);
 
+    /**
+     * 根据 租户 查询
+     * @param tenantId
+     * @return
+     */
+    List<BatchFunction> listByTenantId(@Param("tenantId") Long tenantId);
+
     /**
      * 根据引擎类型 查询对应函数的跟目录
      * @param taskType
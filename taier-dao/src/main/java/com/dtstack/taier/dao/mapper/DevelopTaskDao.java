@@ -78,6 +78,8 @@ public interface DevelopTaskDao {
 
     List<BatchTask> catalogueListBatchTaskByNodePid(@Param("tenantId") Long tenantId, @Param("nodePid") Long nodePid);
 
+    List<BatchTask> catalogueListBatchTaskByTenantId(@Param("tenantId") Long tenantId);
+
     Integer updateSqlText(BatchTask batchTask);
 
     Integer updateScheduleConf(@Param("flowId") Long flowId, @Param("periodType") Integer periodType, @Param("scheduleConf")String scheduleConf);
@@ -44,5 +44,7 @@ public interface ScheduleEngineJobCacheMapper extends BaseMapper<ScheduleEngineJ
 
     Long minPriorityByStage(@Param("jobResource") String jobResource, @Param("stages") List<Integer> stages, @Param("nodeAddress") String nodeAddress);
 
+    List<Map<String,Object>> groupByNodeAddressAndJobResource(@Param("sizeStages") List<Integer> sizeStages, @Param("priorityStages") List<Integer> priorityStages);
+
     Integer deleteByJobIds(@Param("jobIds") List<String> jobIds);
 }
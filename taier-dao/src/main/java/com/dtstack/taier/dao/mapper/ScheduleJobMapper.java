@@ -111,5 +111,17 @@ public interface ScheduleJobMapper extends BaseMapper<ScheduleJob> {
      */
     Integer updateJobStatusAndExecTime(@Param("jobId") String jobId, @Param("status") int status);
 
+    /**
+     * 批量更新实例状态，当前状态在排除列表中的实例不更新
+     *
+     * @param jobIds          实例 id
+     * @param status          状态
+     * @param finished        是否同时更新结束时间和运行时长
+     * @param excludeStatuses 不允许被覆盖的状态
+     * @return 更新数
+     */
+    Integer updateJobStatusByJobIdsExcludeStatus(@Param("jobIds") List<String> jobIds, @Param("status") Integer status,
+                                                 @Param("finished") boolean finished, @Param("excludeStatuses") List<Integer> excludeStatuses);
+
 
 }
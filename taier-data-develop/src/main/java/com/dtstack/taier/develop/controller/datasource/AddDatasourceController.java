@@ -264,6 +264,18 @@ public class AddDatasourceController {
         }.execute();
     }
 
+    @PostMapping(value = "refreshMetaCache")
+    @ApiOperation(value = "刷新数据源元数据缓存")
+    public R<Boolean> refreshMetaCache(@RequestBody BatchDataSourceGetVO vo) {
+        return new APITemplate<Boolean>() {
+            @Override
+            protected Boolean process() {
+                datasourceService.refreshMetaCache(vo.getSourceId(), vo.getSchema());
+                return true;
+            }
+        }.execute();
+    }
+
     @ApiOperation(value = "获取生成目标表建表SQL")
     @PostMapping(value = "getCreateTargetTableSql")
     public R<String> getCreateTargetTableSql(@RequestBody BatchDatasourceTableCreateSQLVO tableVO) {
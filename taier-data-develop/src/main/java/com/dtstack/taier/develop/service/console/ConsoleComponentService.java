@@ -32,6 +32,7 @@ import com.dtstack.taier.pluginapi.util.PublicUtil;
 import com.dtstack.taier.scheduler.WorkerOperator;
 import com.dtstack.taier.scheduler.impl.pojo.ClientTemplate;
 import com.dtstack.taier.scheduler.impl.pojo.ComponentMultiTestResult;
+import com.dtstack.taier.scheduler.service.ClusterService;
 import com.dtstack.taier.scheduler.service.ComponentConfigService;
 import com.dtstack.taier.scheduler.service.ComponentService;
 import com.dtstack.taier.scheduler.service.QueueService;
@@ -109,6 +110,9 @@ public class ConsoleComponentService {
     @Autowired
     private ComponentService componentService;
 
+    @Autowired
+    private ClusterService clusterService;
+
     /**
      * 组件配置文件映射
      */
@@ -721,6 +725,7 @@ public class ConsoleComponentService {
 
     public void updateCache() {
         componentConfigService.clearComponentCache();
+        clusterService.clearPluginInfoCache();
     }
 
     private List<PrincipalName> getPrincipal(File file) {
@@ -820,7 +825,9 @@ public class ConsoleComponentService {
         updateComponentKerberosFile(clusterId, addComponent, sftpFileManage, remoteDir, resource, null, null);
 
         List<KerberosConfig> kerberosConfigs = consoleKerberosMapper.listAll();
-        return mergeKrb5(kerberosConfigs);
+        String mergeKrb5Content = mergeKrb5(kerberosConfigs);
+        this.updateCache();
+        return mergeKrb5Content;
     }
 
 
@@ -903,6 +910,7 @@ public class ConsoleComponentService {
                 consoleKerberosMapper.updateById(kerberosConfig);
                 LOGGER.info("Update krb5 remotePath {}", remotePath);
             }
+            this.updateCache();
         } catch (Exception e) {
             LOGGER.error("Update krb5 error! {}", e.getMessage());
             throw new RdosDefineException(e);
@@ -926,6 +934,7 @@ public class ConsoleComponentService {
         updateComponent.setId(componentId);
         updateComponent.setKerberosFileName("");
         componentMapper.updateById(updateComponent);
+        this.updateCache();
     }
 
 
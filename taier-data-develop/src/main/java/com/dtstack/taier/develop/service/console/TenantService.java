@@ -186,6 +186,7 @@ public class TenantService {
         et.setTenantId(tenantId);
         et.setClusterId(clusterId);
         clusterTenantMapper.insert(et);
+        clusterService.clearPluginInfoCache();
     }
 
     private Tenant getTenant(Long tenantId) {
@@ -219,6 +220,7 @@ public class TenantService {
         if (result == 0) {
             throw new RdosDefineException("The update engine queue failed");
         }
+        clusterService.clearPluginInfoCache();
     }
 
     /**
@@ -0,0 +1,140 @@
+package com.dtstack.taier.develop.service.datasource.impl;
+
+import com.dtstack.taier.common.env.EnvironmentContext;
+import com.dtstack.taier.common.exception.RdosDefineException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据源元数据缓存（表、字段、分区、schema），预览数据是表中的实时数据，不缓存
+ * 1. 按数据源、元数据类型、schema 和查询条件缓存，写入后超过过期时间失效，过期时间较短，
+ *    其他节点上的修改或数据源本身的表结构变更最多延迟一个过期时间可见
+ * 2. 同一个 key 并发加载时只请求一次数据源，其余请求等待加载结果
+ * 3. 数据源修改、删除或手动刷新时按数据源或 schema 清除
+ */
+@Component
+public class DatasourceMetaCache implements InitializingBean {
+
+    public enum MetaType {
+        TABLE_LIST,
+        TABLE_COLUMN,
+        PARTITION,
+        SCHEMA
+    }
+
+    @Autowired
+    private EnvironmentContext environmentContext;
+
+    private Cache<MetaKey, Optional<Object>> cache;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        long expire = environmentContext.getDatasourceMetaCacheExpire();
+        if (expire <= 0) {
+            return;
+        }
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(expire, TimeUnit.SECONDS)
+                .maximumSize(environmentContext.getDatasourceMetaCacheSize())
+                .build();
+    }
+
+    /**
+     * 获取缓存的元数据，不存在时调用 loader 加载
+     *
+     * @param sourceId  数据源id
+     * @param type      元数据类型
+     * @param schema    schema
+     * @param condition 查询条件，如表名、模糊查询的表名
+     * @param loader    从数据源加载
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long sourceId, MetaType type, String schema, String condition, Callable<T> loader) {
+        if (cache == null) {
+            return call(loader);
+        }
+        try {
+            return (T) cache.get(new MetaKey(sourceId, type, schema, condition), () -> Optional.ofNullable(loader.call())).orElse(null);
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RdosDefineException(cause);
+        }
+    }
+
+    /**
+     * 清除数据源的缓存
+     *
+     * @param sourceId 数据源id
+     * @param schema   为空时清除数据源下所有的缓存
+     */
+    public void invalidate(Long sourceId, String schema) {
+        if (cache == null) {
+            return;
+        }
+        cache.asMap().keySet().removeIf(key -> Objects.equals(key.sourceId, sourceId)
+                && (schema == null || Objects.equals(key.schema, schema)));
+    }
+
+    private static <T> T call(Callable<T> loader) {
+        try {
+            return loader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RdosDefineException(e);
+        }
+    }
+
+    private static class MetaKey {
+
+        private final Long sourceId;
+
+        private final MetaType type;
+
+        private final String schema;
+
+        private final String condition;
+
+        private MetaKey(Long sourceId, MetaType type, String schema, String condition) {
+            this.sourceId = sourceId;
+            this.type = type;
+            this.schema = schema;
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            MetaKey metaKey = (MetaKey) o;
+            return Objects.equals(sourceId, metaKey.sourceId) && type == metaKey.type
+                    && Objects.equals(schema, metaKey.schema) && Objects.equals(condition, metaKey.condition);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceId, type, schema, condition);
+        }
+    }
+}
@@ -162,6 +162,9 @@ public class DatasourceService {
     @Autowired
     private EnvironmentContext environmentContext;
 
+    @Autowired
+    private DatasourceMetaCache datasourceMetaCache;
+
     /**
      * FIMXE 暂时将数据源读写权限设置在程序    里面
      */
@@ -618,6 +621,7 @@ public class DatasourceService {
                 throw new PubSvcDefineException(ErrorCode.DATASOURCE_DUP_NAME);
             }
             dsInfoService.updateById(dsInfo);
+            datasourceMetaCache.invalidate(dsInfo.getId(), null);
         } else {
             // add 存在授权产品操作
             dsInfo.setCreateUserId(dataSourceVO.getUserId());
@@ -2179,6 +2183,12 @@ public class DatasourceService {
      * @return
      */
     public List<String> tablelist(Long sourceId, String schema, String name) {
+        List<String> tables = datasourceMetaCache.get(sourceId, DatasourceMetaCache.MetaType.TABLE_LIST, schema, name,
+                () -> loadTableList(sourceId, schema, name));
+        return tables == null ? null : new ArrayList<>(tables);
+    }
+
+    private List<String> loadTableList(Long sourceId, String schema, String name) {
         List<String> tables = new ArrayList<>();
         BatchDataSource source = getOne(sourceId);
         String dataJson = source.getDataJson();
@@ -2205,7 +2215,16 @@ public class DatasourceService {
      * @return
      */
     public List<JSONObject> tablecolumn(Long projectId, Long userId, Long sourceId, String tableName, Boolean isIncludePart, String schema) {
+        List<JSONObject> columns = datasourceMetaCache.get(sourceId, DatasourceMetaCache.MetaType.TABLE_COLUMN, schema,
+                tableName + ":" + Boolean.TRUE.equals(isIncludePart), () -> loadTableColumn(sourceId, tableName, isIncludePart, schema));
+        List<JSONObject> result = new ArrayList<>(columns.size());
+        for (JSONObject column : columns) {
+            result.add((JSONObject) column.clone());
+        }
+        return result;
+    }
 
+    private List<JSONObject> loadTableColumn(Long sourceId, String tableName, Boolean isIncludePart, String schema) {
         final BatchDataSource source = this.getOne(sourceId);
         final StringBuffer newTableName = new StringBuffer();
         if (DataSourceType.SQLServer.getVal().equals(source.getType()) && StringUtils.isNotBlank(tableName)){
@@ -2337,7 +2356,12 @@ public class DatasourceService {
 
 
     public Set<String> getHivePartitions(Long sourceId, String tableName) {
+        Set<String> partitions = datasourceMetaCache.get(sourceId, DatasourceMetaCache.MetaType.PARTITION, null, tableName,
+                () -> loadHivePartitions(sourceId, tableName));
+        return Sets.newHashSet(partitions);
+    }
 
+    private Set<String> loadHivePartitions(Long sourceId, String tableName) {
         BatchDataSource source = getOne(sourceId);
         JSONObject json = JSON.parseObject(source.getDataJson());
         Map<String, Object> kerberosConfig = this.fillKerberosConfig(sourceId);
@@ -2367,7 +2391,6 @@ public class DatasourceService {
      * @author toutian
      */
     public JSONObject preview(Long sourceId, String tableName, String schema) {
-
         BatchDataSource source = getOne(sourceId);
         StringBuffer newTableName = new StringBuffer();
         if (DataSourceType.SQLServer.getVal().equals(source.getType()) && StringUtils.isNotBlank(tableName)){
@@ -2419,6 +2442,22 @@ public class DatasourceService {
      * @return
      */
     public List<String> getAllSchemas(Long sourceId, String schema) {
+        List<String> schemas = datasourceMetaCache.get(sourceId, DatasourceMetaCache.MetaType.SCHEMA, null, schema,
+                () -> loadAllSchemas(sourceId, schema));
+        return schemas == null ? null : new ArrayList<>(schemas);
+    }
+
+    /**
+     * 清除数据源的元数据缓存，下次查询时重新从数据源加载
+     *
+     * @param sourceId 数据源id
+     * @param schema   为空时清除数据源下所有的缓存
+     */
+    public void refreshMetaCache(Long sourceId, String schema) {
+        datasourceMetaCache.invalidate(sourceId, StringUtils.isBlank(schema) ? null : schema);
+    }
+
+    private List<String> loadAllSchemas(Long sourceId, String schema) {
         BatchDataSource source = getOne(sourceId);
         String dataJson = source.getDataJson();
         JSONObject json = JSON.parseObject(dataJson);
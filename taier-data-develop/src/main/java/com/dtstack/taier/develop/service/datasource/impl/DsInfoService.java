@@ -46,6 +46,9 @@ public class DsInfoService  extends BaseService<DsInfoMapper, DsInfo>{
     @Autowired
     private DsTypeService dsTypeService;
 
+    @Autowired
+    private DatasourceMetaCache datasourceMetaCache;
+
     private static String KERBEROS_CONFIG = "kerberosConfig";
 
     private static String KERBEROS_DIR = "kerberosDir";
@@ -114,6 +117,7 @@ public class DsInfoService  extends BaseService<DsInfoMapper, DsInfo>{
         if (Objects.equals(dsInfo.getIsMeta(), 1)) {
             throw new PubSvcDefineException(ErrorCode.CAN_NOT_DEL_META_DS);
         }
+        datasourceMetaCache.invalidate(dataInfoId, null);
         return this.getBaseMapper().deleteById(dataInfoId) > 0;
     }
 
@@ -34,6 +34,7 @@ import com.dtstack.taier.dao.domain.BatchFunction;
 import com.dtstack.taier.dao.domain.BatchResource;
 import com.dtstack.taier.dao.domain.BatchTask;
 import com.dtstack.taier.dao.domain.Dict;
+import com.dtstack.taier.dao.domain.User;
 import com.dtstack.taier.dao.mapper.DevelopCatalogueDao;
 import com.dtstack.taier.develop.dto.devlop.BatchCatalogueVO;
 import com.dtstack.taier.develop.dto.devlop.CatalogueVO;
@@ -67,6 +68,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 /**
@@ -102,6 +104,9 @@ public class BatchCatalogueService {
     @Autowired
     private ReadWriteLockService readWriteLockService;
 
+    @Autowired
+    private CatalogueTreeCache catalogueTreeCache;
+
 
     private static final String FUNCTION_MANAGER_NAME = "函数管理";
 
@@ -191,6 +196,9 @@ public class BatchCatalogueService {
         } else {
             developCatalogueDao.insert(batchCatalogue);
         }
+        if (batchCatalogue.getTenantId() != null) {
+            catalogueTreeCache.invalidate(batchCatalogue.getTenantId());
+        }
 
         return batchCatalogue;
     }
@@ -462,6 +470,7 @@ public class BatchCatalogueService {
         }
         updateCatalogue.setGmtModified(Timestamp.valueOf(LocalDateTime.now()));
         addOrUpdate(updateCatalogue);
+        catalogueTreeCache.invalidate(catalogue.getTenantId());
 
     }
 
@@ -495,6 +504,7 @@ public class BatchCatalogueService {
         catalogue.setIsDeleted(Deleted.DELETED.getStatus());
         catalogue.setGmtModified(Timestamp.valueOf(LocalDateTime.now()));
         developCatalogueDao.deleteById(catalogue.getId());
+        catalogueTreeCache.invalidate(catalogue.getTenantId());
     }
 
 
@@ -535,8 +545,10 @@ public class BatchCatalogueService {
      * @return
      */
     public List<CatalogueVO> getCatalogueOne(Long tenantId) {
+        CatalogueTreeCache.Snapshot snapshot = catalogueTreeCache.get(tenantId);
         //查询 0 级目录
-        List<BatchCatalogue> zeroCatalogues = developCatalogueDao.listByLevelAndTenantId(0, tenantId);
+        List<BatchCatalogue> zeroCatalogues = snapshot.listCatalogueByLevel(0);
+        zeroCatalogues.sort(Comparator.comparing(BatchCatalogue::getOrderVal, Comparator.nullsFirst(Comparator.naturalOrder())));
         //从字典表中查询出初始化的 0 级目录
         List<Dict> zeroCatalogueDictList = dictService.listByDictType(DictType.DATA_DEVELOP_CATALOGUE);
         //从字典表中查询出初始化的 1 级目录
@@ -555,7 +567,7 @@ public class BatchCatalogueService {
             zeroCatalogueVOList.add(zeroCatalogueVO);
 
             //查询一级目录下的子目录
-            List<BatchCatalogue> oneChildCatalogues = developCatalogueDao.listByPidAndTenantId(zeroCatalogue.getId(), tenantId);
+            List<BatchCatalogue> oneChildCatalogues = snapshot.listChildCatalogue(zeroCatalogue.getId());
             if (FUNCTION_MANAGER_NAME.equals(zeroCatalogue.getNodeName())) {
                 //如果是函数目录，默认添加上系统函数目录
                 BatchCatalogue systemFuncCatalogue = developCatalogueDao.getSystemFunctionCatalogueOne(EngineCatalogueType.SPARK.getType());
@@ -591,9 +603,15 @@ public class BatchCatalogueService {
      * @author jiangbo、toutian
      */
     private CatalogueVO getChildNode(CatalogueVO currentCatalogueVO, Boolean isGetFile, Long userId, Long tenantId) {
-        BatchCatalogue currentCatalogue = developCatalogueDao.getOne(currentCatalogueVO.getId());
+        CatalogueTreeCache.Snapshot snapshot = catalogueTreeCache.get(tenantId);
+        BatchCatalogue currentCatalogue = snapshot.getCatalogue(currentCatalogueVO.getId());
         if (currentCatalogue == null) {
-            throw new RdosDefineException(ErrorCode.CAN_NOT_FIND_CATALOGUE);
+            //不在当前租户下的目录，如系统函数目录
+            currentCatalogue = developCatalogueDao.getOne(currentCatalogueVO.getId());
+            if (currentCatalogue == null) {
+                throw new RdosDefineException(ErrorCode.CAN_NOT_FIND_CATALOGUE);
+            }
+            snapshot = catalogueTreeCache.get(currentCatalogue.getTenantId());
         }
 
         currentCatalogueVO.setTenantId(currentCatalogue.getTenantId());
@@ -611,10 +629,11 @@ public class BatchCatalogueService {
 
             //任务目录
             if (CatalogueType.TASK_DEVELOP.getType().equals(currentCatalogueVO.getCatalogueType())) {
-                List<BatchTask> taskList = batchTaskService.catalogueListBatchTaskByNodePid(tenantId, currentCatalogueVO.getId());
+                List<BatchTask> taskList = snapshot.listTask(currentCatalogueVO.getId());
                 taskList.sort(Comparator.comparing(BatchTask::getName));
                 if (CollectionUtils.isNotEmpty(taskList)) {
                     List<Long> taskIds = taskList.stream().map(BatchTask::getId).collect(Collectors.toList());
+                    fillUserNames(userIdAndNameMap, taskList.stream().flatMap(task -> Stream.of(task.getCreateUserId(), task.getModifyUserId())));
                     Map<Long, ReadWriteLockVO> readWriteLockIdAndVOMap = getReadWriteLockVOMap(tenantId, taskIds, userId, userIdAndNameMap);
 
                     //遍历目录下的所有任务
@@ -639,9 +658,10 @@ public class BatchCatalogueService {
                 }
             } else if (FUNCTION_CATALOGUE_TYPE.contains(currentCatalogueVO.getCatalogueType())) {
                 //处理函数目录
-                List<BatchFunction> functionList = batchFunctionService.listByNodePidAndTenantId(currentCatalogueVO.getTenantId(), currentCatalogueVO.getId());
+                List<BatchFunction> functionList = snapshot.listFunction(currentCatalogueVO.getId());
                 if (CollectionUtils.isNotEmpty(functionList)) {
                     functionList.sort(Comparator.comparing(BatchFunction::getName));
+                    fillUserNames(userIdAndNameMap, functionList.stream().map(BatchFunction::getCreateUserId));
                     for (BatchFunction function : functionList) {
                         CatalogueVO child = new CatalogueVO();
                         BeanUtils.copyProperties(function, child);
@@ -654,9 +674,10 @@ public class BatchCatalogueService {
                 }
             } else if (CatalogueType.RESOURCE_MANAGER.getType().equals(currentCatalogueVO.getCatalogueType())) {
                 //处理资源目录
-                List<BatchResource> resourceList = batchResourceService.listByPidAndTenantId(tenantId, currentCatalogueVO.getId());
+                List<BatchResource> resourceList = snapshot.listResource(currentCatalogueVO.getId());
                 resourceList.sort(Comparator.comparing(BatchResource::getResourceName));
                 if (CollectionUtils.isNotEmpty(resourceList)) {
+                    fillUserNames(userIdAndNameMap, resourceList.stream().map(BatchResource::getCreateUserId));
                     for (BatchResource resource : resourceList) {
                         CatalogueVO childResource = new CatalogueVO();
                         BeanUtils.copyProperties(resource, childResource);
@@ -673,7 +694,7 @@ public class BatchCatalogueService {
         }
 
         //获取目录下的子目录
-        List<BatchCatalogue> childCatalogues = this.getChildCataloguesByType(currentCatalogueVO.getId(), currentCatalogueVO.getCatalogueType(), currentCatalogue.getTenantId());
+        List<BatchCatalogue> childCatalogues = this.getChildCataloguesByType(currentCatalogue, currentCatalogueVO.getCatalogueType(), snapshot);
         childCatalogues = keepInitCatalogueBeTop(childCatalogues, currentCatalogue);
         List<CatalogueVO> children = new ArrayList<>();
         for (BatchCatalogue catalogue : childCatalogues) {
@@ -746,6 +767,23 @@ public class BatchCatalogueService {
     }
 
 
+    /**
+     * 批量查询用户名称放入缓存
+     * @param names
+     * @param userIds
+     */
+    private void fillUserNames(Map<Long, String> names, Stream<Long> userIds) {
+        Set<Long> ids = userIds.filter(id -> id != null && !names.containsKey(id)).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, User> users = userService.getUserMap(ids);
+        for (Long id : ids) {
+            User user = users.get(id);
+            names.put(id, user == null ? "" : user.getUserName());
+        }
+    }
+
     /**
      * 设置用户名称
      * @param names
@@ -800,39 +838,42 @@ public class BatchCatalogueService {
 
     /**
      * 根据目录类型，获取目录的子目录信息
-     * @param catalogueId
+     * @param catalogue
      * @param catalogueType
-     * @param tenantId
-     * @param tenantId
+     * @param snapshot
      * @return
      */
-    private List<BatchCatalogue> getChildCataloguesByType(Long catalogueId, String catalogueType, Long tenantId) {
-        List<BatchCatalogue> childCatalogues = developCatalogueDao.listByPidAndTenantId(catalogueId, tenantId);
-        this.replaceSystemFunction(catalogueId, catalogueType, childCatalogues);
+    private List<BatchCatalogue> getChildCataloguesByType(BatchCatalogue catalogue, String catalogueType, CatalogueTreeCache.Snapshot snapshot) {
+        List<BatchCatalogue> childCatalogues = snapshot.listChildCatalogue(catalogue.getId());
+        this.replaceSystemFunction(catalogue, catalogueType, childCatalogues);
         return childCatalogues;
     }
 
 
     /**
      * 根据目录类型查询对应的函数根目录
-     * @param catalogueId
+     * @param catalogue
      * @param catalogueType
      * @param childCatalogues
      */
-    private void replaceSystemFunction(Long catalogueId, String catalogueType, List<BatchCatalogue> childCatalogues) {
+    private void replaceSystemFunction(BatchCatalogue catalogue, String catalogueType, List<BatchCatalogue> childCatalogues) {
         if (CatalogueType.SPARKSQL_FUNCTION.getType().equals(catalogueType)) {
-            BatchCatalogue one = developCatalogueDao.getOne(catalogueId);
-            EngineCatalogueType systemEngineType = EngineCatalogueType.getByeName(one == null ? null : one.getNodeName());
+            EngineCatalogueType systemEngineType = EngineCatalogueType.getByeName(catalogue.getNodeName());
             //需要将系统函数替换对应 引擎的函数模板
             BatchCatalogue systemFuncCatalogue = developCatalogueDao.getSystemFunctionCatalogueOne(systemEngineType.getType());
             if (systemFuncCatalogue == null) {
                 return;
             }
 
-            for (BatchCatalogue childCatalogue : childCatalogues) {
+            for (int i = 0; i < childCatalogues.size(); i++) {
+                BatchCatalogue childCatalogue = childCatalogues.get(i);
                 if ("系统函数".equals(childCatalogue.getNodeName())) {
-                    childCatalogue.setNodePid(systemFuncCatalogue.getNodePid());
-                    childCatalogue.setId(systemFuncCatalogue.getId());
+                    //快照中的目录是共享的，替换为副本
+                    BatchCatalogue replaceCatalogue = new BatchCatalogue();
+                    BeanUtils.copyProperties(childCatalogue, replaceCatalogue);
+                    replaceCatalogue.setNodePid(systemFuncCatalogue.getNodePid());
+                    replaceCatalogue.setId(systemFuncCatalogue.getId());
+                    childCatalogues.set(i, replaceCatalogue);
                 }
             }
         }
@@ -25,6 +25,7 @@ import com.dtstack.taier.develop.service.develop.IDataDownloadService;
 import com.dtstack.taier.develop.service.develop.MultiEngineServiceFactory;
 import com.dtstack.taier.develop.service.schedule.JobExpandService;
 import com.dtstack.taier.develop.utils.develop.common.IDownload;
+import com.dtstack.taier.develop.utils.develop.common.StreamTextWriter;
 import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -33,9 +34,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedOutputStream;
 import java.io.FileNotFoundException;
-import java.io.OutputStream;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.Objects;
@@ -57,6 +57,14 @@ public class BatchDownloadService {
 
     public static final Integer DEFAULT_LOG_PREVIEW_BYTES = 16383;
 
+    private static final String[] ENGINE_LOG_ESCAPES = {"\\n", "\\t"};
+
+    private static final String[] ENGINE_LOG_REPLACEMENTS = {"\n", " "};
+
+    private static final String[] SYNC_LOG_ESCAPES = {"\\n\"", "\\n\\t"};
+
+    private static final String[] SYNC_LOG_REPLACEMENTS = {"\n", "\n"};
+
     @Autowired
     private MultiEngineServiceFactory multiEngineServiceFactory;
 
@@ -152,10 +160,9 @@ public class BatchDownloadService {
                 if (iDownload instanceof SyncDownload) {
                     writeFileWithSyncLog(response, iDownload);
                 } else {
-                    try (OutputStream os = response.getOutputStream(); BufferedOutputStream bos = new BufferedOutputStream(os)) {
+                    try (StreamTextWriter writer = new StreamTextWriter(response.getOutputStream())) {
                         while (!iDownload.reachedEnd()) {
-                            Object row = iDownload.readNext();
-                            bos.write(row.toString().getBytes());
+                            writer.writeRow(iDownload.readNext());
                         }
                     } catch (Exception e) {
                         LOGGER.error("下载日志异常，{}", e);
@@ -167,8 +174,8 @@ public class BatchDownloadService {
             if (e instanceof FileNotFoundException) {
                 writeFileWithEngineLog(response, jobId);
             } else {
-                try (OutputStream os = response.getOutputStream(); BufferedOutputStream bos = new BufferedOutputStream(os)) {
-                    bos.write(String.format("下载文件异常:", e.getMessage()).getBytes());
+                try (StreamTextWriter writer = new StreamTextWriter(response.getOutputStream())) {
+                    writer.write(String.format("下载文件异常:", e.getMessage()));
                 } catch (Exception e1) {
                     LOGGER.error("", e1);
                 }
@@ -192,40 +199,36 @@ public class BatchDownloadService {
      */
     private void writeFileWithEngineLog(HttpServletResponse response, String jobId) {
         //hdfs没有日志就下载engine里的日志
-        try (OutputStream os = response.getOutputStream(); BufferedOutputStream bos = new BufferedOutputStream(os)) {
-            String log = getLog(jobId);
-            if (StringUtils.isNotBlank(log)) {
-                bos.write(log.getBytes());
-            }
+        try (StreamTextWriter writer = new StreamTextWriter(response.getOutputStream())) {
+            writeLog(writer, jobId);
         }catch (Exception e) {
             LOGGER.error("下载engineLog异常，{}", e);
         }
     }
 
     /**
-     * 获取log
+     * 输出log，转义的换行符和制表符在写出时替换
      *
+     * @param writer
      * @param jobId
      */
-    private String getLog(String jobId){
-        StringBuilder log = new StringBuilder();
+    private void writeLog(StreamTextWriter writer, String jobId) throws IOException {
         //hdfs没有日志就下载engine里的日志
         if (StringUtils.isNotBlank(jobId)) {
             ScheduleJobExpand scheduleJobExpand = jobExpandService.selectOneByJobId(jobId);
             if (Objects.nonNull(scheduleJobExpand)) {
-                log.append("=====================提交日志========================\n");
+                writer.write("=====================提交日志========================\n");
                 if (StringUtils.isNotBlank(scheduleJobExpand.getLogInfo())) {
-                    log.append(scheduleJobExpand.getLogInfo().replace("\\n", "\n").replace("\\t", " "));
+                    writer.write(scheduleJobExpand.getLogInfo(), ENGINE_LOG_ESCAPES, ENGINE_LOG_REPLACEMENTS);
                 }
-                log.append("\n\n\n");
+                writer.write("\n\n\n");
                 if (StringUtils.isNotBlank(scheduleJobExpand.getEngineLog())) {
-                    log.append("=====================运行日志========================\n");
-                    log.append(scheduleJobExpand.getEngineLog().replace("\\n", "\n").replace("\\t", " "));
-                    log.append("\n\n\n");
+                    writer.write("=====================运行日志========================\n");
+                    writer.write(scheduleJobExpand.getEngineLog(), ENGINE_LOG_ESCAPES, ENGINE_LOG_REPLACEMENTS);
+                    writer.write("\n\n\n");
                 }
             }
         }
-        return log.toString();
     }
 
     /**
@@ -234,10 +237,8 @@ public class BatchDownloadService {
      * @param downloadInvoke
      */
     private void writeFileWithSyncLog(HttpServletResponse response, IDownload downloadInvoke) {
-        try (OutputStream os = response.getOutputStream(); BufferedOutputStream bos = new BufferedOutputStream(os)) {
-            String logInfo = ((SyncDownload) downloadInvoke).getLogInfo()
-                    .replace("\\n\"","\n").replace("\\n\\t","\n");
-            bos.write(logInfo.getBytes());
+        try (StreamTextWriter writer = new StreamTextWriter(response.getOutputStream())) {
+            writer.write(((SyncDownload) downloadInvoke).getLogInfo(), SYNC_LOG_ESCAPES, SYNC_LOG_REPLACEMENTS);
         } catch (Exception e) {
             LOGGER.error("下载数据同步任务运行日志异常，{}", e);
         }
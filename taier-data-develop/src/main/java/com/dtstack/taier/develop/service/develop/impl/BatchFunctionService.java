@@ -72,6 +72,9 @@ public class BatchFunctionService {
     @Autowired
     private DevelopFunctionDao developFunctionDao;
 
+    @Autowired
+    private CatalogueTreeCache catalogueTreeCache;
+
     @Autowired
     private BatchFunctionResourceService batchFunctionResourceService;
 
@@ -241,6 +244,7 @@ public class BatchFunctionService {
         } else {
             developFunctionDao.insert(batchFunction);
         }
+        catalogueTreeCache.invalidate(batchFunction.getTenantId());
         return batchFunction;
     }
 
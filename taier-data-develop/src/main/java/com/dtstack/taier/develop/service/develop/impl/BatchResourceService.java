@@ -59,6 +59,9 @@ public class BatchResourceService {
 
     @Autowired
     private DevelopResourceDao developResourceDao;
+
+    @Autowired
+    private CatalogueTreeCache catalogueTreeCache;
     
     @Autowired
     private BatchFunctionResourceService batchFunctionResourceService;
@@ -158,9 +161,10 @@ public class BatchResourceService {
     private void addOrUpdate(BatchResource batchResource) {
         if (batchResource.getId() != null && batchResource.getId() > 0) {
             developResourceDao.update(batchResource);
-            return;
+        } else {
+            developResourceDao.insert(batchResource);
         }
-        developResourceDao.insert(batchResource);
+        catalogueTreeCache.invalidate(batchResource.getTenantId());
     }
 
     /**
@@ -185,6 +189,7 @@ public class BatchResourceService {
 
         //删除资源记录
         developResourceDao.deleteById(resourceId);
+        catalogueTreeCache.invalidate(tenantId);
         return resourceId;
     }
 
@@ -251,6 +256,7 @@ public class BatchResourceService {
         resourceDb.setResourceDesc(batchResourceAddDTO.getResourceDesc());
         resourceDb.setGmtModified(Timestamp.valueOf(LocalDateTime.now()));
         developResourceDao.update(resourceDb);
+        catalogueTreeCache.invalidate(resourceDb.getTenantId());
     }
 
     /**
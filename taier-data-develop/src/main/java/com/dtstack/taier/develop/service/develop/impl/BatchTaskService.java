@@ -176,6 +176,9 @@ public class BatchTaskService {
     @Autowired
     private DevelopTaskDao developTaskDao;
 
+    @Autowired
+    private CatalogueTreeCache catalogueTreeCache;
+
     @Autowired
     private TaskParamTemplateService taskParamTemplateService;
 
@@ -1278,6 +1281,7 @@ public class BatchTaskService {
             task.setReadWriteLockVO(readWriteLockVO);
             LOGGER.info("success insert batchTask, taskId:{}", task.getId());
         }
+        catalogueTreeCache.invalidate(task.getTenantId());
 
         // 右键编辑时会调用另一个接口
         if (BooleanUtils.isNotTrue(isEditBaseInfo)) {
@@ -1557,6 +1561,7 @@ public class BatchTaskService {
     public void deleteTaskInfos(Long taskId, Long tenantId, Long userId) {
         //软删除任务记录
         this.developTaskDao.deleteById(taskId, Timestamp.valueOf(LocalDateTime.now()), tenantId, userId);
+        catalogueTreeCache.invalidate(tenantId);
         //删除任务的依赖关系
         this.batchTaskTaskService.deleteTaskTaskByTaskId(taskId);
         //删除关联的函数资源
@@ -1698,7 +1703,9 @@ public class BatchTaskService {
     }
 
     private Integer updateSubmitStatus(final Long tenantId, final Long taskId, final Integer submitStatus) {
-        return this.developTaskDao.updateSubmitStatus(tenantId, taskId, submitStatus, Timestamp.valueOf(LocalDateTime.now()));
+        Integer updated = this.developTaskDao.updateSubmitStatus(tenantId, taskId, submitStatus, Timestamp.valueOf(LocalDateTime.now()));
+        catalogueTreeCache.invalidate(tenantId);
+        return updated;
     }
 
     /**
@@ -2337,6 +2344,7 @@ public class BatchTaskService {
         batchTask.setModifyUserId(userId);
         batchTask.setScheduleStatus(scheduleStatus);
         developTaskDao.update(batchTask);
+        catalogueTreeCache.invalidate(batchTask.getTenantId());
         taskService.frozenTask(Lists.newArrayList(taskId), scheduleStatus);
     }
 
@@ -33,6 +33,9 @@ public class BatchTaskVersionService {
     @Autowired
     private DevelopTaskVersionDao developTaskVersionDao;
 
+    @Autowired
+    private CatalogueTreeCache catalogueTreeCache;
+
     /**
      * 根据taskId 查询记录
      * @param taskId
@@ -49,7 +52,10 @@ public class BatchTaskVersionService {
      * @return
      */
     public Integer insert(BatchTaskVersion batchTaskVersion) {
-        return developTaskVersionDao.insert(batchTaskVersion);
+        Integer inserted = developTaskVersionDao.insert(batchTaskVersion);
+        // 任务列表中的提交状态由任务版本决定
+        catalogueTreeCache.invalidate(batchTaskVersion.getTenantId());
+        return inserted;
     }
 
     /**
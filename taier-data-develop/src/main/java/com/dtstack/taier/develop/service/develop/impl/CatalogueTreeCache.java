@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.develop.service.develop.impl;
+
+import com.dtstack.taier.common.env.EnvironmentContext;
+import com.dtstack.taier.dao.domain.BatchCatalogue;
+import com.dtstack.taier.dao.domain.BatchFunction;
+import com.dtstack.taier.dao.domain.BatchResource;
+import com.dtstack.taier.dao.domain.BatchTask;
+import com.dtstack.taier.dao.mapper.DevelopCatalogueDao;
+import com.dtstack.taier.dao.mapper.DevelopFunctionDao;
+import com.dtstack.taier.dao.mapper.DevelopResourceDao;
+import com.dtstack.taier.dao.mapper.DevelopTaskDao;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 租户目录树快照缓存
+ * 1. 快照由租户下的全部目录、任务、函数、资源各一次查询组装，按父目录在内存中关联
+ * 2. 每个租户在 develop_catalogue_version 中维护一个版本号，修改目录、任务、函数、资源后递增，
+ *    在事务中修改时与修改在同一个事务内提交
+ * 3. 读取时按主键查询版本号，与快照加载前读取的版本号不一致时重新加载，其他节点的修改同样可以感知
+ */
+@Component
+public class CatalogueTreeCache implements InitializingBean {
+
+    /**
+     * 最多缓存的租户快照数
+     */
+    private static final long MAX_SIZE = 1000L;
+
+    @Autowired
+    private EnvironmentContext environmentContext;
+
+    @Autowired
+    private DevelopCatalogueDao developCatalogueDao;
+
+    @Autowired
+    private DevelopTaskDao developTaskDao;
+
+    @Autowired
+    private DevelopFunctionDao developFunctionDao;
+
+    @Autowired
+    private DevelopResourceDao developResourceDao;
+
+    private Cache<Long, Snapshot> cache;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        long expire = environmentContext.getCatalogueTreeCacheExpire();
+        if (expire <= 0) {
+            return;
+        }
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(expire, TimeUnit.SECONDS)
+                .maximumSize(MAX_SIZE)
+                .build();
+    }
+
+    /**
+     * 获取租户当前版本的目录树快照
+     *
+     * @param tenantId 租户id
+     * @return
+     */
+    public Snapshot get(Long tenantId) {
+        if (cache == null) {
+            return load(tenantId, 0L);
+        }
+        // 先读版本号再加载，加载期间发生的修改会使版本号变大，下次读取时重新加载
+        long version = getVersion(tenantId);
+        Snapshot snapshot = cache.getIfPresent(tenantId);
+        if (snapshot != null && snapshot.version == version) {
+            return snapshot;
+        }
+        Snapshot latest = load(tenantId, version);
+        cache.asMap().merge(tenantId, latest, (old, loaded) -> old.version > loaded.version ? old : loaded);
+        return latest;
+    }
+
+    /**
+     * 租户的目录、任务、函数、资源发生修改后调用，递增租户的目录版本号
+     *
+     * @param tenantId 租户id
+     */
+    public void invalidate(Long tenantId) {
+        if (tenantId == null) {
+            return;
+        }
+        developCatalogueDao.increaseCatalogueVersion(tenantId);
+        if (cache != null) {
+            cache.invalidate(tenantId);
+        }
+    }
+
+    private long getVersion(Long tenantId) {
+        Long version = developCatalogueDao.getCatalogueVersion(tenantId);
+        return version == null ? 0L : version;
+    }
+
+    private Snapshot load(Long tenantId, long version) {
+        return new Snapshot(version,
+                developCatalogueDao.listByTenantId(tenantId),
+                developTaskDao.catalogueListBatchTaskByTenantId(tenantId),
+                developFunctionDao.listByTenantId(tenantId),
+                developResourceDao.listByTenantId(tenantId));
+    }
+
+    /**
+     * 目录树快照，返回的列表可以修改，列表中的对象为共享对象，不能修改
+     */
+    public static class Snapshot {
+
+        private final long version;
+
+        private final Map<Long, BatchCatalogue> catalogues;
+
+        private final Map<Long, List<BatchCatalogue>> childCatalogues;
+
+        private final Map<Long, List<BatchTask>> tasks;
+
+        private final Map<Long, List<BatchFunction>> functions;
+
+        private final Map<Long, List<BatchResource>> resources;
+
+        private Snapshot(long version, List<BatchCatalogue> catalogueList, List<BatchTask> taskList,
+                         List<BatchFunction> functionList, List<BatchResource> resourceList) {
+            this.version = version;
+            this.catalogues = new HashMap<>(catalogueList.size());
+            for (BatchCatalogue catalogue : catalogueList) {
+                catalogues.put(catalogue.getId(), catalogue);
+            }
+            this.childCatalogues = groupByNodePid(catalogueList, BatchCatalogue::getNodePid);
+            this.tasks = groupByNodePid(taskList, BatchTask::getNodePid);
+            this.functions = groupByNodePid(functionList, BatchFunction::getNodePid);
+            this.resources = groupByNodePid(resourceList, BatchResource::getNodePid);
+        }
+
+        public BatchCatalogue getCatalogue(Long id) {
+            return catalogues.get(id);
+        }
+
+        public List<BatchCatalogue> listCatalogueByLevel(Integer level) {
+            List<BatchCatalogue> result = new ArrayList<>();
+            for (BatchCatalogue catalogue : catalogues.values()) {
+                if (Objects.equals(level, catalogue.getLevel())) {
+                    result.add(catalogue);
+                }
+            }
+            return result;
+        }
+
+        public List<BatchCatalogue> listChildCatalogue(Long nodePid) {
+            return copyOf(childCatalogues.get(nodePid));
+        }
+
+        public List<BatchTask> listTask(Long nodePid) {
+            return copyOf(tasks.get(nodePid));
+        }
+
+        public List<BatchFunction> listFunction(Long nodePid) {
+            return copyOf(functions.get(nodePid));
+        }
+
+        public List<BatchResource> listResource(Long nodePid) {
+            return copyOf(resources.get(nodePid));
+        }
+
+        private static <T> Map<Long, List<T>> groupByNodePid(List<T> list, Function<T, Long> nodePid) {
+            Map<Long, List<T>> group = new HashMap<>();
+            for (T t : list) {
+                group.computeIfAbsent(nodePid.apply(t), k -> new ArrayList<>()).add(t);
+            }
+            return group;
+        }
+
+        private static <T> List<T> copyOf(List<T> list) {
+            return list == null ? new ArrayList<>() : new ArrayList<>(list);
+        }
+    }
+}
@@ -19,17 +19,20 @@
 package com.dtstack.taier.develop.service.develop.impl;
 
 import com.dtstack.taier.common.enums.EParamType;
+import com.dtstack.taier.common.util.ParamTemplate;
 import com.dtstack.taier.common.util.TimeParamOperator;
 import com.dtstack.taier.dao.domain.BatchSysParameter;
 import com.dtstack.taier.dao.domain.BatchTaskParam;
 import com.dtstack.taier.dao.domain.BatchTaskParamShade;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -50,7 +53,7 @@ public class JobParamReplace {
 
     private static final Pattern PARAM_PATTERN = Pattern.compile("\\$\\{(.*?)\\}");
 
-    private final SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMddHHmmss");
+    private final FastDateFormat sdf = FastDateFormat.getInstance("yyyyMMddHHmmss");
 
     private final static String VAR_FORMAT = "${%s}";
 
@@ -65,33 +68,61 @@ public class JobParamReplace {
             return sql;
         }
 
+        Map<String, Object> params = new HashMap<>(paramList.size());
         for (Object param : paramList) {
-            Integer type;
-            String paramName;
-            String paramCommand;
-            if (param instanceof BatchTaskParamShade){
-                type = ((BatchTaskParamShade) param).getType();
-                paramName = ((BatchTaskParamShade) param).getParamName();
-                paramCommand = ((BatchTaskParamShade) param).getParamCommand();
-            } else {
-                type = ((BatchTaskParam) param).getType();
-                paramName = ((BatchTaskParam) param).getParamName();
-                paramCommand = ((BatchTaskParam) param).getParamCommand();
+            String replaceStr = String.format(VAR_FORMAT, getParamName(param));
+            if (!ParamTemplate.isPlaceholder(replaceStr)) {
+                return sequentialReplace(sql, paramList, cycTime);
             }
+            // 与逐个替换一致，同名参数以第一个为准
+            params.putIfAbsent(replaceStr, param);
+        }
+
+        Map<String, String> values = new HashMap<>(params.size());
+        String result = ParamTemplate.compile(sql).render(replaceStr -> {
+            Object param = params.get(replaceStr);
+            if (param == null) {
+                return null;
+            }
+            return values.computeIfAbsent(replaceStr, k -> convertParam(param, cycTime));
+        });
+        return result != null ? result : sequentialReplace(sql, paramList, cycTime);
+    }
 
-            String replaceStr = String.format(VAR_FORMAT, paramName);
+    /**
+     * 按参数顺序逐个替换
+     */
+    private String sequentialReplace(String sql, List paramList, String cycTime) {
+        for (Object param : paramList) {
+            String replaceStr = String.format(VAR_FORMAT, getParamName(param));
             // 判断参数是否存在 SQL 中
             if (!sql.contains(replaceStr)) {
                 continue;
             }
 
-            String targetVal = convertParam(type,paramName,paramCommand,cycTime);
+            String targetVal = convertParam(param, cycTime);
             sql = sql.replace(replaceStr, targetVal);
         }
 
         return sql;
     }
 
+    private String getParamName(Object param) {
+        if (param instanceof BatchTaskParamShade) {
+            return ((BatchTaskParamShade) param).getParamName();
+        }
+        return ((BatchTaskParam) param).getParamName();
+    }
+
+    private String convertParam(Object param, String cycTime) {
+        if (param instanceof BatchTaskParamShade) {
+            BatchTaskParamShade paramShade = (BatchTaskParamShade) param;
+            return convertParam(paramShade.getType(), paramShade.getParamName(), paramShade.getParamCommand(), cycTime);
+        }
+        BatchTaskParam taskParam = (BatchTaskParam) param;
+        return convertParam(taskParam.getType(), taskParam.getParamName(), taskParam.getParamCommand(), cycTime);
+    }
+
     /**
      * 转化对应字符串中的自定义参数和系统参数
      *
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.develop.utils.develop.common;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * 下载内容的流式输出
+ * 1. 字符先写入固定大小的缓冲区，写满后用同一个编码器编码成 UTF-8 整块写出，不为每行生成字符串和字节数组
+ * 2. 输出流阻塞时写入方同步等待，内存中最多只保留一个缓冲区的数据
+ * 3. 支持写出时按顺序做字面量替换，替换结果中不能再包含其他替换目标
+ */
+public class StreamTextWriter implements Flushable, Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * 缓冲区至少能放下一个被截断的代理对和一个新字符
+     */
+    private static final int MIN_BUFFER_SIZE = 2;
+
+    private final OutputStream out;
+
+    private final CharsetEncoder encoder;
+
+    private final CharBuffer chars;
+
+    private final ByteBuffer bytes;
+
+    private boolean closed = false;
+
+    public StreamTextWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamTextWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        int size = Math.max(bufferSize, MIN_BUFFER_SIZE);
+        this.chars = CharBuffer.allocate(size);
+        this.bytes = ByteBuffer.allocate((int) Math.ceil(size * encoder.maxBytesPerChar()));
+    }
+
+    public void write(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put(c);
+    }
+
+    public void write(CharSequence text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int offset = 0;
+        while (offset < length) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            int count = Math.min(chars.remaining(), length - offset);
+            if (text instanceof String) {
+                chars.put((String) text, offset, offset + count);
+            } else {
+                for (int i = offset; i < offset + count; i++) {
+                    chars.put(text.charAt(i));
+                }
+            }
+            offset += count;
+        }
+    }
+
+    /**
+     * 写出文本，同时将 targets[i] 替换为 replacements[i]，结果和依次调用 {@link String#replace} 一致
+     */
+    public void write(String text, String[] targets, String[] replacements) throws IOException {
+        if (text == null) {
+            return;
+        }
+        int start = 0;
+        int index = 0;
+        int length = text.length();
+        while (index < length) {
+            int matched = -1;
+            for (int i = 0; i < targets.length; i++) {
+                if (text.startsWith(targets[i], index)) {
+                    matched = i;
+                    break;
+                }
+            }
+            if (matched < 0) {
+                index++;
+                continue;
+            }
+            write(text.subSequence(start, index));
+            write(replacements[matched]);
+            index += targets[matched].length();
+            start = index;
+        }
+        if (start < length) {
+            write(start == 0 ? text : text.subSequence(start, length));
+        }
+    }
+
+    /**
+     * 写出一行数据，集合按 {@link java.util.AbstractCollection#toString()} 的格式逐个元素输出
+     */
+    public void writeRow(Object row) throws IOException {
+        if (row instanceof CharSequence) {
+            write((CharSequence) row);
+        } else if (row instanceof Collection) {
+            write('[');
+            Iterator<?> iterator = ((Collection<?>) row).iterator();
+            while (iterator.hasNext()) {
+                Object value = iterator.next();
+                write(value instanceof CharSequence ? (CharSequence) value : String.valueOf(value));
+                if (iterator.hasNext()) {
+                    write(", ");
+                }
+            }
+            write(']');
+        } else {
+            write(String.valueOf(row));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        encode(false);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            encode(true);
+            encoder.flush(bytes);
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            drain();
+            if (result.isUnderflow()) {
+                break;
+            }
+        }
+        // 被截断的代理对留在缓冲区中，和后续字符一起编码
+        chars.compact();
+    }
+
+    private void drain() throws IOException {
+        if (bytes.position() > 0) {
+            out.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        }
+    }
+}
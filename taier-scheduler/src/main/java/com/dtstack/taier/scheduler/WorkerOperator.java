@@ -23,6 +23,7 @@ import com.dtstack.taier.common.client.ClientOperator;
 import com.dtstack.taier.common.exception.RdosDefineException;
 import com.dtstack.taier.pluginapi.JobClient;
 import com.dtstack.taier.pluginapi.JobIdentifier;
+import com.dtstack.taier.pluginapi.client.QueryCursor;
 import com.dtstack.taier.pluginapi.enums.TaskStatus;
 import com.dtstack.taier.pluginapi.pojo.ClusterResource;
 import com.dtstack.taier.pluginapi.pojo.ComponentTestResult;
@@ -36,6 +37,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -105,6 +108,40 @@ public class WorkerOperator {
         return status;
     }
 
+    /**
+     * 批量获取任务状态，相同插件信息的任务合并为一次请求
+     *
+     * @param jobIdentifiers 任务标识
+     * @return jobId -> 任务状态，获取插件信息失败、请求失败或插件未返回状态的任务不在返回结果中
+     */
+    public Map<String, TaskStatus> getJobStatus(List<JobIdentifier> jobIdentifiers) {
+        Map<String, List<JobIdentifier>> pluginGroup = new HashMap<>();
+        for (JobIdentifier jobIdentifier : jobIdentifiers) {
+            try {
+                String pluginInfo = this.getPluginInfo(jobIdentifier);
+                if (null == pluginInfo) {
+                    continue;
+                }
+                pluginGroup.computeIfAbsent(pluginInfo, k -> new ArrayList<>()).add(jobIdentifier);
+            } catch (Exception e) {
+                LOGGER.error("jobId:{} get pluginInfo error", jobIdentifier.getJobId(), e);
+            }
+        }
+
+        Map<String, TaskStatus> statusMap = new HashMap<>(jobIdentifiers.size());
+        for (Map.Entry<String, List<JobIdentifier>> entry : pluginGroup.entrySet()) {
+            Map<String, TaskStatus> groupStatus = clientOperator.getJobStatus(entry.getKey(), entry.getValue());
+            for (JobIdentifier jobIdentifier : entry.getValue()) {
+                TaskStatus status = groupStatus.get(jobIdentifier.getJobId());
+                // 没有返回状态的任务本轮跳过，不当作 NOTFOUND 处理
+                if (null != status) {
+                    statusMap.put(jobIdentifier.getJobId(), status);
+                }
+            }
+        }
+        return statusMap;
+    }
+
     public String getEngineLog(JobIdentifier jobIdentifier) {
         String engineLog = clientOperator.getEngineLog(this.getPluginInfo(jobIdentifier), jobIdentifier);
         if (null == engineLog) {
@@ -139,6 +176,13 @@ public class WorkerOperator {
         return clientOperator.executeQuery(pluginInfo, sql, database);
     }
 
+    /**
+     * 以游标方式执行查询，按行读取结果，使用完需要关闭
+     */
+    public QueryCursor executeQueryCursor(String pluginInfo, String sql, String database, int fetchSize, int maxRows) throws Exception {
+        return clientOperator.executeQueryCursor(pluginInfo, sql, database, fetchSize, maxRows);
+    }
+
     public String uploadStringToHdfs(String pluginInfo, String bytes, String hdfsPath) throws Exception {
         return clientOperator.uploadStringToHdfs(pluginInfo, bytes, hdfsPath);
     }
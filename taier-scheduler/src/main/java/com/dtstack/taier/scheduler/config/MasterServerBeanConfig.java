@@ -18,6 +18,8 @@
 
 package com.dtstack.taier.scheduler.config;
 
+import com.dtstack.taier.common.client.ClientBulkheadConfig;
+import com.dtstack.taier.common.client.ClientOperationType;
 import com.dtstack.taier.common.client.ClientOperator;
 import com.dtstack.taier.common.env.EnvironmentContext;
 import com.dtstack.taier.pluginapi.sftp.SftpFileManage;
@@ -37,7 +39,12 @@ public class MasterServerBeanConfig {
 
     @Bean
     public ClientOperator clientOperator(){
-        return ClientOperator.getInstance(environmentContext.getPluginPath());
+        ClientBulkheadConfig bulkheadConfig = ClientBulkheadConfig.defaultConfig();
+        for (ClientOperationType operationType : ClientOperationType.values()) {
+            bulkheadConfig.setPoolSize(operationType, environmentContext.getClientBulkheadPoolSize(operationType))
+                    .setTimeout(operationType, environmentContext.getClientBulkheadTimeout(operationType));
+        }
+        return ClientOperator.getInstance(environmentContext.getPluginPath(), bulkheadConfig);
     }
 
     @Bean
@@ -41,7 +41,6 @@ import com.dtstack.taier.scheduler.server.queue.GroupInfo;
 import com.dtstack.taier.scheduler.server.queue.GroupPriorityQueue;
 import com.dtstack.taier.scheduler.service.ScheduleJobCacheService;
 import com.dtstack.taier.scheduler.service.ScheduleJobService;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
@@ -88,6 +87,9 @@ public class JobDealer implements InitializingBean, ApplicationContextAware {
     @Autowired
     private ScheduleJobService scheduleJobService;
 
+    @Autowired
+    private JobStatusWriter jobStatusWriter;
+
     @Autowired
     private EnvironmentContext environmentContext;
 
@@ -97,6 +99,9 @@ public class JobDealer implements InitializingBean, ApplicationContextAware {
     @Autowired
     private WorkerOperator workerOperator;
 
+    @Autowired
+    private QueueStatisticsService queueStatisticsService;
+
     /**
      * key: jobResource, 计算引擎类型
      * value: queue
@@ -130,27 +135,7 @@ public class JobDealer implements InitializingBean, ApplicationContextAware {
      * key2: jobResource
      */
     public Map<String, Map<String, GroupInfo>> getAllNodesGroupQueueInfo() {
-        List<String> allNodeAddress = scheduleJobCacheService.getAllNodeAddress();
-        Map<String, Map<String, GroupInfo>> allNodeGroupInfo = Maps.newHashMap();
-        for (String nodeAddress : allNodeAddress) {
-            if (StringUtils.isBlank(nodeAddress)) {
-                continue;
-            }
-            allNodeGroupInfo.computeIfAbsent(nodeAddress, na -> {
-                Map<String, GroupInfo> nodeGroupInfo = Maps.newHashMap();
-                priorityQueueMap.forEach((jobResource, priorityQueue) -> {
-                    int groupSize = scheduleJobCacheService.countByStage(jobResource, EJobCacheStage.unSubmitted(), nodeAddress);
-                    Long minPriority = scheduleJobCacheService.minPriorityByStage(jobResource, Lists.newArrayList(EJobCacheStage.PRIORITY.getStage(), EJobCacheStage.LACKING.getStage()), nodeAddress);
-                    minPriority = minPriority == null ? 0 : minPriority;
-                    GroupInfo groupInfo = new GroupInfo();
-                    groupInfo.setSize(groupSize);
-                    groupInfo.setPriority(minPriority);
-                    nodeGroupInfo.put(jobResource, groupInfo);
-                });
-                return nodeGroupInfo;
-            });
-        }
-        return allNodeGroupInfo;
+        return queueStatisticsService.getAllNodesGroupQueueInfo(priorityQueueMap.keySet());
     }
 
     /**
@@ -217,6 +202,16 @@ public class JobDealer implements InitializingBean, ApplicationContextAware {
         return groupPriorityQueue.addRestartJob(jobClient);
     }
 
+    /**
+     * 资源组内有任务结束，唤醒本节点因资源不足等待的任务
+     */
+    public void wakeUpBackoffJobs(String jobResource) {
+        GroupPriorityQueue groupPriorityQueue = priorityQueueMap.get(jobResource);
+        if (groupPriorityQueue != null) {
+            groupPriorityQueue.wakeUpBackoffJobs();
+        }
+    }
+
     public GroupPriorityQueue getGroupPriorityQueue(String jobResource) {
         GroupPriorityQueue groupPriorityQueue = priorityQueueMap.computeIfAbsent(jobResource, k -> GroupPriorityQueue.builder()
                 .setApplicationContext(applicationContext)
@@ -227,7 +222,7 @@ public class JobDealer implements InitializingBean, ApplicationContextAware {
     }
 
     public void updateJobStatus(String jobId, Integer status) {
-        scheduleJobService.updateJobStatusByJobIds(Lists.newArrayList(jobId), status,null);
+        jobStatusWriter.write(jobId, status, false);
         LOGGER.info("jobId:{} update job status:{}.", jobId, status);
     }
 
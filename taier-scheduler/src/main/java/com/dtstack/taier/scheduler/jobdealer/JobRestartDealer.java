@@ -56,6 +56,9 @@ public class JobRestartDealer {
     @Autowired
     private ScheduleJobService scheduleJobService;
 
+    @Autowired
+    private JobStatusWriter jobStatusWriter;
+
     @Autowired
     private ScheduleEngineJobRetryMapper engineJobRetryMapper;
 
@@ -198,7 +201,7 @@ public class JobRestartDealer {
                 jobRetryRecord(scheduleJob, jobClient, null);
             }
 
-            scheduleJobService.updateStatus(jobId, TaskStatus.RESTARTING.getStatus());
+            jobStatusWriter.write(jobId, TaskStatus.RESTARTING.getStatus(), false);
             LOGGER.info("jobId:{} update job status:{}.", jobId, TaskStatus.RESTARTING.getStatus());
 
             //update retryNum
@@ -218,7 +221,7 @@ public class JobRestartDealer {
     }
 
     private void updateJobStatus(String jobId, Integer status) {
-        scheduleJobService.updateStatus(jobId, status);
+        jobStatusWriter.write(jobId, status, false);
         LOGGER.info("jobId:{} update job status:{}.", jobId, status);
     }
 
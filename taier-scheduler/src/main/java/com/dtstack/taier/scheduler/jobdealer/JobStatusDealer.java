@@ -34,11 +34,13 @@ import com.dtstack.taier.pluginapi.pojo.ParamAction;
 import com.dtstack.taier.pluginapi.util.PublicUtil;
 import com.dtstack.taier.scheduler.WorkerOperator;
 import com.dtstack.taier.scheduler.jobdealer.bo.JobCompletedInfo;
+import com.dtstack.taier.scheduler.jobdealer.bo.JobInfoSnapshot;
 import com.dtstack.taier.scheduler.jobdealer.bo.JobStatusFrequency;
 import com.dtstack.taier.scheduler.jobdealer.cache.ShardCache;
 import com.dtstack.taier.scheduler.jobdealer.cache.ShardManager;
 import com.dtstack.taier.scheduler.service.ScheduleJobCacheService;
 import com.dtstack.taier.scheduler.service.ScheduleJobService;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -47,6 +49,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
@@ -81,7 +84,10 @@ public class JobStatusDealer implements Runnable {
     private ShardManager shardManager;
     private ShardCache shardCache;
     private String jobResource;
+
+    private JobDealer jobDealer;
     private ScheduleJobService scheduleJobService;
+    private JobStatusWriter jobStatusWriter;
     private ScheduleJobCacheService scheduleJobCacheService;
     private JobRestartDealer jobRestartDealer;
     private WorkerOperator workerOperator;
@@ -91,11 +97,18 @@ public class JobStatusDealer implements Runnable {
 
     private int taskStatusDealerPoolSize;
 
+    private int jobStatusBatchSize;
+
     /**
      * 记录job 连续某个状态的频次
      */
     private final Map<String, JobStatusFrequency> jobStatusFrequency = Maps.newConcurrentMap();
 
+    /**
+     * 缓存实例 job_info 的解析结果
+     */
+    private final Map<String, JobInfoSnapshot> jobInfoSnapshots = Maps.newConcurrentMap();
+
     private ExecutorService taskStatusPool;
 
     @Override
@@ -110,26 +123,28 @@ public class JobStatusDealer implements Runnable {
                 return;
             }
 
-            jobs = jobs.stream().filter(job -> !TaskStatus.needClean(job.getValue())).collect(Collectors.toList());
+            List<String> jobIds = jobs.stream().filter(job -> !TaskStatus.needClean(job.getValue())).map(Map.Entry::getKey).collect(Collectors.toList());
+            // 已经不在当前分片中的实例不再需要解析结果
+            jobInfoSnapshots.keySet().retainAll(new HashSet<>(jobIds));
 
             Semaphore buildSemaphore = new Semaphore(taskStatusDealerPoolSize);
-            for (Map.Entry<String, Integer> job : jobs) {
+            for (List<String> batchJobIds : Lists.partition(jobIds, jobStatusBatchSize)) {
                 try {
                     buildSemaphore.acquire();
                     taskStatusPool.submit(() -> {
                         try {
                             if (LOGGER.isDebugEnabled()) {
-                                LOGGER.debug("jobId:{} before dealJob status:{}", job.getKey(), job.getValue());
+                                LOGGER.debug("jobIds:{} before dealJob", batchJobIds);
                             }
-                            dealJob(job.getKey());
+                            dealJobs(batchJobIds);
                         } catch (Throwable e) {
-                            LOGGER.error("jobId:{}", job.getKey(), e);
+                            LOGGER.error("jobIds:{}", batchJobIds, e);
                         } finally {
                             buildSemaphore.release();
                         }
                     });
                 } catch (Throwable e) {
-                    LOGGER.error("jobId:{} [acquire pool error]:",job.getKey(), e);
+                    LOGGER.error("jobIds:{} [acquire pool error]:", batchJobIds, e);
                     buildSemaphore.release();
                 }
             }
@@ -139,76 +154,131 @@ public class JobStatusDealer implements Runnable {
         }
     }
 
+    /**
+     * 批量处理一批实例：批量查询 schedule_job 和 schedule_engine_job_cache，
+     * 同一个插件的任务合并为一次状态查询
+     *
+     * @param jobIds 实例id
+     */
+    private void dealJobs(List<String> jobIds) {
+        Map<String, ScheduleJob> scheduleJobMap = scheduleJobService.getByJobIds(jobIds).stream()
+                .collect(Collectors.toMap(ScheduleJob::getJobId, job -> job, (a, b) -> a));
+        Map<String, ScheduleEngineJobCache> engineJobCacheMap = scheduleJobCacheService.getByJobIds(jobIds).stream()
+                .collect(Collectors.toMap(ScheduleEngineJobCache::getJobId, cache -> cache, (a, b) -> a));
+
+        List<JobIdentifier> jobIdentifiers = new ArrayList<>(jobIds.size());
+        for (String jobId : jobIds) {
+            ScheduleJob scheduleJob = scheduleJobMap.get(jobId);
+            ScheduleEngineJobCache engineJobCache = engineJobCacheMap.get(jobId);
+            try {
+                if (scheduleJob == null || engineJobCache == null ||
+                        (StringUtils.isBlank(scheduleJob.getApplicationId()) && StringUtils.isBlank(scheduleJob.getEngineJobId()))) {
+                    dealLostJob(jobId, scheduleJob, engineJobCache);
+                } else {
+                    jobIdentifiers.add(buildJobIdentifier(scheduleJob, engineJobCache));
+                }
+            } catch (Throwable e) {
+                LOGGER.error("jobId:{}", jobId, e);
+            }
+        }
 
-    private void dealJob(String jobId) throws Exception {
-        ScheduleJob scheduleJob = scheduleJobService.getByJobId(jobId);
-        ScheduleEngineJobCache engineJobCache = scheduleJobCacheService.getJobCacheByJobId(jobId);
-        if (scheduleJob == null || engineJobCache == null ||
-                (StringUtils.isBlank(scheduleJob.getApplicationId()) && StringUtils.isBlank(scheduleJob.getEngineJobId()))) {
-            shardCache.updateLocalMemTaskStatus(jobId, TaskStatus.CANCELED.getStatus());
+        if (jobIdentifiers.isEmpty()) {
+            return;
+        }
 
-            Integer status = TaskStatus.CANCELED.getStatus();
-            String engineJobId = null;
-            if (scheduleJob != null) {
-                engineJobId = scheduleJob.getEngineJobId();
+        Map<String, TaskStatus> statusMap = workerOperator.getJobStatus(jobIdentifiers);
+        for (JobIdentifier jobIdentifier : jobIdentifiers) {
+            String jobId = jobIdentifier.getJobId();
+            try {
+                dealJobStatus(scheduleJobMap.get(jobId), engineJobCacheMap.get(jobId), jobIdentifier, statusMap.get(jobId));
+            } catch (Throwable e) {
+                LOGGER.error("jobId:{}", jobId, e);
+            }
+        }
+    }
 
-                if (TaskStatus.getStoppedStatus().contains(scheduleJob.getStatus())) {
-                    status = scheduleJob.getStatus();
-                } else {
-                    scheduleJobService.updateJobStatusAndExecTime(jobId, status);
-                }
+    /**
+     * 实例或者缓存已经不存在、或者没有引擎任务id，直接结束
+     */
+    private void dealLostJob(String jobId, ScheduleJob scheduleJob, ScheduleEngineJobCache engineJobCache) {
+        shardCache.updateLocalMemTaskStatus(jobId, TaskStatus.CANCELED.getStatus());
+
+        Integer status = TaskStatus.CANCELED.getStatus();
+        String engineJobId = null;
+        if (scheduleJob != null) {
+            engineJobId = scheduleJob.getEngineJobId();
+
+            if (TaskStatus.getStoppedStatus().contains(scheduleJob.getStatus())) {
+                status = scheduleJob.getStatus();
             } else {
-                scheduleJobService.updateJobStatusAndExecTime(jobId, status);
+                jobStatusWriter.write(jobId, status, true);
             }
-
-            scheduleJobCacheService.deleteByJobId(jobId);
-            LOGGER.info("jobId:{} set job finished, status:{}, scheduleJob is {} null, engineJobCache is {} null, engineJobId is {} blank.",
-                    jobId, status, scheduleJob == null ? "" : "not", engineJobCache == null ? "" : "not", engineJobId == null ? "" : "not");
         } else {
-            String engineTaskId = scheduleJob.getEngineJobId();
-            String appId = scheduleJob.getApplicationId();
-            ParamAction paramAction = PublicUtil.jsonStrToObject(engineJobCache.getJobInfo(), ParamAction.class);
-            Integer taskType = paramAction.getTaskType();
+            jobStatusWriter.write(jobId, status, true);
+        }
+
+        scheduleJobCacheService.deleteByJobId(jobId);
+        jobInfoSnapshots.remove(jobId);
+        LOGGER.info("jobId:{} set job finished, status:{}, scheduleJob is {} null, engineJobCache is {} null, engineJobId is {} blank.",
+                jobId, status, scheduleJob == null ? "" : "not", engineJobCache == null ? "" : "not", engineJobId == null ? "" : "not");
+    }
+
+    /**
+     * 构建状态查询参数，job_info 没有变化时复用上一次的解析结果
+     */
+    private JobIdentifier buildJobIdentifier(ScheduleJob scheduleJob, ScheduleEngineJobCache engineJobCache) throws Exception {
+        String jobId = scheduleJob.getJobId();
+        String jobInfo = engineJobCache.getJobInfo();
+        JobInfoSnapshot snapshot = jobInfoSnapshots.get(jobId);
+        if (snapshot == null || !snapshot.isSameJobInfo(jobInfo)) {
+            ParamAction paramAction = PublicUtil.jsonStrToObject(jobInfo, ParamAction.class);
             Map<String, Object> pluginInfo = paramAction.getPluginInfo();
-            JobIdentifier jobIdentifier = new JobIdentifier(engineTaskId, appId, jobId,scheduleJob.getTenantId(),taskType,
-                    TaskParamsUtils.parseDeployTypeByTaskParams(paramAction.getTaskParams(),scheduleJob.getComputeType()).getType(),
-                    null,  MapUtils.isEmpty(pluginInfo) ? null : JSONObject.toJSONString(pluginInfo),paramAction.getComponentVersion());
+            snapshot = new JobInfoSnapshot(jobInfo, paramAction.getTaskType(),
+                    TaskParamsUtils.parseDeployTypeByTaskParams(paramAction.getTaskParams(), scheduleJob.getComputeType()).getType(),
+                    MapUtils.isEmpty(pluginInfo) ? null : JSONObject.toJSONString(pluginInfo), paramAction.getComponentVersion());
+            jobInfoSnapshots.put(jobId, snapshot);
+        }
+        return new JobIdentifier(scheduleJob.getEngineJobId(), scheduleJob.getApplicationId(), jobId, scheduleJob.getTenantId(), snapshot.getTaskType(),
+                snapshot.getDeployMode(), null, snapshot.getPluginInfo(), snapshot.getComponentVersion());
+    }
 
-            TaskStatus taskStatus = workerOperator.getJobStatus(jobIdentifier);
+    private void dealJobStatus(ScheduleJob scheduleJob, ScheduleEngineJobCache engineJobCache, JobIdentifier jobIdentifier, TaskStatus taskStatus) {
+        String jobId = jobIdentifier.getJobId();
 
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("------ jobId:{} dealJob status:{}", jobId, taskStatus);
-            }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("------ jobId:{} dealJob status:{}", jobId, taskStatus);
+        }
 
-            if (taskStatus != null) {
-
-                taskStatus = checkNotFoundStatus(taskStatus, jobId);
-                Integer status = taskStatus.getStatus();
-                // 重试状态 先不更新状态
-                boolean isRestart = jobRestartDealer.checkAndRestart(status, scheduleJob, engineJobCache, (job, client) -> ForkJoinPool.commonPool().execute(() -> {
-                    String engineLog = workerOperator.getEngineLog(jobIdentifier);
-                    jobRestartDealer.jobRetryRecord(job, client, engineLog);
-                }));
-                if (isRestart) {
-                    LOGGER.info("----- jobId:{} after dealJob status:{}", jobId, taskStatus);
-                    return;
-                }
+        if (taskStatus != null) {
+
+            taskStatus = checkNotFoundStatus(taskStatus, jobId);
+            Integer status = taskStatus.getStatus();
+            // 重试状态 先不更新状态
+            boolean isRestart = jobRestartDealer.checkAndRestart(status, scheduleJob, engineJobCache, (job, client) -> ForkJoinPool.commonPool().execute(() -> {
+                String engineLog = workerOperator.getEngineLog(jobIdentifier);
+                jobRestartDealer.jobRetryRecord(job, client, engineLog);
+            }));
+            if (isRestart) {
+                LOGGER.info("----- jobId:{} after dealJob status:{}", jobId, taskStatus);
+                return;
+            }
 
-                shardCache.updateLocalMemTaskStatus(jobId, status);
-                updateJobStatusWithPredicate(scheduleJob, jobId, status);
+            shardCache.updateLocalMemTaskStatus(jobId, status);
+            updateJobStatusWithPredicate(scheduleJob, jobId, status);
 
-                //数据的更新顺序，先更新job_cache，再更新engine_batch_job
-                if (TaskStatus.getStoppedStatus().contains(status)) {
-                    jobLogDelayDealer(jobId, jobIdentifier, engineJobCache.getComputeType(),scheduleJob.getType());
-                    jobStatusFrequency.remove(jobId);
-                    scheduleJobCacheService.deleteByJobId(jobId);
-                    LOGGER.info("------ jobId:{} is stop status {} delete jobCache", jobId, status);
-                }
+            //数据的更新顺序，先更新job_cache，再更新engine_batch_job
+            if (TaskStatus.getStoppedStatus().contains(status)) {
+                jobLogDelayDealer(jobId, jobIdentifier, engineJobCache.getComputeType(),scheduleJob.getType());
+                jobStatusFrequency.remove(jobId);
+                jobInfoSnapshots.remove(jobId);
+                scheduleJobCacheService.deleteByJobId(jobId);
+                LOGGER.info("------ jobId:{} is stop status {} delete jobCache", jobId, status);
+                jobDealer.wakeUpBackoffJobs(jobResource);
+            }
 
 
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("------ jobId:{} after dealJob status:{}", jobId, taskStatus);
-                }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("------ jobId:{} after dealJob status:{}", jobId, taskStatus);
             }
         }
     }
@@ -227,12 +297,8 @@ public class JobStatusDealer implements Runnable {
                         && TaskStatus.STOPPED_STATUS.contains(status);
 
         if (ComputeType.BATCH.getType().equals(scheduleJob.getComputeType()) || isStreamUpdateConditions.test(scheduleJob) || isStreamCancellingConditions.test(scheduleJob)) {
-            if (TaskStatus.getStoppedStatus().contains(status)) {
-                // 如果是停止状态 更新停止时间
-                scheduleJobService.updateJobStatusAndExecTime(jobId, status);
-            } else {
-                scheduleJobService.updateStatus(jobId, status);
-            }
+            // 如果是停止状态 更新停止时间
+            jobStatusWriter.write(jobId, status, TaskStatus.getStoppedStatus().contains(status));
         }
     }
     
@@ -290,6 +356,7 @@ public class JobStatusDealer implements Runnable {
         createLogDelayDealer();
 
         this.taskStatusDealerPoolSize = environmentContext.getTaskStatusDealerPoolSize();
+        this.jobStatusBatchSize = Math.max(1, environmentContext.getTaskStatusDealerBatchSize());
         this.taskStatusPool = new ThreadPoolExecutor(taskStatusDealerPoolSize, taskStatusDealerPoolSize, 60L, TimeUnit.SECONDS,
                 new LinkedBlockingQueue<>(1000), new CustomThreadFactory(jobResource + this.getClass().getSimpleName() + "DealJob"), new BlockCallerPolicy());
     }
@@ -300,6 +367,8 @@ public class JobStatusDealer implements Runnable {
         this.workerOperator = applicationContext.getBean(WorkerOperator.class);
         this.scheduleJobService = applicationContext.getBean(ScheduleJobService.class);
         this.scheduleJobCacheService = applicationContext.getBean(ScheduleJobCacheService.class);
+        this.jobDealer = applicationContext.getBean(JobDealer.class);
+        this.jobStatusWriter = applicationContext.getBean(JobStatusWriter.class);
     }
 
     private void createLogDelayDealer() {
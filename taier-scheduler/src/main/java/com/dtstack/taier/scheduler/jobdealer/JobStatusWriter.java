@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.scheduler.jobdealer;
+
+import com.dtstack.taier.common.env.EnvironmentContext;
+import com.dtstack.taier.dao.domain.ScheduleJob;
+import com.dtstack.taier.pluginapi.CustomThreadFactory;
+import com.dtstack.taier.pluginapi.enums.TaskStatus;
+import com.dtstack.taier.scheduler.event.ScheduleJobBatchEvent;
+import com.dtstack.taier.scheduler.event.ScheduleJobEventPublisher;
+import com.dtstack.taier.scheduler.service.ScheduleJobService;
+import com.google.common.collect.Lists;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 实例状态批量写入
+ * 1. 各 dealer 的非结束状态变更先进入待写队列，同一实例只保留最新的状态；结束状态同步写入，
+ *    写入失败时异常抛给调用方，调用方保留 schedule_engine_job_cache 由下一轮状态轮询重试，结束状态不会丢失
+ * 2. 待写数量达到批次大小或等待超过 flush 间隔时，按状态分组批量更新 schedule_job
+ * 3. flush 串行执行，同一实例的状态按提交顺序落库，写入成功后发布 {@link ScheduleJobBatchEvent}
+ * 4. 延迟写入期间实例可能已被其他地方同步更新(提交失败、手动停止、置成功等)，已结束的实例不会被覆盖，
+ *    重试中的状态只允许覆盖失败状态
+ * 5. 写入失败的批次最多重新入队 {@link #MAX_RETRY_TIMES} 次，之后丢弃并记录日志；
+ *    此时实例尚未结束，schedule_engine_job_cache 仍然存在，由状态轮询重新同步
+ */
+@Component
+public class JobStatusWriter implements InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobStatusWriter.class);
+
+    private static final int MAX_RETRY_TIMES = 3;
+
+    /**
+     * 已结束的状态不允许被延迟写入的状态覆盖
+     */
+    private static final List<Integer> PROTECTED_STATUSES = TaskStatus.getStoppedStatus();
+
+    /**
+     * 重试只发生在失败之后，失败状态允许被重试中覆盖
+     */
+    private static final List<Integer> RESTARTING_PROTECTED_STATUSES = TaskStatus.getStoppedStatus().stream()
+            .filter(status -> !TaskStatus.FAILED_STATUS.contains(status))
+            .collect(Collectors.toList());
+
+    @Autowired
+    private EnvironmentContext environmentContext;
+
+    @Autowired
+    private ScheduleJobService scheduleJobService;
+
+    private final Object pendingLock = new Object();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private LinkedHashMap<String, PendingStatus> pending = new LinkedHashMap<>();
+
+    private int batchSize;
+
+    private ScheduledExecutorService flushScheduler;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        this.batchSize = environmentContext.getJobStatusWriterBatchSize();
+        if (batchSize <= 1) {
+            return;
+        }
+        long flushInterval = environmentContext.getJobStatusWriterFlushInterval();
+        this.flushScheduler = new ScheduledThreadPoolExecutor(1, new CustomThreadFactory(this.getClass().getSimpleName()));
+        this.flushScheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (flushScheduler != null) {
+            flushScheduler.shutdown();
+            flush();
+        }
+    }
+
+    /**
+     * 更新实例状态，结束状态同步写入，写入失败时抛出异常
+     *
+     * @param jobId    实例id
+     * @param status   状态
+     * @param finished 是否同时更新结束时间和运行时长
+     */
+    public void write(String jobId, Integer status, boolean finished) {
+        if (StringUtils.isBlank(jobId) || status == null) {
+            return;
+        }
+        if (flushScheduler == null || PROTECTED_STATUSES.contains(status)) {
+            synchronized (pendingLock) {
+                pending.remove(jobId);
+            }
+            update(Lists.newArrayList(jobId), new StatusTransition(status, finished));
+            return;
+        }
+        boolean full;
+        synchronized (pendingLock) {
+            // 先移除再放入，保证待写顺序与最后一次提交顺序一致
+            pending.remove(jobId);
+            pending.put(jobId, new PendingStatus(new StatusTransition(status, finished), 0));
+            full = pending.size() >= batchSize;
+        }
+        if (full && !flushScheduler.isShutdown()) {
+            flushScheduler.execute(this::flush);
+        }
+    }
+
+    /**
+     * 将待写的状态全部落库
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<String, PendingStatus> batch;
+            synchronized (pendingLock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            Map<StatusTransition, List<String>> groups = new LinkedHashMap<>();
+            for (Map.Entry<String, PendingStatus> entry : batch.entrySet()) {
+                groups.computeIfAbsent(entry.getValue().transition, k -> new ArrayList<>()).add(entry.getKey());
+            }
+
+            Map<String, PendingStatus> failed = new LinkedHashMap<>();
+            for (Map.Entry<StatusTransition, List<String>> group : groups.entrySet()) {
+                for (List<String> jobIds : Lists.partition(group.getValue(), batchSize)) {
+                    try {
+                        update(jobIds, group.getKey());
+                    } catch (Throwable e) {
+                        LOGGER.error("jobIds:{} update job status:{} error", jobIds, group.getKey().status, e);
+                        for (String jobId : jobIds) {
+                            int retryTimes = batch.get(jobId).retryTimes + 1;
+                            if (retryTimes > MAX_RETRY_TIMES) {
+                                LOGGER.error("jobId:{} update job status:{} failed {} times, discard it", jobId, group.getKey().status, retryTimes);
+                            } else {
+                                failed.put(jobId, new PendingStatus(group.getKey(), retryTimes));
+                            }
+                        }
+                    }
+                }
+            }
+            if (!failed.isEmpty()) {
+                requeue(failed);
+            }
+        } catch (Throwable e) {
+            LOGGER.error("flush job status error", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void update(List<String> jobIds, StatusTransition transition) {
+        List<Integer> excludeStatuses = TaskStatus.RESTARTING.getStatus().equals(transition.status)
+                ? RESTARTING_PROTECTED_STATUSES : PROTECTED_STATUSES;
+        Integer updated = scheduleJobService.updateJobStatusByJobIdsExcludeStatus(jobIds, transition.status, transition.finished, excludeStatuses);
+
+        List<String> updatedJobIds = new ArrayList<>(jobIds);
+        if (updated == null || updated < jobIds.size()) {
+            // 部分实例已被其他地方更新为结束状态，只通知实际更新的实例
+            updatedJobIds = scheduleJobService.getByJobIds(jobIds).stream()
+                    .filter(job -> transition.status.equals(job.getStatus()))
+                    .map(ScheduleJob::getJobId)
+                    .collect(Collectors.toList());
+            if (updatedJobIds.size() < jobIds.size()) {
+                LOGGER.info("jobIds:{} skip update job status:{}, job status changed elsewhere", CollectionUtils.subtract(jobIds, updatedJobIds), transition.status);
+            }
+        }
+        if (!updatedJobIds.isEmpty()) {
+            ScheduleJobEventPublisher.getInstance().publishBatchEvent(new ScheduleJobBatchEvent(updatedJobIds, transition.status));
+        }
+    }
+
+    /**
+     * 写入失败的状态放回队首，期间已有更新状态的实例以新状态为准
+     */
+    private void requeue(Map<String, PendingStatus> failed) {
+        synchronized (pendingLock) {
+            LinkedHashMap<String, PendingStatus> merged = new LinkedHashMap<>(failed);
+            merged.keySet().removeAll(pending.keySet());
+            merged.putAll(pending);
+            pending = merged;
+        }
+    }
+
+    private static class PendingStatus {
+
+        private final StatusTransition transition;
+
+        private final int retryTimes;
+
+        private PendingStatus(StatusTransition transition, int retryTimes) {
+            this.transition = transition;
+            this.retryTimes = retryTimes;
+        }
+    }
+
+    private static class StatusTransition {
+
+        private final Integer status;
+
+        private final boolean finished;
+
+        private StatusTransition(Integer status, boolean finished) {
+            this.status = status;
+            this.finished = finished;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            StatusTransition that = (StatusTransition) o;
+            return finished == that.finished && Objects.equals(status, that.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, finished);
+        }
+    }
+}
@@ -74,6 +74,9 @@ public class JobStopDealer implements InitializingBean, DisposableBean {
     @Autowired
     private ScheduleJobService scheduleJobService;
 
+    @Autowired
+    private JobStatusWriter jobStatusWriter;
+
     @Autowired
     private EnvironmentContext environmentContext;
 
@@ -420,10 +423,11 @@ public class JobStopDealer implements InitializingBean, DisposableBean {
     }
 
     private void removeMemStatusAndJobCache(String jobId) {
+        //先同步写入结束状态，写入成功后再删除 jobCache，避免状态未落库时实例脱离状态轮询
+        jobStatusWriter.write(jobId, TaskStatus.CANCELED.getStatus(), true);
+        scheduleJobService.updateStatusAndLogInfoById(jobId, null, "");
         shardCache.removeIfPresent(jobId);
         engineJobCacheService.deleteByJobId(jobId);
-        //修改任务状态
-        scheduleJobService.updateStatusAndLogInfoById(jobId, TaskStatus.CANCELED.getStatus(),"");
         LOGGER.info("jobId:{} delete jobCache and update job status:{}, job set finished.", jobId, TaskStatus.CANCELED.getStatus());
     }
 
@@ -25,7 +25,7 @@ import com.dtstack.taier.common.exception.ClientAccessException;
 import com.dtstack.taier.common.exception.RdosDefineException;
 import com.dtstack.taier.common.exception.WorkerAccessException;
 import com.dtstack.taier.common.queue.DelayBlockingQueue;
-import com.dtstack.taier.common.util.SleepUtil;
+import com.dtstack.taier.common.queue.IndexedPriorityBlockingQueue;
 import com.dtstack.taier.dao.domain.ScheduleEngineJobCache;
 import com.dtstack.taier.pluginapi.CustomThreadFactory;
 import com.dtstack.taier.pluginapi.JobClient;
@@ -80,11 +80,22 @@ public class JobSubmitDealer implements Runnable {
     private String localAddress;
     private String jobResource = null;
     private GroupPriorityQueue priorityQueue;
-    private PriorityBlockingQueue<JobClient> queue = null;
+    private IndexedPriorityBlockingQueue<JobClient> queue = null;
     private DelayBlockingQueue<SimpleJobDelay<JobClient>> delayJobQueue = null;
     private JudgeResult workerNotFindResult = JudgeResult.notOk( "worker not find");
     private ExecutorService jobSubmitConcurrentService;
 
+    /**
+     * 资源不足或者其他节点优先级更高时，任务在这里等待 jobLackingInterval 后再放回优先级队列，
+     * 不再阻塞提交线程；同一资源组有任务结束时按到期先后提前唤醒 jobSubmitConcurrent 个任务
+     */
+    private DelayBlockingQueue<SimpleJobDelay<JobClient>> backoffJobQueue = null;
+
+    /**
+     * checkMaxPriority 不通过时，在该时间之前的任务直接等待，不再重复判断
+     */
+    private volatile long nextMaxPriorityCheckTime = 0L;
+
     public JobSubmitDealer(String localAddress, GroupPriorityQueue priorityQueue, ApplicationContext applicationContext) {
         this.jobPartitioner = applicationContext.getBean(JobPartitioner.class);
         this.workerOperator = applicationContext.getBean(WorkerOperator.class);
@@ -109,10 +120,12 @@ public class JobSubmitDealer implements Runnable {
         this.jobResource = priorityQueue.getJobResource();
         this.queue = priorityQueue.getQueue();
         this.delayJobQueue = new DelayBlockingQueue<>(priorityQueue.getQueueSizeLimited());
+        this.backoffJobQueue = new DelayBlockingQueue<>(priorityQueue.getQueueSizeLimited());
 
-        ExecutorService executorService = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        ExecutorService executorService = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
                 new LinkedBlockingQueue<>(), new CustomThreadFactory(this.getClass().getSimpleName() + "_" + jobResource + "_DelayJobProcessor"));
         executorService.submit(new RestartJobProcessor());
+        executorService.submit(new BackoffJobProcessor());
 
         this.jobSubmitConcurrentService = new ThreadPoolExecutor(jobSubmitConcurrent, jobSubmitConcurrent, 60L, TimeUnit.SECONDS,
                 new SynchronousQueue<>(true), new CustomThreadFactory(this.getClass().getSimpleName() + "_" + jobResource + "_JobSubmitConcurrent"), new BlockCallerPolicy());
@@ -143,6 +156,19 @@ public class JobSubmitDealer implements Runnable {
         }
     }
 
+    private class BackoffJobProcessor implements Runnable {
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    queue.put(backoffJobQueue.take().getJob());
+                } catch (Exception e) {
+                    LOGGER.error("", e);
+                }
+            }
+        }
+    }
+
     public boolean tryPutRestartJob(JobClient jobClient) {
         boolean tryPut = delayJobQueue.tryPut(new SimpleJobDelay<>(jobClient, EJobCacheStage.RESTART.getStage(), Objects.isNull(jobClient.getRetryIntervalTime()) ? jobRestartDelay : jobClient.getRetryIntervalTime()));
         LOGGER.info("jobId:{} {} add job to restart delayJobQueue.", jobClient.getJobId(), tryPut ? "success" : "failed");
@@ -167,7 +193,34 @@ public class JobSubmitDealer implements Runnable {
     }
 
     public int getDelayJobQueueSize() {
-        return delayJobQueue.size();
+        return delayJobQueue.size() + backoffJobQueue.size();
+    }
+
+    /**
+     * 每次等待都是独立的元素，提前唤醒时直接取出，不会有过期的唤醒作用在再次等待的任务上
+     */
+    private void backoff(JobClient jobClient) {
+        try {
+            backoffJobQueue.put(new SimpleJobDelay<>(jobClient, EJobCacheStage.PRIORITY.getStage(), jobLackingInterval));
+        } catch (InterruptedException e) {
+            queue.put(jobClient);
+            LOGGER.error("jobId:{} backoffJobQueue.put failed.", jobClient.getJobId(), e);
+        }
+    }
+
+    /**
+     * 资源组内有任务结束释放了资源，按到期先后提前唤醒最多 jobSubmitConcurrent 个等待中的任务
+     */
+    public void wakeUpBackoffJobs() {
+        int wakeUpCount = 0;
+        SimpleJobDelay<JobClient> simpleJobDelay;
+        while (wakeUpCount < jobSubmitConcurrent && (simpleJobDelay = backoffJobQueue.pollIgnoreDelay()) != null) {
+            queue.put(simpleJobDelay.getJob());
+            wakeUpCount++;
+        }
+        if (wakeUpCount > 0) {
+            LOGGER.info("jobResource:{} resource released, wake up {} backoff jobs, {} still waiting.", jobResource, wakeUpCount, backoffJobQueue.size());
+        }
     }
 
     @Override
@@ -188,10 +241,12 @@ public class JobSubmitDealer implements Runnable {
                     LOGGER.info("jobId:{} checkJobSubmitExpired is true, job ignore to submit.", jobClient.getJobId());
                     continue;
                 }
-                if (!checkMaxPriority(jobResource)) {
+                if (System.currentTimeMillis() < nextMaxPriorityCheckTime || !checkMaxPriority(jobResource)) {
                     LOGGER.info("jobId:{} checkMaxPriority is false, wait other node job which priority higher.", jobClient.getJobId());
-                    queue.put(jobClient);
-                    Thread.sleep(jobLackingInterval);
+                    if (System.currentTimeMillis() >= nextMaxPriorityCheckTime) {
+                        nextMaxPriorityCheckTime = System.currentTimeMillis() + jobLackingInterval;
+                    }
+                    backoff(jobClient);
                     continue;
                 }
 
@@ -358,9 +413,8 @@ public class JobSubmitDealer implements Runnable {
             putLackingJob(jobClient, judgeResult);
         } else {
             engineJobCacheService.updateStage(jobClient.getJobId(), EJobCacheStage.PRIORITY.getStage(), localAddress, jobClient.getPriority(), null);
-            queue.put(jobClient);
-            SleepUtil.sleep(jobLackingInterval);
-            LOGGER.info("jobId:{} unlimited_lackingCount:{} add to priorityQueue.", jobClient.getJobId(), jobClient.getLackingCount());
+            backoff(jobClient);
+            LOGGER.info("jobId:{} unlimited_lackingCount:{} add to priorityQueue after {}ms.", jobClient.getJobId(), jobClient.getLackingCount(), jobLackingInterval);
 
         }
     }
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.scheduler.jobdealer;
+
+import com.dtstack.taier.common.enums.EJobCacheStage;
+import com.dtstack.taier.scheduler.server.queue.GroupInfo;
+import com.dtstack.taier.scheduler.service.ScheduleJobCacheService;
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 集群各节点的队列统计
+ * 1. 一次分组查询 schedule_engine_job_cache 得到每个节点、每个计算资源的待提交实例数和最小优先级
+ * 2. 统计结果在刷新间隔内共享，QueueListener、JobPartitioner、各 GroupPriorityQueue 不再按节点和计算资源逐个查询
+ */
+@Component
+public class QueueStatisticsService {
+
+    /**
+     * 统计结果的刷新间隔，与队列的轮询间隔一致
+     */
+    private static final long REFRESH_INTERVAL = 5000L;
+
+    private static final List<Integer> PRIORITY_STAGES = Lists.newArrayList(EJobCacheStage.PRIORITY.getStage(), EJobCacheStage.LACKING.getStage());
+
+    @Autowired
+    private ScheduleJobCacheService scheduleJobCacheService;
+
+    private final Object refreshLock = new Object();
+
+    private volatile Statistics statistics;
+
+    /**
+     * 所有节点的队列信息
+     * key1: nodeAddress,
+     * key2: jobResource
+     *
+     * @param jobResources 没有实例时也需要返回的计算资源
+     */
+    public Map<String, Map<String, GroupInfo>> getAllNodesGroupQueueInfo(Collection<String> jobResources) {
+        Map<String, Map<String, GroupInfo>> allNodeGroupInfo = new HashMap<>();
+        getStatistics().groups.forEach((nodeAddress, nodeGroups) -> {
+            Map<String, GroupInfo> nodeGroupInfo = new HashMap<>();
+            for (String jobResource : jobResources) {
+                nodeGroupInfo.put(jobResource, toGroupInfo(nodeGroups.get(jobResource)));
+            }
+            nodeGroups.forEach((jobResource, group) -> nodeGroupInfo.putIfAbsent(jobResource, toGroupInfo(group)));
+            allNodeGroupInfo.put(nodeAddress, nodeGroupInfo);
+        });
+        return allNodeGroupInfo;
+    }
+
+    /**
+     * 节点上计算资源的待提交实例数
+     */
+    public int getGroupSize(String nodeAddress, String jobResource) {
+        Group group = getStatistics().groups.getOrDefault(nodeAddress, Collections.emptyMap()).get(jobResource);
+        return group == null ? 0 : group.size;
+    }
+
+    private Statistics getStatistics() {
+        Statistics current = statistics;
+        if (current != null && System.currentTimeMillis() - current.time < REFRESH_INTERVAL) {
+            return current;
+        }
+        synchronized (refreshLock) {
+            current = statistics;
+            if (current == null || System.currentTimeMillis() - current.time >= REFRESH_INTERVAL) {
+                current = load();
+                statistics = current;
+            }
+            return current;
+        }
+    }
+
+    private Statistics load() {
+        Map<String, Map<String, Group>> groups = new HashMap<>();
+        List<Map<String, Object>> rows = scheduleJobCacheService.groupByNodeAddressAndJobResource(EJobCacheStage.unSubmitted(), PRIORITY_STAGES);
+        for (Map<String, Object> row : rows) {
+            String nodeAddress = (String) row.get("nodeAddress");
+            String jobResource = (String) row.get("jobResource");
+            if (StringUtils.isBlank(nodeAddress) || jobResource == null) {
+                continue;
+            }
+            Object jobSize = row.get("jobSize");
+            Object minPriority = row.get("minPriority");
+            groups.computeIfAbsent(nodeAddress, k -> new HashMap<>())
+                    .put(jobResource, new Group(jobSize == null ? 0 : ((Number) jobSize).intValue(),
+                            minPriority == null ? 0L : ((Number) minPriority).longValue()));
+        }
+        return new Statistics(System.currentTimeMillis(), groups);
+    }
+
+    private static GroupInfo toGroupInfo(Group group) {
+        GroupInfo groupInfo = new GroupInfo();
+        if (group != null) {
+            groupInfo.setSize(group.size);
+            groupInfo.setPriority(group.priority);
+        }
+        return groupInfo;
+    }
+
+    private static class Statistics {
+
+        private final long time;
+
+        private final Map<String, Map<String, Group>> groups;
+
+        private Statistics(long time, Map<String, Map<String, Group>> groups) {
+            this.time = time;
+            this.groups = groups;
+        }
+    }
+
+    private static class Group {
+
+        private final int size;
+
+        private final long priority;
+
+        private Group(int size, long priority) {
+            this.size = size;
+            this.priority = priority;
+        }
+    }
+}
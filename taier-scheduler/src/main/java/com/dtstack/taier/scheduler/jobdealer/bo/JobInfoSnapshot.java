@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.scheduler.jobdealer.bo;
+
+/**
+ * 从 schedule_engine_job_cache.job_info 中解析出的状态查询参数，
+ * job_info 不变时复用，避免每次状态轮询都反序列化 ParamAction
+ */
+public class JobInfoSnapshot {
+
+    /**
+     * 解析时的 job_info 原文
+     */
+    private final String jobInfo;
+
+    private final Integer taskType;
+
+    private final Integer deployMode;
+
+    private final String pluginInfo;
+
+    private final String componentVersion;
+
+    public JobInfoSnapshot(String jobInfo, Integer taskType, Integer deployMode, String pluginInfo, String componentVersion) {
+        this.jobInfo = jobInfo;
+        this.taskType = taskType;
+        this.deployMode = deployMode;
+        this.pluginInfo = pluginInfo;
+        this.componentVersion = componentVersion;
+    }
+
+    public boolean isSameJobInfo(String jobInfo) {
+        return this.jobInfo != null && this.jobInfo.equals(jobInfo);
+    }
+
+    public Integer getTaskType() {
+        return taskType;
+    }
+
+    public Integer getDeployMode() {
+        return deployMode;
+    }
+
+    public String getPluginInfo() {
+        return pluginInfo;
+    }
+
+    public String getComponentVersion() {
+        return componentVersion;
+    }
+}
@@ -19,7 +19,6 @@
 package com.dtstack.taier.scheduler.jobdealer.cache;
 
 import com.dtstack.taier.dao.domain.ScheduleEngineJobCache;
-import com.dtstack.taier.pluginapi.exception.ExceptionUtil;
 import com.dtstack.taier.scheduler.jobdealer.JobStatusDealer;
 import com.dtstack.taier.scheduler.service.EngineJobCacheService;
 import org.slf4j.Logger;
@@ -47,6 +46,11 @@ public class ShardCache implements ApplicationContextAware {
 
     private Map<String, ShardManager> jobResourceShardManager = new ConcurrentHashMap<>();
 
+    /**
+     * jobId -> 所在分片，put 时写入，分片移除任务时同步删除，避免每次更新状态都查询数据库
+     */
+    private Map<String, ShardManager> jobShardIndex = new ConcurrentHashMap<>();
+
     private ShardManager getShardManager(String jobId) {
         EngineJobCacheService engineJobCacheService = applicationContext.getBean(EngineJobCacheService.class);
         ScheduleEngineJobCache engineJobCache = engineJobCacheService.getByJobId(jobId);
@@ -54,7 +58,7 @@ public class ShardCache implements ApplicationContextAware {
             return null;
         }
         return jobResourceShardManager.computeIfAbsent(engineJobCache.getJobResource(), jr -> {
-            ShardManager shardManager = new ShardManager(engineJobCache.getJobResource());
+            ShardManager shardManager = new ShardManager(engineJobCache.getJobResource(), removedJobId -> jobShardIndex.remove(removedJobId));
             JobStatusDealer jobStatusDealer = new JobStatusDealer();
             jobStatusDealer.setJobResource(engineJobCache.getJobResource());
             jobStatusDealer.setShardManager(shardManager);
@@ -65,51 +69,52 @@ public class ShardCache implements ApplicationContextAware {
         });
     }
 
+    private void putJob(ShardManager shardManager, String jobId, Integer status) {
+        jobShardIndex.put(jobId, shardManager);
+        shardManager.putJob(jobId, status);
+    }
+
     public boolean updateLocalMemTaskStatus(String jobId, Integer status) {
         if (jobId == null || status == null) {
             throw new IllegalArgumentException("jobId or status must not null.");
         }
-        ShardManager shardManager = getShardManager(jobId);
+        ShardManager shardManager = jobShardIndex.get(jobId);
+        if (shardManager == null) {
+            shardManager = getShardManager(jobId);
+        }
         if (shardManager != null) {
-            shardManager.putJob(jobId, status);
+            putJob(shardManager, jobId, status);
             return true;
         }
-        return removeWithForeach(jobId);
+        return false;
     }
 
 
+    /**
+     * 任务刚提交成功时调用，需要确认 job cache 仍然存在，因此不走索引
+     */
     public boolean updateLocalMemTaskStatus(String jobId, Integer status, Consumer<String> consumer) {
         if (jobId == null || status == null) {
             throw new IllegalArgumentException("jobId or status must not null.");
         }
         ShardManager shardManager = getShardManager(jobId);
         if (shardManager != null) {
-            shardManager.putJob(jobId, status);
+            putJob(shardManager, jobId, status);
             return true;
         }
         consumer.accept(jobId);
-        return removeWithForeach(jobId);
+        return removeIfPresent(jobId);
     }
 
     public boolean removeIfPresent(String jobId) {
         if (jobId == null) {
             throw new IllegalArgumentException("jobId must not null.");
         }
-        ShardManager shardManager = getShardManager(jobId);
+        ShardManager shardManager = jobShardIndex.remove(jobId);
         if (shardManager != null) {
             shardManager.removeJob(jobId);
             return true;
         }
-        return removeWithForeach(jobId);
-    }
-
-    private boolean removeWithForeach(String jobId) {
-        LOGGER.warn("jobId:{} stackTrace:{}", jobId, ExceptionUtil.stackTrack());
-        for (ShardManager shardManager : jobResourceShardManager.values()) {
-            if (shardManager.getShard().remove(jobId) != null) {
-                return true;
-            }
-        }
         return false;
     }
 
@@ -26,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * data 数据分片及空闲检测
@@ -40,9 +41,11 @@ public class ShardManager implements Runnable {
     private ScheduledExecutorService scheduledService = null;
     private Map<String, Integer> shard;
     private String jobResource;
+    private Consumer<String> removeListener;
 
-    public ShardManager(String jobResource) {
+    public ShardManager(String jobResource, Consumer<String> removeListener) {
         this.jobResource = jobResource;
+        this.removeListener = removeListener;
         this.shard = new ConcurrentHashMap<>();
         scheduledService = new ScheduledThreadPoolExecutor(1, new CustomThreadFactory(jobResource + this.getClass().getSimpleName()));
         scheduledService.scheduleWithFixedDelay(
@@ -57,7 +60,11 @@ public class ShardManager implements Runnable {
     }
 
     public Integer removeJob(String jobId) {
-        return shard.remove(jobId);
+        Integer status = shard.remove(jobId);
+        if (status != null) {
+            removeListener.accept(jobId);
+        }
+        return status;
     }
 
     public Map<String, Integer> getShard() {
@@ -70,7 +77,13 @@ public class ShardManager implements Runnable {
 
     @Override
     public void run() {
-        shard.entrySet().removeIf(jobWithStatus -> TaskStatus.needClean(jobWithStatus.getValue()));
+        shard.entrySet().removeIf(jobWithStatus -> {
+            if (TaskStatus.needClean(jobWithStatus.getValue())) {
+                removeListener.accept(jobWithStatus.getKey());
+                return true;
+            }
+            return false;
+        });
     }
 
 }
@@ -26,10 +26,11 @@ import com.google.common.collect.Maps;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * company: www.dtstack.com
@@ -45,7 +46,7 @@ public class JobPartitioner {
     @Autowired
     private ZkService zkService;
 
-    public Map<String, Integer> getDefaultStrategy(List<String> aliveNodes, int jobSize) {
+    public Map<String, Integer> getDefaultStrategy(Collection<String> aliveNodes, int jobSize) {
         Map<String, Integer> jobSizeInfo = new HashMap<>(aliveNodes.size());
         int size = (jobSize / aliveNodes.size()) + 1;
         for (String aliveNode : aliveNodes) {
@@ -59,7 +60,7 @@ public class JobPartitioner {
      */
     public Map<String, Integer> computeBatchJobSize(Integer type, int jobSize) {
         //节点挂了就会迁移的
-        List<String> aliveNodes = zkService.getAliveBrokersChildren();
+        Set<String> aliveNodes = zkService.getAliveBrokers();
         Map<Integer, Map<String, QueueInfo>> allNodesJobQueueInfo = queueListener.getAllNodesJobQueueInfo();
         if (allNodesJobQueueInfo.isEmpty()) {
             return getDefaultStrategy(aliveNodes, jobSize);
@@ -89,7 +90,7 @@ public class JobPartitioner {
     }
 
     public Map<String, Integer> computeJobCacheSize(String jobResource, int jobSize) {
-        List<String> aliveNodes = zkService.getAliveBrokersChildren();
+        Set<String> aliveNodes = zkService.getAliveBrokers();
         Map<String, Map<String, GroupInfo>> allNodesGroupQueueJobResources = queueListener.getAllNodesGroupQueueInfo();
         if (allNodesGroupQueueJobResources.isEmpty()) {
             return getDefaultStrategy(aliveNodes, jobSize);
@@ -127,7 +128,7 @@ public class JobPartitioner {
         if (nodesGroupQueue == null || nodesGroupQueue.isEmpty()) {
             return null;
         }
-        List<String> aliveBrokers = zkService.getAliveBrokersChildren();
+        Set<String> aliveBrokers = zkService.getAliveBrokers();
         //将不存活节点过滤
         Iterator<Map.Entry<String, GroupInfo>> nodesGroupQueueIt = nodesGroupQueue.entrySet().iterator();
         while (nodesGroupQueueIt.hasNext()) {
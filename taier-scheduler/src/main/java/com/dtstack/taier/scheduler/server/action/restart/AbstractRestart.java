@@ -17,7 +17,7 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -89,21 +89,19 @@ public abstract class AbstractRestart {
     }
 
     /**
-     * 递归查找当前jobId下的子任务
+     * 按层查找实例的下游任务
      *
-     * @param jobId
+     * @param jobs
      * @param isOnlyNextChild
      * @return
      */
-    protected Map<String,String> getAllChildJobWithSameDayByForkJoin(String jobId, boolean isOnlyNextChild) {
-        ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
-        ConcurrentHashMap<String,String> results = new ConcurrentHashMap<>();
-        ForkJoinJobTask forkJoinJobTask = new ForkJoinJobTask(jobId, results, scheduleJobService, scheduleJobJobService, isOnlyNextChild);
-        ForkJoinTask<Map<String,String>> submit = forkJoinPool.submit(forkJoinJobTask);
+    protected Map<String,String> getAllChildJobWithSameDay(List<ScheduleJob> jobs, boolean isOnlyNextChild) {
+        JobDownstreamTraversal traversal = new JobDownstreamTraversal(scheduleJobService, scheduleJobJobService, isOnlyNextChild,
+                TimeUnit.SECONDS.toMillis(environmentContext.getForkJoinResultTimeOut()));
         try {
-            return submit.get(environmentContext.getForkJoinResultTimeOut(), TimeUnit.SECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            LOGGER.error("get all child job {} error ", jobId, e);
+            return traversal.traverse(jobs);
+        } catch (Exception e) {
+            LOGGER.error("get all child job {} error ", jobs.stream().map(ScheduleJob::getJobId).collect(Collectors.toList()), e);
         }
         return null;
     }
@@ -0,0 +1,189 @@
+package com.dtstack.taier.scheduler.server.action.restart;
+
+import com.dtstack.taier.common.enums.Deleted;
+import com.dtstack.taier.common.enums.EScheduleJobType;
+import com.dtstack.taier.dao.domain.ScheduleJob;
+import com.dtstack.taier.dao.domain.ScheduleJobJob;
+import com.dtstack.taier.scheduler.service.ScheduleJobJobService;
+import com.dtstack.taier.scheduler.service.ScheduleJobService;
+import com.dtstack.taier.scheduler.utils.JobKeyUtils;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 按层查询任务的所有下游实例（同一调度日期内）
+ * 1. 每一层的实例作为一批，依赖关系、工作流子节点、下游实例各用一次 in 查询
+ * 2. 已访问的实例不再重复查询，依赖成环时自然结束
+ */
+public class JobDownstreamTraversal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobDownstreamTraversal.class);
+
+    /**
+     * 单条 in 语句的最大参数个数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private final ScheduleJobService scheduleJobService;
+
+    private final ScheduleJobJobService scheduleJobJobService;
+
+    private final boolean isOnlyNextChild;
+
+    private final long timeoutMillis;
+
+    public JobDownstreamTraversal(ScheduleJobService scheduleJobService, ScheduleJobJobService scheduleJobJobService,
+                                  boolean isOnlyNextChild, long timeoutMillis) {
+        this.scheduleJobService = scheduleJobService;
+        this.scheduleJobJobService = scheduleJobJobService;
+        this.isOnlyNextChild = isOnlyNextChild;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 查询下游实例
+     *
+     * @param jobs 起始实例，不包含在返回结果中
+     * @return jobId 和 cycTime，按层的顺序
+     */
+    public Map<String, String> traverse(Collection<ScheduleJob> jobs) throws TimeoutException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        Map<String, String> results = new LinkedHashMap<>();
+        Set<String> visited = new HashSet<>();
+        List<ScheduleJob> frontier = new ArrayList<>();
+        for (ScheduleJob job : jobs) {
+            if (visited.add(job.getJobId())) {
+                frontier.add(job);
+            }
+        }
+
+        int depth = 0;
+        while (!frontier.isEmpty()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("traverse downstream timeout at depth " + depth + ", found " + results.size());
+            }
+            List<ScheduleJob> next = new ArrayList<>();
+            for (ScheduleJob child : listChildJobs(frontier)) {
+                if (!visited.add(child.getJobId())) {
+                    continue;
+                }
+                results.put(child.getJobId(), child.getCycTime());
+                next.add(child);
+            }
+            depth++;
+            LOGGER.info("traverse downstream depth {} frontier {} found {} total {}", depth, frontier.size(), next.size(), results.size());
+            if (isOnlyNextChild) {
+                break;
+            }
+            frontier = next;
+        }
+        return results;
+    }
+
+    /**
+     * 查询一层实例的直接下游实例
+     */
+    private List<ScheduleJob> listChildJobs(List<ScheduleJob> frontier) {
+        Map<String, List<ScheduleJobJob>> jobJobsByParentKey = new HashMap<>();
+        List<String> parentJobKeys = new ArrayList<>();
+        List<String> flowJobIds = new ArrayList<>();
+        for (ScheduleJob job : frontier) {
+            if (Strings.isNullOrEmpty(JobKeyUtils.getJobTriggerTimeFromJobKey(job.getJobKey()))) {
+                continue;
+            }
+            parentJobKeys.add(job.getJobKey());
+            if (EScheduleJobType.WORK_FLOW.getVal().equals(job.getTaskType())) {
+                flowJobIds.add(job.getJobId());
+            }
+        }
+        for (List<String> keys : Lists.partition(parentJobKeys, BATCH_SIZE)) {
+            List<ScheduleJobJob> jobJobs = scheduleJobJobService.lambdaQuery()
+                    .in(ScheduleJobJob::getParentJobKey, keys)
+                    .eq(ScheduleJobJob::getIsDeleted, Deleted.NORMAL.getStatus())
+                    .list();
+            for (ScheduleJobJob jobJob : jobJobs) {
+                jobJobsByParentKey.computeIfAbsent(jobJob.getParentJobKey(), k -> new ArrayList<>()).add(jobJob);
+            }
+        }
+
+        //工作流把子节点全部添加进来
+        Map<String, List<ScheduleJob>> subJobsByFlowJobId = new HashMap<>();
+        for (List<String> ids : Lists.partition(flowJobIds, BATCH_SIZE)) {
+            List<ScheduleJob> subJobs = scheduleJobService.lambdaQuery()
+                    .in(ScheduleJob::getFlowJobId, ids)
+                    .eq(ScheduleJob::getIsDeleted, Deleted.NORMAL.getStatus())
+                    .list();
+            for (ScheduleJob subJob : subJobs) {
+                subJobsByFlowJobId.computeIfAbsent(subJob.getFlowJobId(), k -> new ArrayList<>()).add(subJob);
+            }
+        }
+
+        Set<String> childJobKeys = new LinkedHashSet<>();
+        for (ScheduleJob job : frontier) {
+            List<ScheduleJobJob> jobJobs = jobJobsByParentKey.get(job.getJobKey());
+            if (CollectionUtils.isEmpty(jobJobs)) {
+                continue;
+            }
+            childJobKeys.addAll(filterJobKeyList(job, jobJobs, subJobsByFlowJobId.getOrDefault(job.getJobId(), Collections.emptyList())));
+        }
+
+        List<ScheduleJob> childJobs = new ArrayList<>(childJobKeys.size());
+        for (List<String> keys : Lists.partition(new ArrayList<>(childJobKeys), BATCH_SIZE)) {
+            childJobs.addAll(scheduleJobService.lambdaQuery()
+                    .in(ScheduleJob::getJobKey, keys)
+                    .eq(ScheduleJob::getIsDeleted, Deleted.NORMAL.getStatus())
+                    .list());
+        }
+        return childJobs;
+    }
+
+    private Set<String> filterJobKeyList(ScheduleJob scheduleJob, List<ScheduleJobJob> scheduleJobJobList, List<ScheduleJob> flowJobList) {
+        Set<String> jobKeyList = new HashSet<>();
+        Long jobTaskShadeId = JobKeyUtils.getTaskShadeIdFromJobKey(scheduleJob.getJobKey());
+        if (null == jobTaskShadeId) {
+            return jobKeyList;
+        }
+        String parentJobDayStr = JobKeyUtils.getJobTriggerTimeFromJobKey(scheduleJob.getJobKey());
+
+        Set<String> flowJobKeys = new HashSet<>();
+        for (ScheduleJob flowJob : flowJobList) {
+            flowJobKeys.add(flowJob.getJobKey().toLowerCase());
+            jobKeyList.add(flowJob.getJobKey());
+        }
+
+        for (ScheduleJobJob scheduleJobJob : scheduleJobJobList) {
+            String childJobKey = scheduleJobJob.getJobKey();
+            Long childJobShadeId = JobKeyUtils.getTaskShadeIdFromJobKey(childJobKey);
+            //排除自依赖
+            if (null != childJobShadeId && childJobShadeId.equals(jobTaskShadeId)) {
+                continue;
+            }
+            String childJobDayStr = JobKeyUtils.getJobTriggerTimeFromJobKey(childJobKey);
+            //排除不是同一天执行的
+            if (!parentJobDayStr.equals(childJobDayStr)) {
+                continue;
+            }
+            //添加除工作流内部子任务之外的下游任务依赖
+            if (flowJobKeys.contains(childJobKey.toLowerCase())) {
+                continue;
+            }
+            jobKeyList.add(childJobKey);
+        }
+        return jobKeyList;
+    }
+}
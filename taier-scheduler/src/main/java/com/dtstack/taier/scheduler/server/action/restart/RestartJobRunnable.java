@@ -6,6 +6,8 @@ import com.dtstack.taier.dao.domain.ScheduleJob;
 import com.dtstack.taier.dao.domain.ScheduleTaskShade;
 import com.dtstack.taier.pluginapi.enums.TaskStatus;
 import com.dtstack.taier.scheduler.enums.RestartType;
+import com.dtstack.taier.scheduler.event.ScheduleJobBatchEvent;
+import com.dtstack.taier.scheduler.event.ScheduleJobEventPublisher;
 import com.dtstack.taier.scheduler.server.action.restart.impl.RestartCurrentAndDownStreamNodeRestartJob;
 import com.dtstack.taier.scheduler.server.action.restart.impl.RestartCurrentNodeRestartJob;
 import com.dtstack.taier.scheduler.server.action.restart.impl.SetSuccessAndResumeSchedulingRestartJob;
@@ -19,6 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -79,6 +82,8 @@ public class RestartJobRunnable extends AbstractRestart implements Runnable {
                     resumeBatchJobs.putAll(computeResumeBatchJobs);
                 }
                 scheduleJobService.restartScheduleJob(resumeBatchJobs);
+                // 事务提交后通知本节点的实例状态索引
+                ScheduleJobEventPublisher.getInstance().publishBatchEvent(new ScheduleJobBatchEvent(new ArrayList<>(resumeBatchJobs.keySet()), TaskStatus.UNSUBMIT.getStatus()));
             }
         } catch (Exception e) {
             LOGGER.error("restart job {} error", jobIds, e);
@@ -28,11 +28,10 @@ public class RestartCurrentAndDownStreamNodeRestartJob extends AbstractRestartJo
     public Map<String, String> computeResumeBatchJobs(List<ScheduleJob> jobs) {
         Map<String, String> resumeBatchJobs = new HashMap<>(jobs.stream().collect(Collectors.toMap(ScheduleJob::getJobId, ScheduleJob::getCycTime)));
 
-        for (ScheduleJob job : jobs) {
-            Map<String, String> allChildJobWithSameDayByForkJoin = getAllChildJobWithSameDayByForkJoin(job.getJobId(), false);
-            if (MapUtils.isNotEmpty(allChildJobWithSameDayByForkJoin)) {
-                resumeBatchJobs.putAll(allChildJobWithSameDayByForkJoin);
-            }
+        // 所有重跑实例一起按层查找下游，每层批量查询
+        Map<String, String> allChildJobWithSameDay = getAllChildJobWithSameDay(jobs, false);
+        if (MapUtils.isNotEmpty(allChildJobWithSameDay)) {
+            resumeBatchJobs.putAll(allChildJobWithSameDay);
         }
 
         return resumeBatchJobs;
@@ -22,9 +22,13 @@ import com.alibaba.fastjson.JSON;
 import com.dtstack.taier.common.exception.RdosDefineException;
 import com.dtstack.taier.scheduler.enums.ESchedulePeriodType;
 import com.dtstack.taier.scheduler.server.builder.ScheduleConf;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Reason:
@@ -35,7 +39,36 @@ import java.text.ParseException;
 
 public class ScheduleConfManager {
 
+    /**
+     * 已编译的调度周期缓存，key 为去除首尾空白后的 scheduleConf。
+     * 任务修改调度配置后 key 随之变化，旧的条目按访问时间淘汰
+     */
+    private static final Cache<String, ScheduleCorn> COMPILED_CORN_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(1, TimeUnit.DAYS)
+            .build();
+
+    /**
+     * 解析调度配置，相同的配置共享同一个编译结果
+     * 返回的对象被多个任务共享，调用方不能修改
+     *
+     * @param scheduleConf 调度配置
+     * @return corn对象
+     */
     public static ScheduleCorn parseFromJson(String scheduleConf) throws IOException, ParseException {
+        if (StringUtils.isBlank(scheduleConf)) {
+            return compile(scheduleConf);
+        }
+        String key = scheduleConf.trim();
+        ScheduleCorn corn = COMPILED_CORN_CACHE.getIfPresent(key);
+        if (corn == null) {
+            corn = compile(key);
+            COMPILED_CORN_CACHE.put(key, corn);
+        }
+        return corn;
+    }
+
+    private static ScheduleCorn compile(String scheduleConf) throws IOException, ParseException {
         ScheduleConf scheduleConfBean = JSON.parseObject(scheduleConf, ScheduleConf.class);
         // 校验必要参数
         checkConf(scheduleConf, scheduleConfBean);
@@ -21,7 +21,9 @@ import static com.cronutils.model.CronType.QUARTZ;
  */
 public class ScheduleCorn {
 
-    private final CronDefinition CRON_DEFINITION = CronDefinitionBuilder.instanceDefinitionFor(QUARTZ);
+    private static final CronDefinition CRON_DEFINITION = CronDefinitionBuilder.instanceDefinitionFor(QUARTZ);
+
+    private static final CronParser CRON_PARSER = new CronParser(CRON_DEFINITION);
 
     /**
      * cron表达式
@@ -33,6 +35,11 @@ public class ScheduleCorn {
      */
     private ScheduleConf scheduleConf;
 
+    /**
+     * 编译后的执行时间，cron 表达式只解析一次
+     */
+    private volatile ExecutionTime executionTime;
+
     /**
      * 获得距离date的上一次执行最近的时间
      * @param date 时间
@@ -43,10 +50,7 @@ public class ScheduleCorn {
             return null;
         }
 
-        CronParser parser = new CronParser(CRON_DEFINITION);
-        Cron quartzCron = parser.parse(cron);
-
-        ExecutionTime executionTime = ExecutionTime.forCron(quartzCron);
+        ExecutionTime executionTime = getExecutionTime();
         ZonedDateTime zonedDateTime = executionTime.lastExecution(ZonedDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault())).orElse(null);
 
         if (zonedDateTime == null) {
@@ -66,10 +70,7 @@ public class ScheduleCorn {
             return null;
         }
 
-        CronParser parser = new CronParser(CRON_DEFINITION);
-        Cron quartzCron = parser.parse(cron);
-
-        ExecutionTime executionTime = ExecutionTime.forCron(quartzCron);
+        ExecutionTime executionTime = getExecutionTime();
         ZonedDateTime zonedDateTime = executionTime.nextExecution(ZonedDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault())).orElse(null);
 
         if (zonedDateTime == null) {
@@ -87,19 +88,32 @@ public class ScheduleCorn {
             return null;
         }
 
-        CronParser parser = new CronParser(CRON_DEFINITION);
-        Cron quartzCron = parser.parse(cron);
-
-        ExecutionTime executionTime = ExecutionTime.forCron(quartzCron);
+        ExecutionTime executionTime = getExecutionTime();
         return executionTime.isMatch(ZonedDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()));
     }
 
+    /**
+     * 获得编译后的执行时间，首次调用时解析 cron 表达式
+     *
+     * @return 执行时间
+     */
+    private ExecutionTime getExecutionTime() {
+        ExecutionTime compiled = executionTime;
+        if (compiled == null) {
+            Cron quartzCron = CRON_PARSER.parse(cron);
+            compiled = ExecutionTime.forCron(quartzCron);
+            executionTime = compiled;
+        }
+        return compiled;
+    }
+
     public String getCron() {
         return cron;
     }
 
     public void setCron(String cron) {
         this.cron = cron;
+        this.executionTime = null;
     }
 
     public ScheduleConf getScheduleConf() {
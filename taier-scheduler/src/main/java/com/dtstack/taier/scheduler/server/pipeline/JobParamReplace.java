@@ -19,13 +19,16 @@
 package com.dtstack.taier.scheduler.server.pipeline;
 
 import com.dtstack.taier.common.enums.EParamType;
+import com.dtstack.taier.common.util.ParamTemplate;
 import com.dtstack.taier.common.util.TimeParamOperator;
 import com.dtstack.taier.dao.dto.ScheduleTaskParamShade;
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -61,6 +64,32 @@ public class JobParamReplace {
             return sql;
         }
 
+        Map<String, ScheduleTaskParamShade> params = new HashMap<>(paramList.size());
+        for (ScheduleTaskParamShade param : paramList) {
+            String replaceStr = String.format(convertSymbol(param.getType()), param.getParamName());
+            if (!ParamTemplate.isPlaceholder(replaceStr)) {
+                return sequentialReplace(sql, paramList, cycTime);
+            }
+            // 与逐个替换一致，同名参数以第一个为准
+            params.putIfAbsent(replaceStr, param);
+        }
+
+        Map<String, String> values = new HashMap<>(params.size());
+        String result = ParamTemplate.compile(sql).render(replaceStr -> {
+            ScheduleTaskParamShade param = params.get(replaceStr);
+            if (param == null) {
+                return null;
+            }
+            return values.computeIfAbsent(replaceStr, k -> convertParam(param.getType(), param.getParamName(),
+                    param.getParamCommand(), cycTime, param.getTaskId()));
+        });
+        return result != null ? result : sequentialReplace(sql, paramList, cycTime);
+    }
+
+    /**
+     * 按参数顺序逐个替换
+     */
+    private static String sequentialReplace(String sql, List<ScheduleTaskParamShade> paramList, String cycTime) {
         for (Object param : paramList) {
             Integer type;
             String paramName;
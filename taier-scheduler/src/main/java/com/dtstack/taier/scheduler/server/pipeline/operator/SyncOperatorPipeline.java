@@ -36,6 +36,7 @@ import com.dtstack.taier.dao.domain.ScheduleJob;
 import com.dtstack.taier.dao.domain.ScheduleTaskShade;
 import com.dtstack.taier.dao.dto.ScheduleTaskParamShade;
 import com.dtstack.taier.dao.mapper.ScheduleJobMapper;
+import com.dtstack.taier.pluginapi.client.QueryCursor;
 import com.dtstack.taier.pluginapi.constrant.ConfigConstant;
 import com.dtstack.taier.pluginapi.enums.EDeployMode;
 import com.dtstack.taier.pluginapi.enums.TaskStatus;
@@ -90,6 +91,8 @@ public class SyncOperatorPipeline extends IPipeline.AbstractPipeline {
 
     private static final String ADD_PART_TEMP = "alter table %s add partition(task_name='%s',time='%s')";
 
+    private static final int LOCATION_FETCH_SIZE = 100;
+
     @Autowired
     private WorkerOperator workerOperator;
 
@@ -259,18 +262,16 @@ public class SyncOperatorPipeline extends IPipeline.AbstractPipeline {
     }
 
     public String getTableLocation(JSONObject pluginInfo, String dbName,String sql) throws Exception {
-        String location = null;
-        List<List<Object>> result = workerOperator.executeQuery(pluginInfo.toJSONString(), sql, dbName);
-        Iterator<List<Object>> iterator = result.iterator();
-
-        while (iterator.hasNext()) {
-            List<Object> objects = iterator.next();
-            if (objects.get(0).toString().contains("Location")) {
-                location = objects.get(1).toString();
+        // 逐行读取表信息，找到 Location 后不再拉取剩余的行
+        try (QueryCursor cursor = workerOperator.executeQueryCursor(pluginInfo.toJSONString(), sql, dbName, LOCATION_FETCH_SIZE, 0)) {
+            while (cursor.hasNext()) {
+                List<Object> objects = cursor.next();
+                if (objects.get(0) != null && objects.get(0).toString().contains("Location")) {
+                    return objects.get(1).toString();
+                }
             }
         }
-
-        return location;
+        return null;
     }
 
     /**
@@ -24,6 +24,7 @@ import com.dtstack.taier.common.exception.RdosDefineException;
 import com.dtstack.taier.dao.domain.ScheduleJob;
 import com.dtstack.taier.dao.domain.ScheduleTaskShade;
 import com.dtstack.taier.dao.dto.ScheduleTaskParamShade;
+import com.dtstack.taier.pluginapi.util.ContentAddressUtil;
 import com.dtstack.taier.scheduler.WorkerOperator;
 import com.dtstack.taier.scheduler.server.pipeline.IPipeline;
 import com.dtstack.taier.scheduler.server.pipeline.JobParamReplace;
@@ -91,11 +92,7 @@ public class UploadParamPipeline extends IPipeline.AbstractPipeline {
     private String uploadSqlTextToHdfs(String content, Integer taskType, String taskName, Long tenantId, Long projectId,
                                        List<ScheduleTaskParamShade> taskParamShades, String cycTime, String fileUploadPath,
                                        JSONObject pluginInfo, WorkerOperator workerOperator, String jobId) throws RdosDefineException {
-        String fileName = null;
-        if (taskType.equals(EScheduleJobType.SHELL.getVal())) {
-            fileName = String.format("shell_%s_%s_%s_%s.sh", tenantId, projectId,
-                    taskName, System.currentTimeMillis());
-        } else {
+        if (!taskType.equals(EScheduleJobType.SHELL.getVal())) {
             throw new RdosDefineException("not support upload file taskType " + taskType);
         }
         try {
@@ -103,10 +100,13 @@ public class UploadParamPipeline extends IPipeline.AbstractPipeline {
             if (StringUtils.isNotBlank(content) && CollectionUtils.isNotEmpty(taskParamShades)) {
                 content = JobParamReplace.paramReplace(content, taskParamShades, cycTime);
             }
-            String hdfsPath = fileUploadPath + fileName;
             if (EScheduleJobType.SHELL.getVal().equals(taskType)) {
                 content = content.replaceAll("\r\n", System.getProperty("line.separator"));
             }
+            // 文件名按内容寻址，内容不变时存储插件复用已上传的文件并刷新引用时间
+            String fileName = ContentAddressUtil.buildFileName(String.format("shell_%s_%s_%s", tenantId, projectId, taskName),
+                    content.getBytes(), "sh");
+            String hdfsPath = fileUploadPath + fileName;
             String hdfsUploadPath = workerOperator.uploadStringToHdfs(pluginInfo.toJSONString(), content, hdfsPath);
             if (StringUtils.isBlank(hdfsUploadPath)) {
                 throw new RdosDefineException("Update task to HDFS failure hdfsUploadPath is blank");
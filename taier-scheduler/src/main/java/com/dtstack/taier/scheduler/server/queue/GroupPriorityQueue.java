@@ -20,6 +20,7 @@ package com.dtstack.taier.scheduler.server.queue;
 
 import com.dtstack.taier.common.enums.EJobCacheStage;
 import com.dtstack.taier.common.env.EnvironmentContext;
+import com.dtstack.taier.common.queue.IndexedPriorityBlockingQueue;
 import com.dtstack.taier.common.queue.comparator.JobClientComparator;
 import com.dtstack.taier.dao.domain.ScheduleEngineJobCache;
 import com.dtstack.taier.pluginapi.CustomThreadFactory;
@@ -29,6 +30,7 @@ import com.dtstack.taier.pluginapi.util.PublicUtil;
 import com.dtstack.taier.scheduler.WorkerOperator;
 import com.dtstack.taier.scheduler.jobdealer.JobDealer;
 import com.dtstack.taier.scheduler.jobdealer.JobSubmitDealer;
+import com.dtstack.taier.scheduler.jobdealer.QueueStatisticsService;
 import com.dtstack.taier.scheduler.server.JobPartitioner;
 import com.dtstack.taier.scheduler.service.EngineJobCacheService;
 import org.apache.commons.collections.CollectionUtils;
@@ -60,11 +62,12 @@ public class GroupPriorityQueue {
     private ApplicationContext applicationContext;
     private EnvironmentContext environmentContext;
     private EngineJobCacheService engineJobCacheService;
+    private QueueStatisticsService queueStatisticsService;
     private JobDealer jobDealer;
     private JobPartitioner jobPartitioner;
     private WorkerOperator workerOperator;
 
-    private PriorityBlockingQueue<JobClient> queue = null;
+    private IndexedPriorityBlockingQueue<JobClient> queue = null;
     private JobSubmitDealer jobSubmitDealer = null;
 
     private GroupPriorityQueue() {
@@ -92,7 +95,7 @@ public class GroupPriorityQueue {
     }
 
     private boolean addRedirect(JobClient jobClient, boolean insert) {
-        if (queue.contains(jobClient)) {
+        if (queue.contains(jobClient.getJobId())) {
             LOGGER.info("jobId:{} unable add to queue, because jobId already exist.", jobClient.getJobId());
             return true;
         }
@@ -108,15 +111,16 @@ public class GroupPriorityQueue {
         return jobSubmitDealer.tryPutRestartJob(jobClient);
     }
 
-    public PriorityBlockingQueue<JobClient> getQueue() {
+    public void wakeUpBackoffJobs() {
+        jobSubmitDealer.wakeUpBackoffJobs();
+    }
+
+    public IndexedPriorityBlockingQueue<JobClient> getQueue() {
         return queue;
     }
 
     public boolean remove(JobClient jobClient) {
-        if (queue.remove(jobClient)) {
-            return true;
-        }
-        return false;
+        return queue.remove(jobClient.getJobId()) != null;
     }
 
     private boolean isBlocked() {
@@ -200,7 +204,7 @@ public class GroupPriorityQueue {
         public void run() {
             try {
                 if (Boolean.FALSE == blocked.get()) {
-                    int jobSize = engineJobCacheService.countByStage(jobResource, EJobCacheStage.unSubmitted(), environmentContext.getLocalAddress());
+                    int jobSize = queueStatisticsService.getGroupSize(environmentContext.getLocalAddress(), jobResource);
                     if (jobSize == 0) {
                         return;
                     }
@@ -259,6 +263,7 @@ public class GroupPriorityQueue {
     public GroupPriorityQueue build() {
         this.environmentContext = applicationContext.getBean(EnvironmentContext.class);
         this.engineJobCacheService = applicationContext.getBean(EngineJobCacheService.class);
+        this.queueStatisticsService = applicationContext.getBean(QueueStatisticsService.class);
         this.jobPartitioner = applicationContext.getBean(JobPartitioner.class);
         this.workerOperator = applicationContext.getBean(WorkerOperator.class);
 
@@ -266,7 +271,7 @@ public class GroupPriorityQueue {
 
         checkParams();
 
-        this.queue = new PriorityBlockingQueue<>(queueSizeLimited * 2, new JobClientComparator());
+        this.queue = new IndexedPriorityBlockingQueue<>(queueSizeLimited * 2, new JobClientComparator(environmentContext.getJobPriorityAgingStep()), JobClient::getJobId);
         this.jobSubmitDealer = new JobSubmitDealer(environmentContext.getLocalAddress(), this, applicationContext);
 
         ScheduledExecutorService scheduledService = new ScheduledThreadPoolExecutor(1, new CustomThreadFactory(this.getClass().getSimpleName() + "_" + jobResource + "_AcquireJob"));
@@ -0,0 +1,141 @@
+package com.dtstack.taier.scheduler.server.scheduler.exec;
+
+import com.dtstack.taier.common.env.EnvironmentContext;
+import com.dtstack.taier.dao.domain.ScheduleJob;
+import com.dtstack.taier.pluginapi.enums.TaskStatus;
+import com.dtstack.taier.scheduler.event.ScheduleJobBatchEvent;
+import com.dtstack.taier.scheduler.event.ScheduleJobEventLister;
+import com.dtstack.taier.scheduler.event.ScheduleJobEventPublisher;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 节点本地的已成功实例索引 jobKey -> 实例
+ * 1. 只缓存回查数据库得到的成功状态(完成、手动成功)，其他状态可能随时因重试、停止、冻结等变化，每次都回查数据库
+ * 2. 成功的实例只会被重跑改变状态，本节点的重跑及其他状态变更通过 {@link ScheduleJobEventPublisher} 从索引中移除
+ * 3. 其他节点上的重跑、删除不会通知到本节点，最多在过期时间内读到旧的成功状态，子实例可能在父实例重跑前被放行，
+ *    schedule_job 的 gmt_modified 不随状态更新，无法用来跨节点校验，因此索引默认关闭，只建议单个调度节点时开启
+ */
+@Component
+public class JobStatusIndex implements ScheduleJobEventLister, InitializingBean {
+
+    @Autowired
+    private EnvironmentContext environmentContext;
+
+    /**
+     * jobKey -> 实例快照（jobId,jobKey,jobName,status）
+     */
+    private Cache<String, ScheduleJob> jobKeyIndex;
+
+    /**
+     * jobId -> jobKey，用于把状态变更事件映射到索引上
+     */
+    private Cache<String, String> jobIdIndex;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        long expire = environmentContext.getJobStatusIndexExpire();
+        int maxSize = environmentContext.getJobStatusIndexMaxSize();
+        jobKeyIndex = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expire, TimeUnit.MILLISECONDS)
+                .build();
+        jobIdIndex = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expire, TimeUnit.MILLISECONDS)
+                .build();
+        ScheduleJobEventPublisher.getInstance().register(this);
+    }
+
+    /**
+     * 是否开启索引
+     */
+    public boolean isEnabled() {
+        return environmentContext.getJobStatusIndexSwitch();
+    }
+
+    /**
+     * 从索引中获取实例状态
+     *
+     * @param jobKeys 实例key
+     * @return 命中的实例，未命中的key不在返回结果中
+     */
+    public Map<String, ScheduleJob> getAll(Collection<String> jobKeys) {
+        Map<String, ScheduleJob> result = new HashMap<>(jobKeys.size());
+        if (!isEnabled()) {
+            return result;
+        }
+        for (String jobKey : jobKeys) {
+            ScheduleJob scheduleJob = jobKeyIndex.getIfPresent(jobKey);
+            if (scheduleJob != null) {
+                result.put(jobKey, scheduleJob);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 写入数据库中查询出的实例，只保留成功的实例
+     *
+     * @param scheduleJobs 实例
+     */
+    public void putAll(List<ScheduleJob> scheduleJobs) {
+        if (!isEnabled() || CollectionUtils.isEmpty(scheduleJobs)) {
+            return;
+        }
+        for (ScheduleJob scheduleJob : scheduleJobs) {
+            if (StringUtils.isBlank(scheduleJob.getJobKey()) || StringUtils.isBlank(scheduleJob.getJobId())
+                    || !TaskStatus.FINISH_STATUS.contains(scheduleJob.getStatus())) {
+                continue;
+            }
+            jobKeyIndex.put(scheduleJob.getJobKey(), snapshot(scheduleJob, scheduleJob.getStatus()));
+            jobIdIndex.put(scheduleJob.getJobId(), scheduleJob.getJobKey());
+        }
+    }
+
+    @Override
+    public void publishBatchEvent(ScheduleJobBatchEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        for (String jobId : event.getJobIds()) {
+            String jobKey = jobIdIndex.getIfPresent(jobId);
+            if (jobKey == null) {
+                continue;
+            }
+            ScheduleJob scheduleJob = jobKeyIndex.getIfPresent(jobKey);
+            if (scheduleJob == null || !jobId.equals(scheduleJob.getJobId())) {
+                continue;
+            }
+            if (TaskStatus.FINISH_STATUS.contains(event.getStatus())) {
+                jobKeyIndex.put(jobKey, snapshot(scheduleJob, event.getStatus()));
+            } else {
+                jobKeyIndex.invalidate(jobKey);
+                jobIdIndex.invalidate(jobId);
+            }
+        }
+    }
+
+    /**
+     * 索引中保存实例的副本，避免调用方修改共享对象
+     */
+    private ScheduleJob snapshot(ScheduleJob scheduleJob, Integer status) {
+        ScheduleJob snapshot = new ScheduleJob();
+        snapshot.setJobId(scheduleJob.getJobId());
+        snapshot.setJobKey(scheduleJob.getJobKey());
+        snapshot.setJobName(scheduleJob.getJobName());
+        snapshot.setStatus(status);
+        return snapshot;
+    }
+}
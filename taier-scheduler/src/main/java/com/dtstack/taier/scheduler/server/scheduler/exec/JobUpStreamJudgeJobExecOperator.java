@@ -34,6 +34,9 @@ public class JobUpStreamJudgeJobExecOperator implements JudgeJobExecOperator {
     @Autowired
     private ScheduleJobService scheduleJobService;
 
+    @Autowired
+    private JobStatusIndex jobStatusIndex;
+
     @Override
     public JobCheckRunInfo isExec(ScheduleJobDetails scheduleJobDetails) {
         List<ScheduleJobJob> jobJobList = scheduleJobDetails.getJobJobList();
@@ -43,11 +46,18 @@ public class JobUpStreamJudgeJobExecOperator implements JudgeJobExecOperator {
         if (CollectionUtils.isNotEmpty(jobJobList)) {
             List<String> parentJobKeys = jobJobList.stream().map(ScheduleJobJob::getParentJobKey).collect(Collectors.toList());
 
-            Map<String, ScheduleJob> scheduleJobMap = scheduleJobService.lambdaQuery()
-                    .select(ScheduleJob::getStatus, ScheduleJob::getJobId, ScheduleJob::getJobKey, ScheduleJob::getJobName)
-                    .in(ScheduleJob::getJobKey, parentJobKeys)
-                    .eq(ScheduleJob::getIsDeleted, Deleted.NORMAL.getStatus())
-                    .list().stream().collect(Collectors.toMap(ScheduleJob::getJobKey, g -> (g)));
+            // 已成功的父实例从本地索引获取，其他父实例查询数据库
+            Map<String, ScheduleJob> scheduleJobMap = jobStatusIndex.getAll(parentJobKeys);
+            List<String> missJobKeys = parentJobKeys.stream().filter(key -> !scheduleJobMap.containsKey(key)).distinct().collect(Collectors.toList());
+            if (CollectionUtils.isNotEmpty(missJobKeys)) {
+                List<ScheduleJob> missJobs = scheduleJobService.lambdaQuery()
+                        .select(ScheduleJob::getStatus, ScheduleJob::getJobId, ScheduleJob::getJobKey, ScheduleJob::getJobName)
+                        .in(ScheduleJob::getJobKey, missJobKeys)
+                        .eq(ScheduleJob::getIsDeleted, Deleted.NORMAL.getStatus())
+                        .list();
+                jobStatusIndex.putAll(missJobs);
+                missJobs.forEach(job -> scheduleJobMap.put(job.getJobKey(), job));
+            }
 
 
             for (ScheduleJobJob scheduleJobJob : jobJobList) {
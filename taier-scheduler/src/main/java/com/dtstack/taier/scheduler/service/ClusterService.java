@@ -32,6 +32,7 @@ import com.dtstack.taier.dao.domain.Queue;
 import com.dtstack.taier.dao.mapper.*;
 import com.dtstack.taier.pluginapi.constrant.ConfigConstant;
 import com.dtstack.taier.pluginapi.enums.EDeployMode;
+import com.dtstack.taier.scheduler.utils.LocalCacheUtil;
 import com.google.common.base.Preconditions;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
@@ -73,10 +74,35 @@ public class ClusterService {
     @Autowired
     private ConsoleKerberosMapper consoleKerberosMapper;
 
+    @Autowired
+    private LocalCacheUtil localCacheUtil;
+
+    private static final String pluginInfoCacheGroup = "pluginInfo";
+
     /**
      * 内部使用
+     * 结果按 租户+任务类型+部署模式+版本 缓存，集群、组件、kerberos 变更时通过 {@link #clearPluginInfoCache()} 清理
      */
     public JSONObject pluginInfoJSON(Long tenantId, Integer taskType, Integer deployMode, String componentVersion) {
+        String cacheKey = LocalCacheUtil.generateKey(tenantId, taskType, deployMode, componentVersion);
+        String cachePluginInfo = (String) localCacheUtil.get(pluginInfoCacheGroup, cacheKey);
+        if (cachePluginInfo != null) {
+            // 调用方会修改返回结果，每次返回新的对象
+            return JSONObject.parseObject(cachePluginInfo);
+        }
+        JSONObject pluginJson = innerPluginInfoJSON(tenantId, taskType, deployMode, componentVersion);
+        if (pluginJson != null) {
+            localCacheUtil.put(pluginInfoCacheGroup, cacheKey, pluginJson.toJSONString(), LocalCacheUtil.ONE_DAY_IN_MS);
+        }
+        return pluginJson;
+    }
+
+    public void clearPluginInfoCache() {
+        localCacheUtil.removeGroup(pluginInfoCacheGroup);
+        LOGGER.info(" clear all plugin info cache ");
+    }
+
+    private JSONObject innerPluginInfoJSON(Long tenantId, Integer taskType, Integer deployMode, String componentVersion) {
         EScheduleJobType engineJobType = EScheduleJobType.getByTaskType(taskType);
         EComponentType componentType = engineJobType.getComponentType();
         if (componentType == null) {
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +22,11 @@ public class ScheduleJobCacheService extends ServiceImpl<ScheduleEngineJobCacheM
                 .eq(ScheduleEngineJobCache::getJobId, jobId));
     }
 
+    public List<ScheduleEngineJobCache> getByJobIds(List<String> jobIds) {
+        return scheduleEngineJobCacheMapper.selectList(Wrappers.lambdaQuery(ScheduleEngineJobCache.class)
+                .in(ScheduleEngineJobCache::getJobId, jobIds));
+    }
+
     public int deleteByJobId(String jobId) {
         return scheduleEngineJobCacheMapper.delete(Wrappers.lambdaQuery(ScheduleEngineJobCache.class)
                 .eq(ScheduleEngineJobCache::getJobId, jobId));
@@ -52,6 +58,17 @@ public class ScheduleJobCacheService extends ServiceImpl<ScheduleEngineJobCacheM
                 .in(ScheduleEngineJobCache::getStage, stages));
     }
 
+    /**
+     * 按节点和计算资源分组统计实例数和最小优先级
+     *
+     * @param sizeStages     统计实例数的 stage
+     * @param priorityStages 统计最小优先级的 stage
+     * @return nodeAddress、jobResource、jobSize、minPriority
+     */
+    public List<Map<String, Object>> groupByNodeAddressAndJobResource(List<Integer> sizeStages, List<Integer> priorityStages) {
+        return scheduleEngineJobCacheMapper.groupByNodeAddressAndJobResource(sizeStages, priorityStages);
+    }
+
     public Long minPriorityByStage(String jobResource, List<Integer> stages, String nodeAddress) {
         return scheduleEngineJobCacheMapper.minPriorityByStage(jobResource, stages, nodeAddress);
 
@@ -319,6 +319,22 @@ public class ScheduleJobService extends ServiceImpl<ScheduleJobMapper, ScheduleJ
         return 0;
     }
 
+    /**
+     * 批量更新实例状态，当前状态在排除列表中的实例不更新
+     *
+     * @param jobIds          实例id
+     * @param status          状态
+     * @param finished        是否同时更新结束时间和运行时长
+     * @param excludeStatuses 不允许被覆盖的状态
+     * @return 更新数
+     */
+    public Integer updateJobStatusByJobIdsExcludeStatus(List<String> jobIds, Integer status, boolean finished, List<Integer> excludeStatuses) {
+        if (CollectionUtils.isNotEmpty(jobIds) && status != null) {
+            return this.baseMapper.updateJobStatusByJobIdsExcludeStatus(jobIds, status, finished, excludeStatuses);
+        }
+        return 0;
+    }
+
     /**
      * 查询实例状态
      * @param jobId 实例id
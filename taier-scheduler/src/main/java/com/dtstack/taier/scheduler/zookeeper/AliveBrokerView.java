@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.scheduler.zookeeper;
+
+import com.dtstack.taier.scheduler.zookeeper.data.BrokerHeartNode;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.cache.TreeCacheSelector;
+import org.apache.curator.utils.ZKPaths;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 存活节点视图
+ * 1. 通过 TreeCache 监听 brokers 下各节点的 heart 节点，节点变化由 zk 推送，查询存活节点不再访问 zk
+ * 2. 存活节点集合变化时生成新的版本快照，并通知订阅者；心跳只更新 seq 时不产生新版本
+ * 3. 初始化完成前快照为 null，由调用方直接查询 zk
+ */
+public class AliveBrokerView implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AliveBrokerView.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String brokersNode;
+
+    private final String heartNode;
+
+    private final TreeCache treeCache;
+
+    private final List<Consumer<Snapshot>> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot;
+
+    public AliveBrokerView(CuratorFramework zkClient, String brokersNode, String heartNode) {
+        this.brokersNode = brokersNode;
+        this.heartNode = heartNode;
+        this.treeCache = TreeCache.newBuilder(zkClient, brokersNode)
+                .setCacheData(true)
+                .setMaxDepth(2)
+                .setSelector(new HeartNodeSelector())
+                .build();
+        this.treeCache.getListenable().addListener((client, event) -> onEvent(event));
+    }
+
+    public void start() throws Exception {
+        treeCache.start();
+    }
+
+    @Override
+    public void close() {
+        treeCache.close();
+    }
+
+    /**
+     * 当前快照，初始化完成前为 null
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 订阅存活节点变化，已初始化时立即回调当前快照
+     */
+    public void subscribe(Consumer<Snapshot> subscriber) {
+        subscribers.add(subscriber);
+        Snapshot current = snapshot;
+        if (current != null) {
+            notify(subscriber, current);
+        }
+    }
+
+    private void onEvent(TreeCacheEvent event) {
+        switch (event.getType()) {
+            case CONNECTION_SUSPENDED:
+            case CONNECTION_LOST:
+                LOGGER.warn("alive broker view {}, keep snapshot version {}", event.getType(), snapshot == null ? null : snapshot.getVersion());
+                return;
+            case CONNECTION_RECONNECTED:
+                LOGGER.info("alive broker view reconnected");
+                return;
+            case INITIALIZED:
+                refresh(true);
+                return;
+            default:
+                if (snapshot != null) {
+                    refresh(false);
+                }
+        }
+    }
+
+    /**
+     * 根据缓存的 heart 节点重新计算存活节点，事件回调在 TreeCache 的单线程中串行执行
+     */
+    private void refresh(boolean initialized) {
+        Set<String> alives = new TreeSet<>();
+        Map<String, ChildData> brokers = treeCache.getCurrentChildren(brokersNode);
+        if (brokers != null) {
+            for (String broker : brokers.keySet()) {
+                ChildData heart = treeCache.getCurrentData(ZKPaths.makePath(brokersNode, broker, heartNode));
+                if (heart != null && isAlive(heart)) {
+                    alives.add(broker);
+                }
+            }
+        }
+        Snapshot current = snapshot;
+        if (current != null && current.brokers.equals(alives)) {
+            return;
+        }
+        Snapshot next = new Snapshot(current == null ? 1L : current.getVersion() + 1, alives);
+        snapshot = next;
+        LOGGER.info("alive brokers changed, version:{} brokers:{} initialized:{}", next.getVersion(), next.getBrokers(), initialized);
+        for (Consumer<Snapshot> subscriber : subscribers) {
+            notify(subscriber, next);
+        }
+    }
+
+    private boolean isAlive(ChildData heart) {
+        try {
+            byte[] data = heart.getData();
+            if (data == null || data.length == 0) {
+                return false;
+            }
+            return Boolean.TRUE.equals(OBJECT_MAPPER.readValue(data, BrokerHeartNode.class).getAlive());
+        } catch (Exception e) {
+            LOGGER.error("{}:parse heart node error:", heart.getPath(), e);
+            return false;
+        }
+    }
+
+    private static void notify(Consumer<Snapshot> subscriber, Snapshot snapshot) {
+        try {
+            subscriber.accept(snapshot);
+        } catch (Throwable e) {
+            LOGGER.error("notify alive brokers version {} error", snapshot.getVersion(), e);
+        }
+    }
+
+    /**
+     * 只缓存 brokers/{address}/heart 节点
+     */
+    private class HeartNodeSelector implements TreeCacheSelector {
+
+        @Override
+        public boolean traverseChildren(String fullPath) {
+            return brokersNode.equals(fullPath) || brokersNode.equals(ZKPaths.getPathAndNode(fullPath).getPath());
+        }
+
+        @Override
+        public boolean acceptChild(String fullPath) {
+            ZKPaths.PathAndNode pathAndNode = ZKPaths.getPathAndNode(fullPath);
+            return brokersNode.equals(pathAndNode.getPath()) || heartNode.equals(pathAndNode.getNode());
+        }
+    }
+
+    /**
+     * 某一版本的存活节点，不可修改
+     */
+    public static class Snapshot {
+
+        private final long version;
+
+        private final Set<String> brokers;
+
+        private final List<String> brokerList;
+
+        private Snapshot(long version, Set<String> brokers) {
+            this.version = version;
+            this.brokers = Collections.unmodifiableSet(brokers);
+            this.brokerList = Collections.unmodifiableList(new ArrayList<>(brokers));
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<String> getBrokers() {
+            return brokerList;
+        }
+
+        public boolean contains(String broker) {
+            return brokers.contains(broker);
+        }
+
+        public Set<String> getBrokerSet() {
+            return brokers;
+        }
+    }
+}
@@ -50,6 +50,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * company: www.dtstack.com
@@ -76,6 +77,7 @@ public class ZkService implements InitializingBean, DisposableBean {
     private String lockNode;
 
     private CuratorFramework zkClient;
+    private AliveBrokerView aliveBrokerView;
     private static ObjectMapper objectMapper = new ObjectMapper();
 
     private final String appPath = "taier";
@@ -185,6 +187,7 @@ public class ZkService implements InitializingBean, DisposableBean {
         // 初始化分布式锁节点
         createNodeIfNotExists(this.lockNode, null);
         createLocalBrokerHeartNode();
+        initAliveBrokerView();
         initScheduledExecutorService();
         LOGGER.warn("init zk server success...");
     }
@@ -197,6 +200,11 @@ public class ZkService implements InitializingBean, DisposableBean {
         listeners.add(new HeartBeatCheckListener(masterListener, failoverStrategy, this));
     }
 
+    private void initAliveBrokerView() throws Exception {
+        this.aliveBrokerView = new AliveBrokerView(zkClient, brokersNode, HEART_NODE);
+        this.aliveBrokerView.start();
+    }
+
     private void createLocalBrokerHeartNode() throws Exception {
         String node = String.format("%s/%s", this.localNode, HEART_NODE);
         if (zkClient.checkExists().forPath(node) == null) {
@@ -269,7 +277,43 @@ public class ZkService implements InitializingBean, DisposableBean {
         return Lists.newArrayList();
     }
 
+    /**
+     * 存活节点，优先从监听的存活节点视图中获取
+     */
     public List<String> getAliveBrokersChildren() {
+        AliveBrokerView.Snapshot snapshot = getAliveBrokersSnapshot();
+        if (snapshot != null) {
+            return Lists.newArrayList(snapshot.getBrokers());
+        }
+        return readAliveBrokersChildren();
+    }
+
+    /**
+     * 存活节点集合，用于判断节点是否存活
+     */
+    public Set<String> getAliveBrokers() {
+        AliveBrokerView.Snapshot snapshot = getAliveBrokersSnapshot();
+        if (snapshot != null) {
+            return snapshot.getBrokerSet();
+        }
+        return new HashSet<>(readAliveBrokersChildren());
+    }
+
+    /**
+     * 存活节点视图的当前快照，视图未初始化完成时为 null
+     */
+    public AliveBrokerView.Snapshot getAliveBrokersSnapshot() {
+        return aliveBrokerView == null ? null : aliveBrokerView.getSnapshot();
+    }
+
+    /**
+     * 订阅存活节点变化
+     */
+    public void subscribeAliveBrokers(Consumer<AliveBrokerView.Snapshot> subscriber) {
+        aliveBrokerView.subscribe(subscriber);
+    }
+
+    private List<String> readAliveBrokersChildren() {
         List<String> alives = Lists.newArrayList();
         try {
             if (null != zkClient) {
@@ -318,6 +362,9 @@ public class ZkService implements InitializingBean, DisposableBean {
     @Override
     public void destroy() throws Exception {
         disableBrokerHeartNode(this.localAddress, false);
+        if (aliveBrokerView != null) {
+            aliveBrokerView.close();
+        }
         for (Listener listener : listeners) {
             try {
                 listener.close();
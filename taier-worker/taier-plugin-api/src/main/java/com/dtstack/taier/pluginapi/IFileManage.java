@@ -60,6 +60,15 @@ public interface IFileManage {
      */
     boolean downloadFile(String remotePath, String localPath);
 
+    /**
+     * 远程文件的版本，由长度和修改时间组成，用于校验本地缓存
+     * @param remotePath
+     * @return 不支持或文件不存在时返回 null
+     */
+    default String getFileVersion(String remotePath) {
+        return null;
+    }
+
     /**
      *  下载目录
      * @param remotePath
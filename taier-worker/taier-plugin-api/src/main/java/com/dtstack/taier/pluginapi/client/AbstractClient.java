@@ -28,7 +28,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Reason:
@@ -79,6 +81,21 @@ public abstract class AbstractClient implements IClient {
         return status;
     }
 
+    /**
+     * 默认逐个获取任务状态，支持批量查询的插件覆盖该方法
+     */
+    @Override
+    public Map<String, TaskStatus> getJobStatus(List<JobIdentifier> jobIdentifiers) throws IOException {
+        Map<String, TaskStatus> statusMap = new HashMap<>(jobIdentifiers.size());
+        for (JobIdentifier jobIdentifier : jobIdentifiers) {
+            TaskStatus status = getJobStatus(jobIdentifier);
+            if (status != null) {
+                statusMap.put(jobIdentifier.getJobId(), status);
+            }
+        }
+        return statusMap;
+    }
+
     protected TaskStatus processJobStatus(JobIdentifier jobIdentifier) {
         return TaskStatus.NOTFOUND;
     }
@@ -137,6 +154,11 @@ public abstract class AbstractClient implements IClient {
         return null;
     }
 
+    @Override
+    public QueryCursor executeQueryCursor(String sql, String database, int fetchSize, int maxRows) {
+        return new ListQueryCursor(executeQuery(sql, database), maxRows);
+    }
+
     @Override
     public String uploadStringToHdfs(String bytes, String hdfsPath) {
         return null;
@@ -25,6 +25,7 @@ import com.dtstack.taier.pluginapi.pojo.*;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -42,6 +43,14 @@ public interface IClient {
 
     TaskStatus getJobStatus(JobIdentifier jobIdentifier) throws IOException;
 
+    /**
+     * 批量获取任务状态
+     *
+     * @param jobIdentifiers 任务标识
+     * @return jobId -> 任务状态，获取不到的任务不在返回结果中
+     */
+    Map<String, TaskStatus> getJobStatus(List<JobIdentifier> jobIdentifiers) throws IOException;
+
 	String getJobMaster(JobIdentifier jobIdentifier);
 
 	String getMessageByHttp(String path);
@@ -56,6 +65,17 @@ public interface IClient {
 
     List<List<Object>> executeQuery(String sql,String database);
 
+    /**
+     * 以游标方式执行查询，按行读取结果，使用完需要关闭
+     *
+     * @param sql       查询语句
+     * @param database  数据库
+     * @param fetchSize 每次从服务端拉取的行数，小于等于 0 时使用驱动默认值
+     * @param maxRows   最多读取的行数，小于等于 0 时不限制
+     * @return 查询游标
+     */
+    QueryCursor executeQueryCursor(String sql, String database, int fetchSize, int maxRows);
+
 	String uploadStringToHdfs(String bytes, String hdfsPath);
 
 	ClusterResource getClusterResource();
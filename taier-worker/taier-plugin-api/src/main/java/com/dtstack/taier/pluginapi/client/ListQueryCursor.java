@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.pluginapi.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于 {@link IClient#executeQuery(String, String)} 结果的游标，第一行为字段名
+ * 用于未实现流式读取的插件
+ */
+public class ListQueryCursor implements QueryCursor {
+
+    private final List<String> columnNames;
+
+    private final Iterator<List<Object>> rows;
+
+    private final int maxRows;
+
+    private int readRows = 0;
+
+    private volatile boolean closed = false;
+
+    public ListQueryCursor(List<List<Object>> result, int maxRows) {
+        this.maxRows = maxRows;
+        if (result == null || result.isEmpty()) {
+            this.columnNames = null;
+            this.rows = Collections.emptyIterator();
+            return;
+        }
+        List<String> names = new ArrayList<>(result.get(0).size());
+        for (Object name : result.get(0)) {
+            names.add(name == null ? null : name.toString());
+        }
+        this.columnNames = names;
+        this.rows = result.subList(1, result.size()).iterator();
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !closed && (maxRows <= 0 || readRows < maxRows) && rows.hasNext();
+    }
+
+    @Override
+    public List<Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        readRows++;
+        return rows.next();
+    }
+
+    @Override
+    public void cancel() {
+        close();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
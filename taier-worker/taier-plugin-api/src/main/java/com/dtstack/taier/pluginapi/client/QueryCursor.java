@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.pluginapi.client;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 查询结果游标，按行读取结果集，不一次性加载到内存
+ * 1. 读取完最后一行或调用 {@link #close()} 后释放连接等资源
+ * 2. {@link #cancel()} 可在其他线程调用，用于中止正在执行或读取中的查询
+ */
+public interface QueryCursor extends Iterator<List<Object>>, Closeable {
+
+    /**
+     * 结果集的字段名，语句没有返回结果集时为 null
+     */
+    List<String> getColumnNames();
+
+    /**
+     * 中止查询，之后 {@link #hasNext()} 返回 false
+     */
+    void cancel();
+
+    @Override
+    void close();
+}
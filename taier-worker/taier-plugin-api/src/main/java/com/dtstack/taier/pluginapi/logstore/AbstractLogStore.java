@@ -25,8 +25,19 @@ import java.util.Collection;
  */
 public abstract class AbstractLogStore {
 
+    /**
+     * 写入已进入待写队列，尚未落库
+     */
+    public static final int DEFERRED = -1;
+
+    /**
+     * @return 影响的行数，异步写入时返回 {@link #DEFERRED}
+     */
     public abstract  int insert(String jobId, String jobInfo, int status);
 
+    /**
+     * @return 影响的行数，异步写入时返回 {@link #DEFERRED}
+     */
     public abstract  int updateStatus(String jobId, int status);
 
     public abstract  void updateModifyTime(Collection<String> jobIds);
@@ -40,14 +40,6 @@ public class MysqlLogStore extends AbstractLogStore {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MysqlLogStore.class);
 
-    private static final String REPLACE_INTO_SQL = "replace into schedule_plugin_job_info(job_id, job_info, status, log_info, gmt_create, gmt_modified) values(?, ?, ?, ?, NOW(), NOW())";
-
-    private static final String UPDATE_STATUS_SQL = "update schedule_plugin_job_info set status = ?,  gmt_modified = NOW() where job_id = ?";
-
-    private static final String UPDATE_MODIFY_TIME_SQL = "update schedule_plugin_job_info set gmt_modified = NOW() where job_id = ?";
-
-    private static final String UPDATE_JOB_ERRINFO_SQL = "update schedule_plugin_job_info set log_info = ?, status = ?, gmt_modified = NOW() where job_id = ?";
-
     private static final String GET_STATUS_BY_JOB_ID = "select status,id,gmt_modified from schedule_plugin_job_info where job_id = ?";
 
     private static final String GET_LOG_BY_JOB_ID = "select log_info from schedule_plugin_job_info where job_id = ?";
@@ -97,11 +89,24 @@ public class MysqlLogStore extends AbstractLogStore {
      */
     private static final long RETAIN_TIME = 604800000;
 
+    /**
+     * 写入数据的 flush 间隔，需要远小于 TIMEOUT
+     */
+    private static final long FLUSH_INTERVAL = 1000;
+
+    /**
+     * 待写 jobId 数达到该值时同步 flush
+     */
+    private static final int MAX_PENDING = 5000;
+
     private static MysqlDataConnPool dataConnPool;
 
     private static volatile MysqlLogStore mysqlLogStore = null;
 
+    private final MysqlLogStoreWriter writer;
+
     private MysqlLogStore() {
+        this.writer = new MysqlLogStoreWriter(() -> dataConnPool.getConn(), FLUSH_INTERVAL, MAX_PENDING);
     }
 
     public static MysqlLogStore getInstance(Map<String, String> dbConfig) {
@@ -121,90 +126,32 @@ public class MysqlLogStore extends AbstractLogStore {
 
     @Override
     public int insert(String jobId, String jobInfo, int status) {
-        Connection connection = null;
-        PreparedStatement pstmt = null;
-
-        try {
-            connection = dataConnPool.getConn();
-            pstmt = connection.prepareStatement(REPLACE_INTO_SQL);
-            pstmt.setString(1, jobId);
-            pstmt.setString(2, jobInfo);
-            pstmt.setInt(3, status);
-            pstmt.setString(4, "");
-
-            return pstmt.executeUpdate();
-
-        } catch (SQLException e) {
-            LOGGER.error("", e);
-            return 0;
-        } finally {
-            closeDBResources(null, pstmt, null, connection);
-        }
+        writer.insert(jobId, jobInfo, status);
+        return DEFERRED;
     }
 
     @Override
     public int updateStatus(String jobId, int status) {
-        Connection connection = null;
-        PreparedStatement pstmt = null;
-
-        try {
-            connection = dataConnPool.getConn();
-            pstmt = connection.prepareStatement(UPDATE_STATUS_SQL);
-            pstmt.setInt(1, status);
-            pstmt.setString(2, jobId);
-
-            return pstmt.executeUpdate();
-
-        } catch (SQLException e) {
-            LOGGER.error("", e);
-            return 0;
-        } finally {
-            closeDBResources(null, pstmt, null, connection);
-        }
+        writer.updateStatus(jobId, status);
+        return DEFERRED;
     }
 
     @Override
     public void updateModifyTime(Collection<String> jobIds) {
-        Connection connection = null;
-        PreparedStatement pstmt = null;
-        try {
-            connection = dataConnPool.getConn();
-            pstmt = connection.prepareStatement(UPDATE_MODIFY_TIME_SQL);
-            for (String jobId : jobIds) {
-                pstmt.setString(1, jobId);
-                pstmt.addBatch();
-            }
-
-            pstmt.executeBatch();
-
-        } catch (SQLException e) {
-            LOGGER.error("", e);
-        } finally {
-            closeDBResources(null, pstmt, null, connection);
-        }
+        writer.updateModifyTime(jobIds);
     }
 
     @Override
     public void updateErrorLog(String jobId, String errorLog) {
-        Connection connection = null;
-        PreparedStatement pstmt = null;
-        try {
-            connection = dataConnPool.getConn();
-            pstmt = connection.prepareStatement(UPDATE_JOB_ERRINFO_SQL);
-            pstmt.setString(1, errorLog);
-            pstmt.setInt(2, TaskStatus.FAILED.getStatus());
-            pstmt.setString(3, jobId);
-
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            LOGGER.error("", e);
-        } finally {
-            closeDBResources(null, pstmt, null, connection);
-        }
+        writer.updateErrorLog(jobId, errorLog);
     }
 
     @Override
     public Integer getStatusByJobId(String jobId) {
+        Integer pendingStatus = writer.getPendingStatus(jobId);
+        if (pendingStatus != null) {
+            return pendingStatus;
+        }
         Connection connection = null;
         PreparedStatement preparedStatement = null;
         ResultSet resultSet = null;
@@ -233,6 +180,10 @@ public class MysqlLogStore extends AbstractLogStore {
 
     @Override
     public String getLogByJobId(String jobId) {
+        String pendingLog = writer.getPendingLog(jobId);
+        if (pendingLog != null) {
+            return pendingLog;
+        }
         Connection connection = null;
         PreparedStatement pstmt = null;
         ResultSet resultSet = null;
@@ -256,6 +207,13 @@ public class MysqlLogStore extends AbstractLogStore {
 
     @Override
     public void timeOutDeal() {
+        //先落库待写的修改时间，避免运行中的任务被误判超时
+        try {
+            writer.flush();
+        } catch (Exception e) {
+            LOGGER.error("", e);
+            return;
+        }
         dealBatchDataTimeout(SELECT_JOB_EXECUTE_STATUS_TEMPLATE, UPDATE_TIME_OUT_TO_FAIL_SQL, TIMEOUT);
     }
 
@@ -0,0 +1,431 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.pluginapi.logstore.mysql;
+
+import com.dtstack.taier.pluginapi.CustomThreadFactory;
+import com.dtstack.taier.pluginapi.enums.TaskStatus;
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * schedule_plugin_job_info 的异步批量写入
+ * 1. 写操作按 jobId 合并到待写队列，定时或待写数量达到上限时批量落库，一次 flush 一个事务
+ * 2. 批量写入失败时逐条重试，单条失败的数据放回待写队列；带状态的数据一直重试，不会丢弃，
+ *    只更新修改时间的数据累计失败 {@link #MAX_RETRY_TIMES} 次后丢弃并记录日志
+ * 3. 待写数量达到上限时由调用线程同步 flush；最近一次 flush 没有写入任何数据(如数据库不可用)时不再同步 flush，
+ *    超过上限后只丢弃新 jobId 的修改时间更新，状态变更仍按 jobId 合并进待写队列，队列大小以任务数为界
+ * 4. 读操作优先读取待写队列中的最新值，进程退出时 flush 剩余数据
+ */
+public class MysqlLogStoreWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MysqlLogStoreWriter.class);
+
+    private static final String REPLACE_INTO_SQL = "replace into schedule_plugin_job_info(job_id, job_info, status, log_info, gmt_create, gmt_modified) values(?, ?, ?, ?, NOW(), NOW())";
+
+    private static final String UPDATE_STATUS_SQL = "update schedule_plugin_job_info set status = ?,  gmt_modified = NOW() where job_id = ?";
+
+    private static final String UPDATE_JOB_ERRINFO_SQL = "update schedule_plugin_job_info set log_info = ?, status = ?, gmt_modified = NOW() where job_id = ?";
+
+    private static final String UPDATE_MODIFY_TIME_SQL = "update schedule_plugin_job_info set gmt_modified = NOW() where job_id in ";
+
+    /**
+     * 单条 in 语句最多的 jobId 数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * 单条数据最多写入失败的次数
+     */
+    private static final int MAX_RETRY_TIMES = 3;
+
+    private final Callable<Connection> connectionSupplier;
+
+    private final int maxPending;
+
+    private final Object pendingLock = new Object();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private LinkedHashMap<String, PendingJob> pending = new LinkedHashMap<>();
+
+    private final ScheduledExecutorService flushScheduler;
+
+    private volatile boolean closed = false;
+
+    /**
+     * 最近一次 flush 是否没有写入任何数据
+     */
+    private volatile boolean flushFailing = false;
+
+    public MysqlLogStoreWriter(Callable<Connection> connectionSupplier, long flushInterval, int maxPending) {
+        this.connectionSupplier = connectionSupplier;
+        this.maxPending = maxPending;
+        ThreadFactory threadFactory = new CustomThreadFactory(this.getClass().getSimpleName());
+        this.flushScheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = threadFactory.newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushScheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, this.getClass().getSimpleName() + "-shutdown"));
+    }
+
+    public void insert(String jobId, String jobInfo, int status) {
+        write(jobId, true, job -> {
+            job.replace = true;
+            job.jobInfo = jobInfo;
+            job.status = status;
+            job.logInfo = "";
+        });
+    }
+
+    public void updateStatus(String jobId, int status) {
+        write(jobId, true, job -> job.status = status);
+    }
+
+    public void updateErrorLog(String jobId, String errorLog) {
+        write(jobId, true, job -> {
+            job.logInfo = errorLog;
+            job.status = TaskStatus.FAILED.getStatus();
+        });
+    }
+
+    public void updateModifyTime(Collection<String> jobIds) {
+        for (String jobId : jobIds) {
+            write(jobId, false, job -> {
+            });
+        }
+    }
+
+    /**
+     * 待写队列中的状态，没有则返回 null
+     */
+    public Integer getPendingStatus(String jobId) {
+        synchronized (pendingLock) {
+            PendingJob job = pending.get(jobId);
+            return job == null ? null : job.status;
+        }
+    }
+
+    /**
+     * 待写队列中的日志，没有则返回 null
+     */
+    public String getPendingLog(String jobId) {
+        synchronized (pendingLock) {
+            PendingJob job = pending.get(jobId);
+            return job == null ? null : job.logInfo;
+        }
+    }
+
+    /**
+     * 待写队列中的数据条数
+     */
+    int getPendingSize() {
+        synchronized (pendingLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * @param statusChange 是否为状态变更，状态变更不会因待写队列已满而丢弃
+     */
+    private void write(String jobId, boolean statusChange, Consumer<PendingJob> merger) {
+        boolean full;
+        synchronized (pendingLock) {
+            PendingJob job = pending.get(jobId);
+            if (job == null) {
+                if (!statusChange && flushFailing && pending.size() >= maxPending) {
+                    LOGGER.warn("jobId:{} discard plugin job modify time, pending size:{} and flush is failing", jobId, pending.size());
+                    return;
+                }
+                job = new PendingJob();
+                pending.put(jobId, job);
+            }
+            merger.accept(job);
+            full = pending.size() >= maxPending;
+        }
+        // flush 失败期间不在调用线程同步 flush，避免调用线程阻塞在数据库上
+        if ((full && !flushFailing) || closed) {
+            flushQuietly();
+        }
+    }
+
+    /**
+     * 将待写数据全部落库，批量失败时逐条写入，失败的数据放回待写队列，期间的新写入合并在其之后
+     */
+    public void flush() throws Exception {
+        flushLock.lock();
+        try {
+            LinkedHashMap<String, PendingJob> batch;
+            synchronized (pendingLock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+            try {
+                execute(batch);
+                flushFailing = false;
+                return;
+            } catch (Exception e) {
+                LOGGER.warn("batch flush {} plugin job info error, retry one by one", batch.size(), e);
+            }
+            LinkedHashMap<String, PendingJob> failed = executeOneByOne(batch);
+            flushFailing = failed.size() == batch.size();
+            if (!failed.isEmpty()) {
+                requeue(failed);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flushScheduler.shutdown();
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable e) {
+            LOGGER.error("flush plugin job info error", e);
+        }
+    }
+
+    private void execute(Map<String, PendingJob> batch) throws Exception {
+        List<Map.Entry<String, PendingJob>> replaces = new ArrayList<>();
+        List<Map.Entry<String, PendingJob>> errorLogs = new ArrayList<>();
+        List<Map.Entry<String, PendingJob>> statuses = new ArrayList<>();
+        List<String> touches = new ArrayList<>();
+        for (Map.Entry<String, PendingJob> entry : batch.entrySet()) {
+            PendingJob job = entry.getValue();
+            if (job.replace) {
+                replaces.add(entry);
+            } else if (job.logInfo != null) {
+                errorLogs.add(entry);
+            } else if (job.status != null) {
+                statuses.add(entry);
+            } else {
+                touches.add(entry.getKey());
+            }
+        }
+
+        try (Connection connection = connectionSupplier.call()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                if (!replaces.isEmpty()) {
+                    try (PreparedStatement pstmt = connection.prepareStatement(REPLACE_INTO_SQL)) {
+                        for (Map.Entry<String, PendingJob> entry : replaces) {
+                            pstmt.setString(1, entry.getKey());
+                            pstmt.setString(2, entry.getValue().jobInfo);
+                            pstmt.setInt(3, entry.getValue().status);
+                            pstmt.setString(4, entry.getValue().logInfo);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+                if (!errorLogs.isEmpty()) {
+                    try (PreparedStatement pstmt = connection.prepareStatement(UPDATE_JOB_ERRINFO_SQL)) {
+                        for (Map.Entry<String, PendingJob> entry : errorLogs) {
+                            pstmt.setString(1, entry.getValue().logInfo);
+                            pstmt.setInt(2, entry.getValue().status);
+                            pstmt.setString(3, entry.getKey());
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+                if (!statuses.isEmpty()) {
+                    try (PreparedStatement pstmt = connection.prepareStatement(UPDATE_STATUS_SQL)) {
+                        for (Map.Entry<String, PendingJob> entry : statuses) {
+                            pstmt.setInt(1, entry.getValue().status);
+                            pstmt.setString(2, entry.getKey());
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+                for (List<String> jobIds : Lists.partition(touches, BATCH_SIZE)) {
+                    try (PreparedStatement pstmt = connection.prepareStatement(buildInSql(UPDATE_MODIFY_TIME_SQL, jobIds.size()))) {
+                        int parameterIndex = 1;
+                        for (String jobId : jobIds) {
+                            pstmt.setString(parameterIndex++, jobId);
+                        }
+                        pstmt.executeUpdate();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * 逐条写入，返回写入失败且需要重试的数据
+     */
+    private LinkedHashMap<String, PendingJob> executeOneByOne(Map<String, PendingJob> batch) {
+        LinkedHashMap<String, PendingJob> failed = new LinkedHashMap<>();
+        try (Connection connection = connectionSupplier.call()) {
+            for (Map.Entry<String, PendingJob> entry : batch.entrySet()) {
+                try {
+                    executeOne(connection, entry.getKey(), entry.getValue());
+                } catch (SQLException e) {
+                    LOGGER.error("jobId:{} write plugin job info error", entry.getKey(), e);
+                    failed.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("flush plugin job info error", e);
+            batch.forEach(failed::putIfAbsent);
+        }
+        failed.entrySet().removeIf(entry -> {
+            PendingJob job = entry.getValue();
+            if (++job.retryTimes < MAX_RETRY_TIMES) {
+                return false;
+            }
+            if (job.isTouch()) {
+                LOGGER.error("jobId:{} discard plugin job modify time after {} failures", entry.getKey(), job.retryTimes);
+                return true;
+            }
+            if (job.retryTimes == MAX_RETRY_TIMES) {
+                LOGGER.error("jobId:{} write plugin job status failed {} times, keep retrying", entry.getKey(), job.retryTimes);
+            }
+            return false;
+        });
+        return failed;
+    }
+
+    private void executeOne(Connection connection, String jobId, PendingJob job) throws SQLException {
+        if (job.replace) {
+            try (PreparedStatement pstmt = connection.prepareStatement(REPLACE_INTO_SQL)) {
+                pstmt.setString(1, jobId);
+                pstmt.setString(2, job.jobInfo);
+                pstmt.setInt(3, job.status);
+                pstmt.setString(4, job.logInfo);
+                pstmt.executeUpdate();
+            }
+        } else if (job.logInfo != null) {
+            try (PreparedStatement pstmt = connection.prepareStatement(UPDATE_JOB_ERRINFO_SQL)) {
+                pstmt.setString(1, job.logInfo);
+                pstmt.setInt(2, job.status);
+                pstmt.setString(3, jobId);
+                pstmt.executeUpdate();
+            }
+        } else if (job.status != null) {
+            try (PreparedStatement pstmt = connection.prepareStatement(UPDATE_STATUS_SQL)) {
+                pstmt.setInt(1, job.status);
+                pstmt.setString(2, jobId);
+                pstmt.executeUpdate();
+            }
+        } else {
+            try (PreparedStatement pstmt = connection.prepareStatement(buildInSql(UPDATE_MODIFY_TIME_SQL, 1))) {
+                pstmt.setString(1, jobId);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    private void requeue(LinkedHashMap<String, PendingJob> batch) {
+        synchronized (pendingLock) {
+            for (Map.Entry<String, PendingJob> entry : pending.entrySet()) {
+                PendingJob newer = entry.getValue();
+                PendingJob older = batch.get(entry.getKey());
+                if (older == null) {
+                    batch.put(entry.getKey(), newer);
+                } else {
+                    older.merge(newer);
+                }
+            }
+            pending = batch;
+        }
+    }
+
+    private static String buildInSql(String sql, int size) {
+        StringBuilder inSql = new StringBuilder(sql).append("(");
+        for (int i = 0; i < size; i++) {
+            inSql.append(i == 0 ? "?" : ",?");
+        }
+        return inSql.append(")").toString();
+    }
+
+    /**
+     * 同一 jobId 合并后的待写数据，只有 jobId 时表示仅更新修改时间
+     */
+    private static class PendingJob {
+
+        private boolean replace;
+
+        private String jobInfo;
+
+        private Integer status;
+
+        private String logInfo;
+
+        private int retryTimes;
+
+        private boolean isTouch() {
+            return !replace && status == null && logInfo == null;
+        }
+
+        private void merge(PendingJob newer) {
+            if (newer.replace) {
+                this.replace = true;
+                this.jobInfo = newer.jobInfo;
+                this.status = newer.status;
+                this.logInfo = newer.logInfo;
+                return;
+            }
+            if (newer.status != null) {
+                this.status = newer.status;
+            }
+            if (newer.logInfo != null) {
+                this.logInfo = newer.logInfo;
+            }
+        }
+    }
+}
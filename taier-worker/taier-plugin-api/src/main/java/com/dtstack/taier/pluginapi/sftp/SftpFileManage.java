@@ -206,6 +206,23 @@ public class SftpFileManage implements IFileManage {
         return remotePath.contains(PREFIX);
     }
 
+    @Override
+    public String getFileVersion(String remotePath) {
+        ChannelSftp channelSftp = getChannelSftp();
+        try {
+            SftpATTRS attrs = channelSftp.stat(remotePath);
+            if (attrs.isDir()) {
+                return null;
+            }
+            return attrs.getSize() + "_" + attrs.getMTime();
+        } catch (SftpException e) {
+            LOGGER.warn("get file version from sftp error:{}", remotePath, e);
+            return null;
+        } finally {
+            close(channelSftp);
+        }
+    }
+
     public boolean downloadFile(String remotePath, String localPath) {
         ChannelSftp channelSftp = getChannelSftp();
         try {
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.pluginapi.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+/**
+ * 按内容寻址的上传文件命名
+ * 文件名以内容的 sha256 结尾：{prefix}_{sha256}.{suffix}，相同内容对应同一路径，
+ * 存储插件据此复用已存在的文件，并清理长时间未被引用的文件
+ */
+public class ContentAddressUtil {
+
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile(".*_[0-9a-f]{64}\\.[0-9a-zA-Z]+");
+
+    /**
+     * 内容的 sha256 十六进制小写值
+     */
+    public static String sha256Hex(byte[] content) {
+        try {
+            return HexUtil.bytes2Hex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 生成按内容寻址的文件名
+     *
+     * @param prefix  文件名前缀
+     * @param content 文件内容
+     * @param suffix  文件后缀，不含 .
+     */
+    public static String buildFileName(String prefix, byte[] content, String suffix) {
+        return prefix + "_" + sha256Hex(content) + "." + suffix;
+    }
+
+    /**
+     * 文件名是否为按内容寻址的文件名
+     */
+    public static boolean isContentAddressed(String fileName) {
+        return fileName != null && CONTENT_ADDRESSED_NAME.matcher(fileName).matches();
+    }
+}
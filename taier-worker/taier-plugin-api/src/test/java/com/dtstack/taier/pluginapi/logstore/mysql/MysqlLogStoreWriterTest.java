@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.pluginapi.logstore.mysql;
+
+import com.dtstack.taier.pluginapi.enums.TaskStatus;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MysqlLogStoreWriterTest {
+
+    private static final String URL = "jdbc:h2:mem:plugin_job_info;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private final AtomicBoolean dbDown = new AtomicBoolean(false);
+
+    private Connection keepAlive;
+
+    private MysqlLogStoreWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        keepAlive = DriverManager.getConnection(URL);
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("drop table if exists schedule_plugin_job_info");
+            stmt.execute("create table schedule_plugin_job_info(id int auto_increment primary key, job_id varchar(255) not null unique, " +
+                    "job_info longtext not null, log_info text null, status tinyint not null, " +
+                    "gmt_create datetime default CURRENT_TIMESTAMP not null, gmt_modified datetime default CURRENT_TIMESTAMP not null, " +
+                    "is_deleted tinyint default 0 not null)");
+        }
+        // 定时 flush 间隔足够长，测试中手动 flush
+        writer = new MysqlLogStoreWriter(() -> {
+            if (dbDown.get()) {
+                throw new SQLException("database is down");
+            }
+            return DriverManager.getConnection(URL);
+        }, 3600_000L, 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dbDown.set(false);
+        writer.close();
+        keepAlive.close();
+    }
+
+    @Test
+    public void testFlushCoalescedStatus() throws Exception {
+        writer.insert("job1", "{}", TaskStatus.SCHEDULED.getStatus());
+        writer.updateStatus("job1", TaskStatus.RUNNING.getStatus());
+        Assert.assertEquals(Integer.valueOf(TaskStatus.RUNNING.getStatus()), writer.getPendingStatus("job1"));
+
+        writer.flush();
+        Assert.assertEquals(0, writer.getPendingSize());
+        Assert.assertEquals(Integer.valueOf(TaskStatus.RUNNING.getStatus()), queryStatus("job1"));
+
+        writer.updateErrorLog("job1", "error");
+        writer.flush();
+        Assert.assertEquals(Integer.valueOf(TaskStatus.FAILED.getStatus()), queryStatus("job1"));
+    }
+
+    @Test
+    public void testRetryKeepsStatusUntilDbRecovers() throws Exception {
+        writer.insert("job1", "{}", TaskStatus.SCHEDULED.getStatus());
+        writer.flush();
+
+        dbDown.set(true);
+        writer.updateStatus("job1", TaskStatus.FINISHED.getStatus());
+        for (int i = 0; i < 5; i++) {
+            writer.flush();
+        }
+        Assert.assertEquals(Integer.valueOf(TaskStatus.FINISHED.getStatus()), writer.getPendingStatus("job1"));
+        Assert.assertEquals(Integer.valueOf(TaskStatus.SCHEDULED.getStatus()), queryStatus("job1"));
+
+        dbDown.set(false);
+        writer.flush();
+        Assert.assertNull(writer.getPendingStatus("job1"));
+        Assert.assertEquals(Integer.valueOf(TaskStatus.FINISHED.getStatus()), queryStatus("job1"));
+    }
+
+    @Test
+    public void testStatusNotDroppedWhenPendingFull() throws Exception {
+        dbDown.set(true);
+        writer.insert("job1", "{}", TaskStatus.SCHEDULED.getStatus());
+        writer.flush();
+
+        // flush 失败期间超过待写上限，状态变更仍然保留，修改时间更新被丢弃
+        writer.insert("job2", "{}", TaskStatus.SCHEDULED.getStatus());
+        writer.insert("job3", "{}", TaskStatus.SCHEDULED.getStatus());
+        writer.updateStatus("job3", TaskStatus.CANCELED.getStatus());
+        writer.updateModifyTime(Collections.singletonList("job4"));
+        Assert.assertEquals(3, writer.getPendingSize());
+        Assert.assertEquals(Integer.valueOf(TaskStatus.CANCELED.getStatus()), writer.getPendingStatus("job3"));
+
+        dbDown.set(false);
+        writer.flush();
+        Assert.assertEquals(0, writer.getPendingSize());
+        Assert.assertEquals(Integer.valueOf(TaskStatus.SCHEDULED.getStatus()), queryStatus("job1"));
+        Assert.assertEquals(Integer.valueOf(TaskStatus.SCHEDULED.getStatus()), queryStatus("job2"));
+        Assert.assertEquals(Integer.valueOf(TaskStatus.CANCELED.getStatus()), queryStatus("job3"));
+    }
+
+    @Test
+    public void testTouchDroppedAfterRetries() throws Exception {
+        writer.insert("job1", "{}", TaskStatus.RUNNING.getStatus());
+        writer.flush();
+        Timestamp modified = queryModifyTime("job1");
+
+        dbDown.set(true);
+        writer.updateModifyTime(Collections.singletonList("job1"));
+        writer.flush();
+        writer.flush();
+        Assert.assertEquals(1, writer.getPendingSize());
+        writer.flush();
+        Assert.assertEquals(0, writer.getPendingSize());
+
+        dbDown.set(false);
+        writer.flush();
+        Assert.assertEquals(modified, queryModifyTime("job1"));
+    }
+
+    private Integer queryStatus(String jobId) throws SQLException {
+        try (PreparedStatement pstmt = keepAlive.prepareStatement("select status from schedule_plugin_job_info where job_id = ?")) {
+            pstmt.setString(1, jobId);
+            try (ResultSet resultSet = pstmt.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : null;
+            }
+        }
+    }
+
+    private Timestamp queryModifyTime(String jobId) throws SQLException {
+        try (PreparedStatement pstmt = keepAlive.prepareStatement("select gmt_modified from schedule_plugin_job_info where job_id = ?")) {
+            pstmt.setString(1, jobId);
+            try (ResultSet resultSet = pstmt.executeQuery()) {
+                return resultSet.next() ? resultSet.getTimestamp(1) : null;
+            }
+        }
+    }
+}
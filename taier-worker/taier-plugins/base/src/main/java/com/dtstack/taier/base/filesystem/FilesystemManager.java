@@ -84,6 +84,7 @@ public class FilesystemManager {
 
     /**
      *  使用文件管理器下载文件，返回本地文件
+     *  能获取远程文件版本时经过本地缓存，远程文件未变化时不重复下载
      * @param remoteJarPath  远程jar完整路径
      * @param localPath     本地临时文件夹/文件
      * @param alwaysPullNew   总是从远程下载最新文件
@@ -92,35 +93,43 @@ public class FilesystemManager {
     public File downloadFile(String remoteFilePath, String localFilePath, boolean alwaysPullNew) {
         LOG.info("download file remoteFilePath:{} localFilePath:{} alwaysPullNew:{}", remoteFilePath, localFilePath, alwaysPullNew);
 
-        File jarFile = new File(localFilePath);
-        if (!alwaysPullNew) {
-            if (jarFile.exists()) {
-                return jarFile;
-            }
-        }
-
-        //检查并创建本地文件目录
-        if (!jarFile.getParentFile().exists()) {
-            boolean mkdirs = jarFile.getParentFile().mkdirs();
-            LOG.info("local file localParentFile {}  mkdir {} :", jarFile.getParent(), mkdirs);
-        }
-
         for (IFileManage fileManage : fileManages) {
-            if (fileManage.filterPrefix()) {
-                String prefix = fileManage.getPrefix();
-                remoteFilePath = remoteFilePath.startsWith(prefix) ? StringUtils.substringAfter(remoteFilePath, prefix) : remoteFilePath;
+            String remotePath = getRemotePath(fileManage, remoteFilePath);
+            String version = fileManage.getFileVersion(remotePath);
+            if (version == null) {
+                continue;
             }
-
-            boolean downLoadSuccess = fileManage.downloadFile(remoteFilePath, localFilePath);
-            if (downLoadSuccess) {
+            File cachedFile = LocalArtifactCache.getInstance().get(remoteFilePath, version, localFilePath, alwaysPullNew,
+                    tmpPath -> fileManage.downloadFile(remotePath, tmpPath));
+            if (cachedFile != null) {
                 LOG.info("download file success fileManage is :{}", fileManage.getClass().getSimpleName());
-                break;
+                return getLocalJarFile(cachedFile.getPath());
             }
         }
 
+        // 无法获取远程文件版本，本地已有文件时直接使用
+        LocalArtifactCache.getInstance().download(localFilePath, alwaysPullNew, tmpPath -> {
+            for (IFileManage fileManage : fileManages) {
+                boolean downLoadSuccess = fileManage.downloadFile(getRemotePath(fileManage, remoteFilePath), tmpPath);
+                if (downLoadSuccess) {
+                    LOG.info("download file success fileManage is :{}", fileManage.getClass().getSimpleName());
+                    return true;
+                }
+            }
+            return false;
+        });
+
         return getLocalJarFile(localFilePath);
     }
 
+    private String getRemotePath(IFileManage fileManage, String remoteFilePath) {
+        if (fileManage.filterPrefix()) {
+            String prefix = fileManage.getPrefix();
+            return remoteFilePath.startsWith(prefix) ? StringUtils.substringAfter(remoteFilePath, prefix) : remoteFilePath;
+        }
+        return remoteFilePath;
+    }
+
     /**
      *  使用文件管理器下载文件夹内容
      * @return
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.base.filesystem;
+
+import com.dtstack.taier.pluginapi.constrant.ConfigConstant;
+import com.dtstack.taier.pluginapi.util.MD5Util;
+import com.google.common.util.concurrent.Striped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
+
+/**
+ * 插件下载文件(jar、keytab、krb5、配置文件等)的本地缓存
+ * 1. 缓存文件按 远程路径 + 远程文件版本(长度、修改时间) 区分，远程文件变化后自动重新下载
+ * 2. 先下载到临时文件再 rename，不会读到写了一半的文件
+ * 3. 同一文件同一时间只有一个线程下载，其他线程等待后直接使用
+ * 4. 缓存总大小超过上限时按最近使用时间淘汰
+ */
+public class LocalArtifactCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalArtifactCache.class);
+
+    private static final String DEFAULT_CACHE_DIR = ConfigConstant.USER_DIR + File.separator + "artifactCache";
+
+    private static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024 * 1024;
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private static final LocalArtifactCache INSTANCE = new LocalArtifactCache(new File(DEFAULT_CACHE_DIR), DEFAULT_MAX_BYTES);
+
+    private final File cacheDir;
+
+    private final long maxBytes;
+
+    private final Striped<Lock> locks = Striped.lock(64);
+
+    /**
+     * 缓存文件名 ——> 文件大小，按访问顺序排列
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    private boolean loaded;
+
+    /**
+     * 本地目标文件 ——> 复制时的缓存文件名、长度和修改时间
+     */
+    private final Map<String, LocalCopy> localCopies = new ConcurrentHashMap<>();
+
+    LocalArtifactCache(File cacheDir, long maxBytes) {
+        this.cacheDir = cacheDir;
+        this.maxBytes = maxBytes;
+    }
+
+    public static LocalArtifactCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取远程文件，缓存中没有或已过期时调用 downloader 下载
+     *
+     * @param remotePath    远程文件路径
+     * @param version       远程文件版本，见 {@link com.dtstack.taier.pluginapi.IFileManage#getFileVersion}
+     * @param localFilePath 调用方需要的本地文件路径
+     * @param alwaysPullNew 是否忽略缓存重新下载
+     * @param downloader    下载到指定的本地路径，返回是否成功
+     * @return 本地文件，下载失败时返回 null
+     */
+    public File get(String remotePath, String version, String localFilePath, boolean alwaysPullNew, Predicate<String> downloader) {
+        String cacheName = MD5Util.getMd5String(remotePath + "\n" + version) + "_" + new File(localFilePath).getName();
+        File cacheFile = new File(cacheDir, cacheName);
+        Lock lock = locks.get(cacheName);
+        lock.lock();
+        try {
+            ensureLoaded();
+            if (alwaysPullNew || !cacheFile.isFile()) {
+                remove(cacheName);
+                if (!download(cacheFile, downloader)) {
+                    return null;
+                }
+                add(cacheName, cacheFile.length());
+            } else {
+                touch(cacheName, cacheFile);
+            }
+            File localFile = copyToLocal(cacheName, cacheFile, new File(localFilePath));
+            evict(cacheName);
+            return localFile;
+        } catch (IOException e) {
+            LOG.error("get file {} from local cache error", remotePath, e);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 不经过缓存直接下载到本地文件，同样先写临时文件再 rename，同一文件同一时间只有一个线程下载
+     *
+     * @return 本地文件，下载失败时返回 null
+     */
+    public File download(String localFilePath, boolean alwaysPullNew, Predicate<String> downloader) {
+        File localFile = new File(localFilePath);
+        Lock lock = locks.get(localFile.getAbsolutePath());
+        lock.lock();
+        try {
+            if (!alwaysPullNew && localFile.exists()) {
+                return localFile;
+            }
+            localCopies.remove(localFile.getAbsolutePath());
+            return download(localFile, downloader) ? localFile : null;
+        } catch (IOException e) {
+            LOG.error("download file {} error", localFilePath, e);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean download(File target, Predicate<String> downloader) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs() && !parent.exists()) {
+            throw new IOException("mkdir " + parent + " failed");
+        }
+        File tmpFile = tmpFile(target);
+        try {
+            if (!downloader.test(tmpFile.getPath()) || !tmpFile.isFile()) {
+                return false;
+            }
+            move(tmpFile, target);
+            return true;
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+    /**
+     * 从缓存复制到调用方需要的路径，本地文件未被修改过时直接使用
+     */
+    private File copyToLocal(String cacheName, File cacheFile, File localFile) throws IOException {
+        if (localFile.getAbsoluteFile().equals(cacheFile.getAbsoluteFile())) {
+            return localFile;
+        }
+        String localKey = localFile.getAbsolutePath();
+        LocalCopy copy = localCopies.get(localKey);
+        if (copy != null && copy.cacheName.equals(cacheName) && copy.matches(localFile)) {
+            return localFile;
+        }
+        File parent = localFile.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs() && !parent.exists()) {
+            throw new IOException("mkdir " + parent + " failed");
+        }
+        File tmpFile = tmpFile(localFile);
+        try {
+            Files.copy(cacheFile.toPath(), tmpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            move(tmpFile, localFile);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+        localCopies.put(localKey, new LocalCopy(cacheName, localFile.length(), localFile.lastModified()));
+        return localFile;
+    }
+
+    private static File tmpFile(File target) {
+        return new File(target.getAbsoluteFile().getParentFile(),
+                "." + target.getName() + "." + UUID.randomUUID().toString().replace("-", "") + TMP_SUFFIX);
+    }
+
+    private static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 首次使用时加载已有的缓存文件，按修改时间作为最近使用时间，并清理残留的临时文件
+     */
+    private synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (!file.isFile()) {
+                continue;
+            }
+            if (file.getName().startsWith(".") && file.getName().endsWith(TMP_SUFFIX)) {
+                if (!file.delete()) {
+                    LOG.warn("delete tmp file {} failed", file);
+                }
+                continue;
+            }
+            entries.put(file.getName(), file.length());
+            totalBytes += file.length();
+        }
+    }
+
+    private synchronized void add(String cacheName, long size) {
+        Long old = entries.put(cacheName, size);
+        totalBytes += size - (old == null ? 0 : old);
+    }
+
+    private synchronized void remove(String cacheName) {
+        Long old = entries.remove(cacheName);
+        if (old != null) {
+            totalBytes -= old;
+        }
+    }
+
+    private void touch(String cacheName, File cacheFile) {
+        synchronized (this) {
+            if (entries.get(cacheName) == null) {
+                entries.put(cacheName, cacheFile.length());
+                totalBytes += cacheFile.length();
+            }
+        }
+        if (!cacheFile.setLastModified(System.currentTimeMillis())) {
+            LOG.debug("set last modified time of {} failed", cacheFile);
+        }
+    }
+
+    /**
+     * 超过上限时淘汰最久未使用的缓存文件，正在被其他线程使用的跳过
+     */
+    private void evict(String current) {
+        List<String> candidates = new ArrayList<>();
+        synchronized (this) {
+            long overflow = totalBytes - maxBytes;
+            Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+            while (overflow > 0 && iterator.hasNext()) {
+                Map.Entry<String, Long> entry = iterator.next();
+                if (!entry.getKey().equals(current)) {
+                    candidates.add(entry.getKey());
+                    overflow -= entry.getValue();
+                }
+            }
+        }
+        for (String cacheName : candidates) {
+            Lock lock = locks.get(cacheName);
+            if (Objects.equals(lock, locks.get(current)) || !lock.tryLock()) {
+                continue;
+            }
+            try {
+                remove(cacheName);
+                Files.deleteIfExists(new File(cacheDir, cacheName).toPath());
+                LOG.info("evict cache file {}", cacheName);
+            } catch (IOException e) {
+                LOG.warn("delete cache file {} error", cacheName, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static class LocalCopy {
+
+        private final String cacheName;
+
+        private final long length;
+
+        private final long lastModified;
+
+        private LocalCopy(String cacheName, long length, long lastModified) {
+            this.cacheName = cacheName;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        private boolean matches(File localFile) {
+            return localFile.isFile() && localFile.length() == length && localFile.lastModified() == lastModified;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.apache.hadoop.io.IOUtils;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.util.Vector;
 
@@ -84,6 +85,22 @@ public class HdfsFileManage implements IFileManage {
         }
     }
 
+    @Override
+    public String getFileVersion(String remotePath) {
+        try (FileSystem fs = FileSystem.get(hadoopConf)) {
+            FileStatus status = fs.getFileStatus(new Path(remotePath));
+            if (status.isDirectory()) {
+                return null;
+            }
+            return status.getLen() + "_" + status.getModificationTime();
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (Exception e) {
+            LOG.error("get file version from hdfs error:", e);
+            return null;
+        }
+    }
+
     @Override
     public boolean downloadDir(String remotePath, String localDir) {
         try (FileSystem fs = FileSystem.get(hadoopConf)) {
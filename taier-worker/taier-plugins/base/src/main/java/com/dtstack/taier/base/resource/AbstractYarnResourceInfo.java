@@ -21,21 +21,14 @@ package com.dtstack.taier.base.resource;
 import com.dtstack.taier.pluginapi.pojo.JudgeResult;
 import com.google.common.collect.Lists;
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.hadoop.yarn.api.records.ApplicationReport;
-import org.apache.hadoop.yarn.api.records.NodeReport;
-import org.apache.hadoop.yarn.api.records.NodeState;
 import org.apache.hadoop.yarn.api.records.QueueInfo;
-import org.apache.hadoop.yarn.api.records.Resource;
-import org.apache.hadoop.yarn.api.records.YarnApplicationState;
 import org.apache.hadoop.yarn.client.api.YarnClient;
 import org.apache.hadoop.yarn.exceptions.YarnException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 /**
@@ -72,6 +65,13 @@ public abstract class AbstractYarnResourceInfo implements EngineResourceInfo {
     protected int containerCoreMax;
     protected int containerMemoryMax;
 
+    /**
+     * 共享的资源快照，为空时每次判断都请求 ResourceManager
+     */
+    protected YarnResourceSnapshotManager snapshotManager;
+    private YarnResourceSnapshot snapshot;
+    private String snapshotQueueName;
+
     protected JudgeResult judgeYarnResource(List<InstanceInfo> instanceInfos) {
         if (totalFreeCore == 0 || totalFreeMem == 0) {
             logger.info("judgeYarnResource, totalFreeCore={}, totalFreeMem={}", totalFreeCore, totalFreeMem);
@@ -115,6 +115,10 @@ public abstract class AbstractYarnResourceInfo implements EngineResourceInfo {
                 return judgeInstanceResource;
             }
         }
+        if (snapshot != null) {
+            //快照刷新前，后续判断需要看到当前任务占用的资源
+            snapshot.deduct(snapshotQueueName, instanceInfos);
+        }
         return JudgeResult.ok();
     }
 
@@ -161,45 +165,42 @@ public abstract class AbstractYarnResourceInfo implements EngineResourceInfo {
 
     public JudgeResult getYarnSlots(YarnClient yarnClient, String queueName, int yarnAccepterTaskNumber) {
         try {
-            EnumSet<YarnApplicationState> enumSet = EnumSet.noneOf(YarnApplicationState.class);
-            enumSet.add(YarnApplicationState.ACCEPTED);
-            List<ApplicationReport> acceptedApps = yarnClient.getApplications(enumSet).stream().
-                    filter(report -> report.getQueue().endsWith(queueName)).collect(Collectors.toList());
-            if (acceptedApps.size() > yarnAccepterTaskNumber) {
-                logger.info("queueName:{} acceptedApps:{} >= yarnAccepterTaskNumber:{}", queueName, acceptedApps.size(), yarnAccepterTaskNumber);
-                return JudgeResult.notOk( "queueName:" + queueName + " acceptedApps:" + acceptedApps.size() + " >= yarnAccepterTaskNumber:" + yarnAccepterTaskNumber);
-            }
+            YarnResourceSnapshot snapshot = snapshotManager != null
+                    ? snapshotManager.getSnapshot(!elasticCapacity)
+                    : YarnResourceSnapshot.load(yarnClient, !elasticCapacity);
+            return getYarnSlots(snapshot, queueName, yarnAccepterTaskNumber);
+        } catch (IOException | YarnException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-            List<NodeReport> nodeReports = yarnClient.getNodeReports(NodeState.RUNNING);
-            if (!elasticCapacity) {
-                getQueueRemainCapacity(1, queueName, yarnClient.getRootQueueInfos());
+    /**
+     * 基于资源快照计算可用资源，不再访问 ResourceManager
+     */
+    public JudgeResult getYarnSlots(YarnResourceSnapshot snapshot, String queueName, int yarnAccepterTaskNumber) {
+        int acceptedApps = snapshot.countAcceptedApps(queueName);
+        if (acceptedApps > yarnAccepterTaskNumber) {
+            logger.info("queueName:{} acceptedApps:{} >= yarnAccepterTaskNumber:{}", queueName, acceptedApps, yarnAccepterTaskNumber);
+            return JudgeResult.notOk( "queueName:" + queueName + " acceptedApps:" + acceptedApps + " >= yarnAccepterTaskNumber:" + yarnAccepterTaskNumber);
+        }
+
+        if (!elasticCapacity) {
+            getQueueRemainCapacity(1, queueName, snapshot.getRootQueueInfos());
+        }
+        for (NodeResourceDetail resourceDetail : snapshot.getNodeResources()) {
+            if (resourceDetail.coresFree > containerCoreMax) {
+                containerCoreMax = resourceDetail.coresFree;
             }
-            for (NodeReport report : nodeReports) {
-                Resource capability = report.getCapability();
-                Resource used = report.getUsed();
-                int totalMem = capability.getMemory();
-                int totalCores = capability.getVirtualCores();
-
-                int usedMem = used.getMemory();
-                int usedCores = used.getVirtualCores();
-
-                int freeCores = totalCores - usedCores;
-                int freeMem = totalMem - usedMem;
-
-                if (freeCores > containerCoreMax) {
-                    containerCoreMax = freeCores;
-                }
-                if (freeMem > containerMemoryMax) {
-                    containerMemoryMax = freeMem;
-                }
-                this.addNodeResource(new NodeResourceDetail(report.getNodeId().toString(), totalCores, usedCores, freeCores, totalMem, usedMem, freeMem));
+            if (resourceDetail.memoryFree > containerMemoryMax) {
+                containerMemoryMax = resourceDetail.memoryFree;
             }
-
-            calc();
-            return JudgeResult.ok();
-        } catch (IOException | YarnException e) {
-            throw new RuntimeException(e);
+            this.addNodeResource(resourceDetail);
         }
+
+        calc();
+        this.snapshot = snapshot;
+        this.snapshotQueueName = queueName;
+        return JudgeResult.ok();
     }
 
     private float getQueueRemainCapacity(float coefficient, String queueName, List<QueueInfo> queueInfos) {
@@ -284,6 +285,10 @@ public abstract class AbstractYarnResourceInfo implements EngineResourceInfo {
         }
     }
 
+    public void setSnapshotManager(YarnResourceSnapshotManager snapshotManager) {
+        this.snapshotManager = snapshotManager;
+    }
+
     public void setElasticCapacity(boolean elasticCapacity) {
         this.elasticCapacity = elasticCapacity;
     }
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.base.resource;
+
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.api.records.NodeReport;
+import org.apache.hadoop.yarn.api.records.NodeState;
+import org.apache.hadoop.yarn.api.records.QueueInfo;
+import org.apache.hadoop.yarn.api.records.Resource;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * yarn 集群资源快照：ACCEPTED 状态的任务、RUNNING 节点资源以及队列信息
+ * 快照创建后，已经判断通过的任务会在本地扣减资源，直到下一次刷新
+ */
+public class YarnResourceSnapshot {
+
+    private final long createTime;
+
+    /**
+     * ACCEPTED 状态任务所在的队列
+     */
+    private final List<String> acceptedAppQueues;
+
+    private final String[] nodeIds;
+    private final int[] totalCores;
+    private final int[] usedCores;
+    private final int[] totalMem;
+    private final int[] usedMem;
+
+    /**
+     * 只有关闭弹性容量时才需要加载
+     */
+    private final List<QueueInfo> rootQueueInfos;
+
+    private YarnResourceSnapshot(List<String> acceptedAppQueues, List<NodeReport> nodeReports, List<QueueInfo> rootQueueInfos) {
+        this.createTime = System.currentTimeMillis();
+        this.acceptedAppQueues = acceptedAppQueues;
+        this.rootQueueInfos = rootQueueInfos;
+
+        int size = nodeReports.size();
+        this.nodeIds = new String[size];
+        this.totalCores = new int[size];
+        this.usedCores = new int[size];
+        this.totalMem = new int[size];
+        this.usedMem = new int[size];
+        for (int i = 0; i < size; i++) {
+            NodeReport report = nodeReports.get(i);
+            Resource capability = report.getCapability();
+            Resource used = report.getUsed();
+            nodeIds[i] = report.getNodeId().toString();
+            totalCores[i] = capability.getVirtualCores();
+            totalMem[i] = capability.getMemory();
+            usedCores[i] = used == null ? 0 : used.getVirtualCores();
+            usedMem[i] = used == null ? 0 : used.getMemory();
+        }
+    }
+
+    /**
+     * 从 ResourceManager 加载快照
+     *
+     * @param yarnClient     yarn 客户端
+     * @param loadQueueInfos 是否加载队列信息
+     * @return 快照
+     */
+    public static YarnResourceSnapshot load(YarnClient yarnClient, boolean loadQueueInfos) throws IOException, YarnException {
+        List<String> acceptedAppQueues = new ArrayList<>();
+        for (ApplicationReport report : yarnClient.getApplications(EnumSet.of(YarnApplicationState.ACCEPTED))) {
+            acceptedAppQueues.add(report.getQueue());
+        }
+        List<NodeReport> nodeReports = yarnClient.getNodeReports(NodeState.RUNNING);
+        List<QueueInfo> rootQueueInfos = loadQueueInfos ? yarnClient.getRootQueueInfos() : null;
+        return new YarnResourceSnapshot(acceptedAppQueues, nodeReports, rootQueueInfos);
+    }
+
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    public boolean hasQueueInfos() {
+        return rootQueueInfos != null;
+    }
+
+    public List<QueueInfo> getRootQueueInfos() {
+        return rootQueueInfos;
+    }
+
+    public synchronized int countAcceptedApps(String queueName) {
+        int count = 0;
+        for (String queue : acceptedAppQueues) {
+            if (queue != null && queue.endsWith(queueName)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 当前的节点资源明细
+     */
+    public synchronized List<AbstractYarnResourceInfo.NodeResourceDetail> getNodeResources() {
+        List<AbstractYarnResourceInfo.NodeResourceDetail> nodeResources = new ArrayList<>(nodeIds.length);
+        for (int i = 0; i < nodeIds.length; i++) {
+            nodeResources.add(new AbstractYarnResourceInfo.NodeResourceDetail(nodeIds[i], totalCores[i], usedCores[i],
+                    totalCores[i] - usedCores[i], totalMem[i], usedMem[i], totalMem[i] - usedMem[i]));
+        }
+        return nodeResources;
+    }
+
+    /**
+     * 任务判断通过后，在快照中扣减它将要占用的资源，分配方式和 judgeYarnResource 一致
+     *
+     * @param queueName     提交的队列
+     * @param instanceInfos 任务需要的实例
+     */
+    public synchronized void deduct(String queueName, List<AbstractYarnResourceInfo.InstanceInfo> instanceInfos) {
+        acceptedAppQueues.add(queueName);
+        for (AbstractYarnResourceInfo.InstanceInfo instanceInfo : instanceInfos) {
+            for (int i = 0; i < instanceInfo.instances; i++) {
+                allocate(totalCores, usedCores, instanceInfo.coresPerInstance);
+                allocate(totalMem, usedMem, instanceInfo.memPerInstance);
+            }
+        }
+    }
+
+    private void allocate(int[] total, int[] used, int toAllocate) {
+        for (int i = 0; i < total.length; i++) {
+            if (total[i] - used[i] >= toAllocate) {
+                used[i] += toAllocate;
+                return;
+            }
+        }
+    }
+}
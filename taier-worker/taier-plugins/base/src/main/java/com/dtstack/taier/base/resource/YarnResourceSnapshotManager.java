@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.base.resource;
+
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * 每个 yarn 集群一个实例，缓存集群资源快照
+ * 快照在 refreshInterval 内复用，期间判断通过的任务在本地扣减资源，
+ * 使得资源判断不需要每次都请求 ResourceManager
+ */
+public class YarnResourceSnapshotManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(YarnResourceSnapshotManager.class);
+
+    public static final long DEFAULT_REFRESH_INTERVAL = 5000L;
+
+    private final Supplier<YarnClient> yarnClientSupplier;
+
+    private final long refreshInterval;
+
+    private volatile YarnResourceSnapshot snapshot;
+
+    public YarnResourceSnapshotManager(Supplier<YarnClient> yarnClientSupplier, long refreshInterval) {
+        this.yarnClientSupplier = yarnClientSupplier;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * 获取快照，过期或者缺少队列信息时重新加载
+     *
+     * @param loadQueueInfos 是否需要队列信息
+     * @return 快照
+     */
+    public YarnResourceSnapshot getSnapshot(boolean loadQueueInfos) throws IOException, YarnException {
+        YarnResourceSnapshot current = snapshot;
+        if (isUsable(current, loadQueueInfos)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (!isUsable(current, loadQueueInfos)) {
+                current = YarnResourceSnapshot.load(yarnClientSupplier.get(), loadQueueInfos);
+                snapshot = current;
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("refresh yarn resource snapshot at {}", current.getCreateTime());
+                }
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 丢弃当前快照，下一次判断重新加载
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private boolean isUsable(YarnResourceSnapshot current, boolean loadQueueInfos) {
+        if (current == null || System.currentTimeMillis() - current.getCreateTime() >= refreshInterval) {
+            return false;
+        }
+        return !loadQueueInfos || current.hasQueueInfos();
+    }
+}
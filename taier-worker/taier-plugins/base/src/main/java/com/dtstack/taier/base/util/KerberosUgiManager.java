@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.base.util;
+
+import com.dtstack.taier.pluginapi.CustomThreadFactory;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.security.auth.kerberos.KerberosTicket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 按 principal 共享的 kerberos UGI
+ * 1. principal、keytab、krb5 相同的所有线程共用一个已登录的 UGI，票据未过期时无锁读取
+ * 2. 后台线程在票据生命周期过 60% 后重新登录并替换 UGI，请求线程只在超过 80% 且后台尚未刷新时同步登录
+ * 3. 超过空闲时间未使用的 UGI 不再刷新，直接移除
+ */
+class KerberosUgiManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KerberosUgiManager.class);
+
+    private static final float REFRESH_RATIO = 0.6f;
+
+    /**
+     * 票据生命周期超过该比例视为过期
+     */
+    private static final float EXPIRE_RATIO = 0.8f;
+
+    private static final long CHECK_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final KerberosUgiManager INSTANCE = new KerberosUgiManager();
+
+    private final Map<String, UgiHolder> holders = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService refresher;
+
+    static KerberosUgiManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取已登录的 UGI，不存在或票据即将过期时同步登录
+     *
+     * @param key         principal、keytab、krb5 组成的唯一标识
+     * @param loginAction 登录并返回新的 UGI
+     */
+    UserGroupInformation getUgi(String key, Supplier<UserGroupInformation> loginAction) {
+        UgiHolder holder = holders.get(key);
+        if (holder == null) {
+            holder = holders.computeIfAbsent(key, k -> new UgiHolder(loginAction));
+            startRefresher();
+        }
+        long now = System.currentTimeMillis();
+        holder.lastAccessTime = now;
+        UserGroupInformation ugi = holder.ugi;
+        if (ugi != null && now < holder.expireTime) {
+            return ugi;
+        }
+        synchronized (holder) {
+            if (holder.ugi == null || System.currentTimeMillis() >= holder.expireTime) {
+                LOG.info("kerberos ticket of {} is expired or not exists, login in current thread {}", key, Thread.currentThread().getName());
+                login(holder);
+            }
+            return holder.ugi;
+        }
+    }
+
+    /**
+     * 认证失败时重新登录，其他线程已重新登录时直接返回新的 UGI
+     *
+     * @param staleUgi 认证失败的 UGI
+     */
+    UserGroupInformation relogin(String key, UserGroupInformation staleUgi, Supplier<UserGroupInformation> loginAction) {
+        UgiHolder holder = holders.computeIfAbsent(key, k -> new UgiHolder(loginAction));
+        synchronized (holder) {
+            if (holder.ugi == null || holder.ugi == staleUgi) {
+                login(holder);
+            }
+            return holder.ugi;
+        }
+    }
+
+    private void login(UgiHolder holder) {
+        UserGroupInformation ugi = holder.loginAction.get();
+        long now = System.currentTimeMillis();
+        KerberosTicket ticket = null;
+        try {
+            ticket = KerberosUtils.getTGT(ugi);
+        } catch (Exception e) {
+            LOG.warn("get tgt of {} error", ugi.getUserName(), e);
+        }
+        if (ticket == null) {
+            // 没有票据信息时下一次检查即刷新
+            holder.refreshTime = now;
+            holder.expireTime = now + CHECK_INTERVAL_MILLIS;
+        } else {
+            long start = ticket.getStartTime().getTime();
+            long lifetime = ticket.getEndTime().getTime() - start;
+            holder.refreshTime = start + (long) (lifetime * REFRESH_RATIO);
+            holder.expireTime = start + (long) (lifetime * EXPIRE_RATIO);
+        }
+        holder.ugi = ugi;
+    }
+
+    private void startRefresher() {
+        if (refresher != null) {
+            return;
+        }
+        synchronized (this) {
+            if (refresher != null) {
+                return;
+            }
+            ThreadFactory threadFactory = new CustomThreadFactory(this.getClass().getSimpleName());
+            ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = threadFactory.newThread(r);
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::refresh, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            refresher = executor;
+        }
+    }
+
+    private void refresh() {
+        for (Map.Entry<String, UgiHolder> entry : holders.entrySet()) {
+            UgiHolder holder = entry.getValue();
+            long now = System.currentTimeMillis();
+            if (now - holder.lastAccessTime > IDLE_TIMEOUT_MILLIS) {
+                holders.remove(entry.getKey(), holder);
+                LOG.info("remove idle ugi {}", entry.getKey());
+                continue;
+            }
+            if (now < holder.refreshTime) {
+                continue;
+            }
+            try {
+                synchronized (holder) {
+                    if (System.currentTimeMillis() >= holder.refreshTime) {
+                        LOG.info("refresh kerberos ticket of {}", entry.getKey());
+                        login(holder);
+                    }
+                }
+            } catch (Throwable e) {
+                LOG.error("refresh kerberos ticket of {} error", entry.getKey(), e);
+            }
+        }
+    }
+
+    private static class UgiHolder {
+
+        private final Supplier<UserGroupInformation> loginAction;
+
+        private volatile UserGroupInformation ugi;
+
+        /**
+         * 超过后由后台线程重新登录
+         */
+        private volatile long refreshTime;
+
+        /**
+         * 超过后请求线程同步登录
+         */
+        private volatile long expireTime;
+
+        private volatile long lastAccessTime;
+
+        private UgiHolder(Supplier<UserGroupInformation> loginAction) {
+            this.loginAction = loginAction;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.dtstack.taier.base.BaseConfig;
 import com.dtstack.taier.pluginapi.constrant.ConfigConstant;
 import com.dtstack.taier.pluginapi.exception.PluginDefineException;
 import com.dtstack.taier.pluginapi.sftp.SftpFileManage;
+import com.dtstack.taier.pluginapi.util.MD5Util;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import org.apache.commons.collections.MapUtils;
@@ -29,7 +30,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.security.HadoopKerberosName;
 import org.apache.hadoop.security.UserGroupInformation;
-import org.apache.hadoop.util.Time;
 import org.apache.kerby.kerberos.kerb.keytab.Keytab;
 import org.apache.kerby.kerberos.kerb.type.base.PrincipalName;
 import org.slf4j.Logger;
@@ -59,8 +59,8 @@ public class KerberosUtils {
     private static final String KERBEROS_AUTH_TYPE = "kerberos";
     private static final String SECURITY_TO_LOCAL_DEFAULT = "RULE:[1:$1] RULE:[2:$1]";
 
-    private static Map<String, UserGroupInformation> ugiMap = Maps.newConcurrentMap();
     private static Map<String, String> segment = Maps.newConcurrentMap();
+    private static Map<String, KerberosFiles> kerberosFilesMap = Maps.newConcurrentMap();
 
     private static final String TIME_FILE = ".lock";
     private static final String KEYTAB_FILE = ".keytab";
@@ -83,35 +83,25 @@ public class KerberosUtils {
     }
 
     /**
-     * @see HadoopKerberosName#setConfiguration(org.apache.hadoop.conf.Configuration)
+     * 认证失败时重新登录一次再执行
      * @param ugi
+     * @param ugiKey 共享 UGI 的标识，为 null 时表示不共享
      * @param supplier
-     * @param finalKrb5ConfPath
-     * @param configuration
-     * @param finalPrincipal
-     * @param finalKeytabPath
-     * @param threadName
-     * @param defaultKrb5Name
-     * @param isMergeKrb5
+     * @param loginAction
      * @param <T>
      * @return
      */
     private static <T> T retryLoginKerberosWithCallBack(UserGroupInformation ugi,
+                                                        String ugiKey,
                                                         Supplier<T> supplier,
-                                                        String finalKrb5ConfPath,
-                                                        Configuration configuration,
-                                                        String finalPrincipal,
-                                                        String finalKeytabPath,
-                                                        String threadName,
-                                                        String defaultKrb5Name,
-                                                        Boolean isMergeKrb5) {
+                                                        Supplier<UserGroupInformation> loginAction) {
         try {
             return loginKerberosWithCallBack(ugi, supplier);
         } catch (Exception e) {
             if (Arrays.stream(VALID_CREDENTIALS_MSG).anyMatch(e.toString()::contains)) {
-                UserGroupInformation retryUgi = retryCreateUGIIfMerge(finalKrb5ConfPath, configuration, finalPrincipal, finalKeytabPath, defaultKrb5Name, isMergeKrb5);
-                ugiMap.put(threadName, retryUgi);
-                return loginKerberosWithCallBack(ugi, supplier);
+                UserGroupInformation retryUgi = ugiKey == null ? loginAction.get()
+                        : KerberosUgiManager.getInstance().relogin(ugiKey, ugi, loginAction);
+                return loginKerberosWithCallBack(retryUgi, supplier);
             }
             logger.error("retryLoginKerberosWithCallBack: ", e);
             throw new PluginDefineException("doAs error: " + e);
@@ -133,15 +123,48 @@ public class KerberosUtils {
             return supplier.get();
         }
 
+        try {
+            KerberosFiles files = getLoginFiles(config);
+            Supplier<UserGroupInformation> loginAction = () -> retryCreateUGIIfMerge(files.krb5ConfPath, configuration,
+                    files.principal, files.keytabPath, config.getKrbName(), files.isMergeKrb5);
+
+            /*
+             * 如果用已经带有token的ugi进行认证时，在HDFS DELEGATION TOKEN那里会出现认证错误
+             * 如果是SPARK 在这里先每次创建UGI进行避开
+             */
+            UserGroupInformation ugi;
+            String ugiKey = null;
+            if (isCreateNewUGI) {
+                ugi = loginAction.get();
+            } else {
+                ugiKey = files.getUgiKey();
+                ugi = KerberosUgiManager.getInstance().getUgi(ugiKey, loginAction);
+            }
+            Preconditions.checkNotNull(ugi, "UserGroupInformation is null");
+            return KerberosUtils.retryLoginKerberosWithCallBack(ugi, ugiKey, supplier, loginAction);
+        } catch (Exception e) {
+            throw new PluginDefineException(e.getMessage());
+        }
+    }
+
+    /**
+     * 获取登录使用的 keytab、krb5 文件和 principal
+     * 服务端文件时间戳未变化且本地文件存在时直接使用上次的结果，否则按原逻辑检查并下载
+     * @param config
+     * @return
+     */
+    private static KerberosFiles getLoginFiles(BaseConfig config) throws IOException {
         String fileName = config.getPrincipalFile();
         String remoteDir = config.getRemoteDir();
-        String localDir = ConfigConstant.LOCAL_KEYTAB_DIR_PARENT + remoteDir;
-        String finalKrb5ConfPath;
-        String finalPrincipal;
-        String finalKeytabPath;
-        String threadName;
-        Boolean isMergeKrb5;
+        Timestamp timestamp = config.getKerberosFileTimestamp();
+        String signature = String.join("|", remoteDir, fileName, config.getKrbName(), config.getPrincipal(),
+                String.valueOf(config.getMergeKrbContent()), String.valueOf(timestamp));
+        KerberosFiles files = kerberosFilesMap.get(signature);
+        if (files != null && new File(files.keytabPath).exists()) {
+            return files;
+        }
 
+        String localDir = ConfigConstant.LOCAL_KEYTAB_DIR_PARENT + remoteDir;
         File localDirPath = new File(localDir);
         if (!localDirPath.exists()) {
             localDirPath.mkdirs();
@@ -149,69 +172,46 @@ public class KerberosUtils {
 
         logger.info("fileName:{}, remoteDir:{}, localDir:{}, sftpConf:{}", fileName, remoteDir, localDir, config.getSftpConf());
 
-        try {
-            UserGroupInformation ugi;
-            String segmentName = segment.computeIfAbsent(remoteDir, key -> {return new String(remoteDir);});
-            synchronized (segmentName) {
-                String keytabPath = "";
-                String krb5ConfPath = "";
-                String krb5ConfName = config.getKrbName();
-                isMergeKrb5 = StringUtils.isNotEmpty(config.getMergeKrbContent());
-
-                //本地文件是否和服务器时间一致 一致使用本地缓存
-                boolean isOverrideDownLoad = checkLocalCache(config.getKerberosFileTimestamp(), localDirPath);
-                if (isOverrideDownLoad) {
-                    SftpFileManage sftpFileManage = SftpFileManage.getSftpManager(config.getSftpConf());
-                    keytabPath = sftpFileManage.cacheOverloadFile(fileName, remoteDir, localDir);
-                    krb5ConfPath = sftpFileManage.cacheOverloadFile(krb5ConfName, config.getRemoteDir(), localDir);
-                    if (isMergeKrb5) {
-                        krb5ConfPath = localDir + ConfigConstant.SP + ConfigConstant.MERGE_KRB5_NAME;
-                        Files.write(Paths.get(krb5ConfPath), Collections.singleton(config.getMergeKrbContent()));
-                    }
-                    writeTimeLockFile(config.getKerberosFileTimestamp(),localDir);
-                } else {
-                    keytabPath = localDir + File.separator + fileName;
-                    if (isMergeKrb5) {
-                        krb5ConfPath = localDir + ConfigConstant.SP + ConfigConstant.MERGE_KRB5_NAME;
-                    } else {
-                        krb5ConfPath = localDir + ConfigConstant.SP + krb5ConfName;
-                    }
-                }
-
-                finalKrb5ConfPath = krb5ConfPath;
-                finalKeytabPath = keytabPath;
-                threadName = Thread.currentThread().getName();
-                String principal = config.getPrincipal();
-                if (StringUtils.isEmpty(principal)) {
-                    principal = segment.computeIfAbsent(threadName, k -> {return KerberosUtils.getPrincipal(finalKeytabPath);});
+        String segmentName = segment.computeIfAbsent(remoteDir, key -> {return new String(remoteDir);});
+        synchronized (segmentName) {
+            String keytabPath = "";
+            String krb5ConfPath = "";
+            String krb5ConfName = config.getKrbName();
+            boolean isMergeKrb5 = StringUtils.isNotEmpty(config.getMergeKrbContent());
+
+            //本地文件是否和服务器时间一致 一致使用本地缓存
+            boolean isOverrideDownLoad = checkLocalCache(timestamp, localDirPath);
+            if (isOverrideDownLoad) {
+                SftpFileManage sftpFileManage = SftpFileManage.getSftpManager(config.getSftpConf());
+                keytabPath = sftpFileManage.cacheOverloadFile(fileName, remoteDir, localDir);
+                krb5ConfPath = sftpFileManage.cacheOverloadFile(krb5ConfName, config.getRemoteDir(), localDir);
+                if (isMergeKrb5) {
+                    krb5ConfPath = localDir + ConfigConstant.SP + ConfigConstant.MERGE_KRB5_NAME;
+                    Files.write(Paths.get(krb5ConfPath), Collections.singleton(config.getMergeKrbContent()));
                 }
-                finalPrincipal = principal;
-                logger.info("kerberos login, principal:{}, keytabPath:{}, krb5ConfPath:{}", principal, keytabPath, krb5ConfPath);
-
-                /*
-                 * 如果用已经带有token的ugi进行认证时，在HDFS DELEGATION TOKEN那里会出现认证错误
-                 * 如果是SPARK 在这里先每次创建UGI进行避开
-                 */
-                if (isCreateNewUGI) {
-                    ugi = retryCreateUGIIfMerge(finalKrb5ConfPath, configuration, finalPrincipal, finalKeytabPath, config.getKrbName(), isMergeKrb5);
+                writeTimeLockFile(timestamp, localDir);
+            } else {
+                keytabPath = localDir + File.separator + fileName;
+                if (isMergeKrb5) {
+                    krb5ConfPath = localDir + ConfigConstant.SP + ConfigConstant.MERGE_KRB5_NAME;
                 } else {
-                    ugi = ugiMap.computeIfAbsent(threadName, k -> retryCreateUGIIfMerge(finalKrb5ConfPath, configuration, finalPrincipal, finalKeytabPath, config.getKrbName(), isMergeKrb5));
+                    krb5ConfPath = localDir + ConfigConstant.SP + krb5ConfName;
                 }
+            }
 
-                KerberosTicket ticket = getTGT(ugi);
-                if (!checkTGT(ticket) || isOverrideDownLoad) {
-                    logger.info("Relogin after the ticket expired, principal: {}, current thread: {}", principal, Thread.currentThread().getName());
-                    ugi = retryCreateUGIIfMerge(finalKrb5ConfPath, configuration, finalPrincipal, finalKeytabPath, config.getKrbName(), isMergeKrb5);
-                    if (!isCreateNewUGI) {
-                        ugiMap.put(threadName, ugi);
-                    }
-                }
-                logger.info("userGroupInformation current user = {} ugi user  = {} ", UserGroupInformation.getCurrentUser(), ugi.getUserName());
+            String principal = config.getPrincipal();
+            if (StringUtils.isEmpty(principal)) {
+                principal = KerberosUtils.getPrincipal(keytabPath);
             }
-            Preconditions.checkNotNull(ugi, "UserGroupInformation is null");
-            return KerberosUtils.retryLoginKerberosWithCallBack(ugi, supplier, finalKrb5ConfPath, configuration, finalPrincipal, finalKeytabPath, threadName, config.getKrbName(), isMergeKrb5);
-        } catch (Exception e) {
-            throw new PluginDefineException(e.getMessage());
+            logger.info("kerberos login, principal:{}, keytabPath:{}, krb5ConfPath:{}", principal, keytabPath, krb5ConfPath);
+
+            // keytab 内容变化后使用新的 UGI
+            String keytabDigest = StringUtils.isEmpty(keytabPath) ? "" : MD5Util.getFileMd5String(new File(keytabPath));
+            files = new KerberosFiles(keytabPath, krb5ConfPath, principal, isMergeKrb5, keytabDigest);
+            if (timestamp != null) {
+                kerberosFilesMap.put(signature, files);
+            }
+            return files;
         }
     }
 
@@ -313,20 +313,7 @@ public class KerberosUtils {
         }
     }
 
-    private static boolean checkTGT(KerberosTicket ticket) {
-        if (ticket == null) {
-            return false;
-        }
-        long start = ticket.getStartTime().getTime();
-        long end = ticket.getEndTime().getTime();
-        boolean expired = Time.now() < start + (long) ((end - start) * 0.80f);
-        if (expired) {
-            return true;
-        }
-        return false;
-    }
-
-    private static KerberosTicket getTGT(UserGroupInformation ugi) throws Exception {
+    static KerberosTicket getTGT(UserGroupInformation ugi) throws Exception {
         Class<? extends UserGroupInformation> ugiClass = ugi.getClass();
         Field subjectField = ugiClass.getDeclaredField("subject");
         subjectField.setAccessible(true);
@@ -446,4 +433,29 @@ public class KerberosUtils {
         }
         return conf;
     }
+
+    private static class KerberosFiles {
+
+        private final String keytabPath;
+
+        private final String krb5ConfPath;
+
+        private final String principal;
+
+        private final boolean isMergeKrb5;
+
+        private final String keytabDigest;
+
+        private KerberosFiles(String keytabPath, String krb5ConfPath, String principal, boolean isMergeKrb5, String keytabDigest) {
+            this.keytabPath = keytabPath;
+            this.krb5ConfPath = krb5ConfPath;
+            this.principal = principal;
+            this.isMergeKrb5 = isMergeKrb5;
+            this.keytabDigest = keytabDigest;
+        }
+
+        private String getUgiKey() {
+            return principal + "|" + keytabPath + "|" + keytabDigest + "|" + krb5ConfPath;
+        }
+    }
 }
@@ -24,6 +24,7 @@ import com.dtstack.taier.flink.plugininfo.SqlPluginInfo;
 import com.dtstack.taier.pluginapi.pojo.CheckResult;
 import com.dtstack.taier.base.filesystem.FilesystemManager;
 import com.dtstack.taier.base.monitor.AcceptedApplicationMonitor;
+import com.dtstack.taier.base.resource.YarnResourceSnapshotManager;
 import com.dtstack.taier.base.util.KerberosUtils;
 import com.dtstack.taier.pluginapi.JarFileInfo;
 import com.dtstack.taier.pluginapi.JobClient;
@@ -105,6 +106,8 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -146,6 +149,9 @@ public class FlinkClient extends AbstractClient {
 
     private FilesystemManager filesystemManager;
 
+    private final YarnResourceSnapshotManager resourceSnapshotManager =
+            new YarnResourceSnapshotManager(() -> flinkClientBuilder.getYarnClient(), YarnResourceSnapshotManager.DEFAULT_REFRESH_INTERVAL);
+
     private final static Predicate<TaskStatus> IS_END_STATUS = status -> TaskStatus.getStoppedStatus().contains(status.getStatus()) || TaskStatus.NOTFOUND.equals(status);
 
     @Override
@@ -531,6 +537,68 @@ public class FlinkClient extends AbstractClient {
         }
     }
 
+    /**
+     * 同一个 flink 集群上的任务通过一次 /jobs/overview 请求获取状态，
+     * 获取不到的任务再逐个查询
+     */
+    @Override
+    public Map<String, TaskStatus> getJobStatus(List<JobIdentifier> jobIdentifiers) {
+        Map<String, TaskStatus> statusMap = new HashMap<>(jobIdentifiers.size());
+        Map<String, List<JobIdentifier>> webInterfaceGroup = new HashMap<>();
+        List<JobIdentifier> singleQueryIdentifiers = new ArrayList<>();
+
+        for (JobIdentifier jobIdentifier : jobIdentifiers) {
+            if (StringUtils.isEmpty(jobIdentifier.getEngineJobId())) {
+                singleQueryIdentifiers.add(jobIdentifier);
+                continue;
+            }
+            try {
+                ClusterClient clusterClient = flinkClusterClientManager.getClusterClient(jobIdentifier);
+                webInterfaceGroup.computeIfAbsent(clusterClient.getWebInterfaceURL(), k -> new ArrayList<>()).add(jobIdentifier);
+            } catch (Exception e) {
+                singleQueryIdentifiers.add(jobIdentifier);
+            }
+        }
+
+        for (Map.Entry<String, List<JobIdentifier>> entry : webInterfaceGroup.entrySet()) {
+            List<JobIdentifier> groupIdentifiers = entry.getValue();
+            if (groupIdentifiers.size() == 1) {
+                singleQueryIdentifiers.addAll(groupIdentifiers);
+                continue;
+            }
+            Map<String, String> jobStates = new HashMap<>(groupIdentifiers.size());
+            try {
+                String response = PoolHttpClient.get(entry.getKey() + ConfigConstrant.JOBS_OVERVIEW_URL);
+                if (StringUtils.isNotEmpty(response)) {
+                    Map<String, Object> overview = PublicUtil.jsonStrToObject(response, Map.class);
+                    Object jobs = overview.get("jobs");
+                    if (jobs instanceof List) {
+                        for (Object job : (List) jobs) {
+                            Map jobMap = (Map) job;
+                            jobStates.put(String.valueOf(jobMap.get("jid")), String.valueOf(jobMap.get("state")));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn("get jobs overview from {} error, fallback to single query", entry.getKey(), e);
+            }
+
+            for (JobIdentifier jobIdentifier : groupIdentifiers) {
+                String state = jobStates.get(jobIdentifier.getEngineJobId());
+                if (state == null) {
+                    singleQueryIdentifiers.add(jobIdentifier);
+                } else {
+                    statusMap.put(jobIdentifier.getJobId(), TaskStatus.getTaskStatus(StringUtils.upperCase(state)));
+                }
+            }
+        }
+
+        for (JobIdentifier jobIdentifier : singleQueryIdentifiers) {
+            statusMap.put(jobIdentifier.getJobId(), getJobStatus(jobIdentifier));
+        }
+        return statusMap;
+    }
+
     /**
      * per-job模式其实获取的任务状态是yarn-application状态
      * @param applicationId
@@ -737,6 +805,7 @@ public class FlinkClient extends AbstractClient {
                         .withYarnClient(flinkClientBuilder.getYarnClient())
                         .withQueueName(flinkConfig.getQueue())
                         .withYarnAccepterTaskNumber(flinkConfig.getYarnAccepterTaskNumber())
+                        .withSnapshotManager(resourceSnapshotManager)
                         .build();
 
                 return perJobResourceInfo.judgeSlots(jobClient);
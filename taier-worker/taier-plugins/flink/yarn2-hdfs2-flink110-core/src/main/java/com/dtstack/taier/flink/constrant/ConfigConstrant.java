@@ -116,6 +116,7 @@ public class ConfigConstrant {
     public static final String JOB_EXCEPTIONS_URL_FORMAT = "/jobs/%s/exceptions";
     public final static String JOB_ACCUMULATOR_URL_FORMAT = "/jobs/%s/accumulators";
     public static final String JOB_URL_FORMAT = "/jobs/%s";
+    public static final String JOBS_OVERVIEW_URL = "/jobs/overview";
     public static final String JOB_CHECKPOINTS_URL_FORMAT = "/jobs/%s/checkpoints";
     public static final String TASKMANAGERS_KEY = "taskmanagers";
 
@@ -24,6 +24,7 @@ import com.dtstack.taier.pluginapi.util.MathUtil;
 import com.dtstack.taier.pluginapi.JobClient;
 import com.dtstack.taier.flink.util.FlinkUtil;
 import com.dtstack.taier.base.resource.AbstractYarnResourceInfo;
+import com.dtstack.taier.base.resource.YarnResourceSnapshotManager;
 import com.google.common.collect.Lists;
 import org.apache.hadoop.yarn.client.api.YarnClient;
 
@@ -115,6 +116,7 @@ public class FlinkPerJobResourceInfo extends AbstractYarnResourceInfo {
         private YarnClient yarnClient;
         private String queueName;
         private Integer yarnAccepterTaskNumber;
+        private YarnResourceSnapshotManager snapshotManager;
 
         public FlinkPerJobResourceInfoBuilder withYarnClient(YarnClient yarnClient) {
             this.yarnClient = yarnClient;
@@ -131,8 +133,15 @@ public class FlinkPerJobResourceInfo extends AbstractYarnResourceInfo {
             return this;
         }
 
+        public FlinkPerJobResourceInfoBuilder withSnapshotManager(YarnResourceSnapshotManager snapshotManager) {
+            this.snapshotManager = snapshotManager;
+            return this;
+        }
+
         public FlinkPerJobResourceInfo build() {
-            return new FlinkPerJobResourceInfo(yarnClient, queueName, yarnAccepterTaskNumber);
+            FlinkPerJobResourceInfo resourceInfo = new FlinkPerJobResourceInfo(yarnClient, queueName, yarnAccepterTaskNumber);
+            resourceInfo.setSnapshotManager(snapshotManager);
+            return resourceInfo;
         }
     }
 
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.flink.resource;
+
+import com.dtstack.taier.base.resource.YarnResourceSnapshotManager;
+import com.dtstack.taier.pluginapi.JobClient;
+import com.dtstack.taier.pluginapi.pojo.JudgeResult;
+import org.apache.hadoop.yarn.api.records.NodeId;
+import org.apache.hadoop.yarn.api.records.NodeReport;
+import org.apache.hadoop.yarn.api.records.NodeState;
+import org.apache.hadoop.yarn.api.records.Resource;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class FlinkPerJobResourceInfoTest {
+
+    @Test
+    public void testJudgeSlotsWithSharedSnapshot() throws Exception {
+        YarnClient yarnClient = mockYarnClient(3, 4096);
+        YarnResourceSnapshotManager snapshotManager = new YarnResourceSnapshotManager(() -> yarnClient, 60000L);
+        JobClient jobClient = Mockito.mock(JobClient.class);
+        Mockito.when(jobClient.getConfProperties()).thenReturn(new Properties());
+
+        JudgeResult first = buildResourceInfo(yarnClient, snapshotManager).judgeSlots(jobClient);
+        Assert.assertTrue(first.available());
+
+        // 第一个任务扣减后集群没有剩余的 core
+        JudgeResult second = buildResourceInfo(yarnClient, snapshotManager).judgeSlots(jobClient);
+        Assert.assertFalse(second.available());
+
+        Mockito.verify(yarnClient, Mockito.times(1)).getNodeReports(NodeState.RUNNING);
+        Mockito.verify(yarnClient, Mockito.times(1)).getApplications(any(EnumSet.class));
+
+        snapshotManager.invalidate();
+        JudgeResult third = buildResourceInfo(yarnClient, snapshotManager).judgeSlots(jobClient);
+        Assert.assertTrue(third.available());
+        Mockito.verify(yarnClient, Mockito.times(2)).getNodeReports(NodeState.RUNNING);
+    }
+
+    private FlinkPerJobResourceInfo buildResourceInfo(YarnClient yarnClient, YarnResourceSnapshotManager snapshotManager) {
+        return FlinkPerJobResourceInfo.FlinkPerJobResourceInfoBuilder()
+                .withYarnClient(yarnClient)
+                .withQueueName("default")
+                .withYarnAccepterTaskNumber(3)
+                .withSnapshotManager(snapshotManager)
+                .build();
+    }
+
+    private YarnClient mockYarnClient(int cores, int memory) throws Exception {
+        Resource capability = Mockito.mock(Resource.class);
+        Mockito.when(capability.getVirtualCores()).thenReturn(cores);
+        Mockito.when(capability.getMemory()).thenReturn(memory);
+        Resource used = Mockito.mock(Resource.class);
+        Mockito.when(used.getVirtualCores()).thenReturn(0);
+        Mockito.when(used.getMemory()).thenReturn(0);
+
+        NodeReport nodeReport = Mockito.mock(NodeReport.class);
+        Mockito.when(nodeReport.getNodeId()).thenReturn(Mockito.mock(NodeId.class));
+        Mockito.when(nodeReport.getCapability()).thenReturn(capability);
+        Mockito.when(nodeReport.getUsed()).thenReturn(used);
+
+        YarnClient yarnClient = Mockito.mock(YarnClient.class);
+        Mockito.when(yarnClient.getApplications(any(EnumSet.class))).thenReturn(Collections.emptyList());
+        Mockito.when(yarnClient.getNodeReports(NodeState.RUNNING)).thenReturn(Collections.singletonList(nodeReport));
+        return yarnClient;
+    }
+}
@@ -78,6 +78,28 @@ public class HadoopClient extends AbstractClient {
     private static final String HDFS_PREFIX = "hdfs://";
     private static final String HADOOP_USER_NAME = "HADOOP_USER_NAME";
     private static final String QUEUE = "queue";
+    private static final String MAPREDUCE_APPLICATION_TYPE = "MAPREDUCE";
+
+    /**
+     * 批量查询状态时只拉取未结束的任务，已结束的任务逐个查询
+     */
+    private static final EnumSet<YarnApplicationState> ACTIVE_APPLICATION_STATES = EnumSet.of(YarnApplicationState.NEW,
+            YarnApplicationState.NEW_SAVING, YarnApplicationState.SUBMITTED, YarnApplicationState.ACCEPTED, YarnApplicationState.RUNNING);
+
+    /**
+     * 批量查询的任务数小于该值时直接逐个查询
+     */
+    private static final int BATCH_STATUS_MIN_SIZE = 10;
+
+    /**
+     * 未结束任务列表的缓存时间，小于状态轮询间隔，同一轮轮询的多个批次共用一次 getApplications 请求
+     */
+    private static final long ACTIVE_REPORTS_CACHE_TIME = 2000L;
+
+    private volatile long activeReportsTime = 0L;
+
+    private volatile Map<String, ApplicationReport> activeReports = Collections.emptyMap();
+
     private EngineResourceInfo resourceInfo = new HadoopResourceInfo();
     private Configuration conf = new Configuration();
     private volatile YarnClient yarnClient;
@@ -164,38 +186,7 @@ public class HadoopClient extends AbstractClient {
 
                 try {
                     ApplicationReport report = getYarnClient().getApplicationReport(appId);
-                    YarnApplicationState applicationState = report.getYarnApplicationState();
-                    switch(applicationState) {
-                        case KILLED:
-                            return TaskStatus.KILLED;
-                        case NEW:
-                        case NEW_SAVING:
-                            return TaskStatus.CREATED;
-                        case SUBMITTED:
-                            //FIXME 特殊逻辑,认为已提交到计算引擎的状态为等待资源状态
-                            return TaskStatus.WAITCOMPUTE;
-                        case ACCEPTED:
-                            return TaskStatus.SCHEDULED;
-                        case RUNNING:
-                            return TaskStatus.RUNNING;
-                        case FINISHED:
-                            //state 为finished状态下需要兼顾判断finalStatus.
-                            FinalApplicationStatus finalApplicationStatus = report.getFinalApplicationStatus();
-                            if(finalApplicationStatus == FinalApplicationStatus.FAILED){
-                                return TaskStatus.FAILED;
-                            }else if(finalApplicationStatus == FinalApplicationStatus.SUCCEEDED){
-                                return TaskStatus.FINISHED;
-                            }else if(finalApplicationStatus == FinalApplicationStatus.KILLED){
-                                return TaskStatus.KILLED;
-                            }else{
-                                return TaskStatus.RUNNING;
-                            }
-
-                        case FAILED:
-                            return TaskStatus.FAILED;
-                        default:
-                            throw new PluginDefineException("Unsupported application state");
-                    }
+                    return convertToTaskStatus(report);
                 } catch (Exception e) {
                     return TaskStatus.NOTFOUND;
                 }
@@ -206,6 +197,94 @@ public class HadoopClient extends AbstractClient {
         }
     }
 
+    /**
+     * 通过 getApplications 请求获取未结束的 MR 任务状态，结果短时间缓存供同一轮轮询的其他批次使用，
+     * 已结束或 RM 已经淘汰的任务再逐个查询
+     */
+    @Override
+    public Map<String, TaskStatus> getJobStatus(List<JobIdentifier> jobIdentifiers) throws IOException {
+        Map<String, TaskStatus> statusMap = new HashMap<>(jobIdentifiers.size());
+        Map<String, ApplicationReport> reportMap = jobIdentifiers.size() < BATCH_STATUS_MIN_SIZE
+                ? Collections.emptyMap() : getActiveReports();
+
+        for (JobIdentifier jobIdentifier : jobIdentifiers) {
+            String engineJobId = jobIdentifier.getEngineJobId();
+            if (StringUtils.isEmpty(engineJobId)) {
+                continue;
+            }
+            ApplicationReport report = reportMap.get(engineJobId.replace("job_", "application_"));
+            TaskStatus taskStatus;
+            try {
+                taskStatus = report == null ? getJobStatus(jobIdentifier) : convertToTaskStatus(report);
+            } catch (Exception e) {
+                LOG.error("jobId:{} convert status error", jobIdentifier.getJobId(), e);
+                taskStatus = TaskStatus.NOTFOUND;
+            }
+            statusMap.put(jobIdentifier.getJobId(), taskStatus);
+        }
+        return statusMap;
+    }
+
+    private synchronized Map<String, ApplicationReport> getActiveReports() {
+        if (System.currentTimeMillis() - activeReportsTime < ACTIVE_REPORTS_CACHE_TIME) {
+            return activeReports;
+        }
+        Map<String, ApplicationReport> reportMap = new HashMap<>();
+        try {
+            KerberosUtils.login(config, () -> {
+                try {
+                    for (ApplicationReport report : getYarnClient().getApplications(Collections.singleton(MAPREDUCE_APPLICATION_TYPE), ACTIVE_APPLICATION_STATES)) {
+                        reportMap.put(report.getApplicationId().toString(), report);
+                    }
+                } catch (Exception e) {
+                    throw new PluginDefineException(e);
+                }
+                return null;
+            }, conf);
+        } catch (Exception e) {
+            LOG.error("getApplications error, fallback to getApplicationReport", e);
+            return Collections.emptyMap();
+        }
+        activeReports = reportMap;
+        activeReportsTime = System.currentTimeMillis();
+        return reportMap;
+    }
+
+    private TaskStatus convertToTaskStatus(ApplicationReport report) {
+        YarnApplicationState applicationState = report.getYarnApplicationState();
+        switch(applicationState) {
+            case KILLED:
+                return TaskStatus.KILLED;
+            case NEW:
+            case NEW_SAVING:
+                return TaskStatus.CREATED;
+            case SUBMITTED:
+                //FIXME 特殊逻辑,认为已提交到计算引擎的状态为等待资源状态
+                return TaskStatus.WAITCOMPUTE;
+            case ACCEPTED:
+                return TaskStatus.SCHEDULED;
+            case RUNNING:
+                return TaskStatus.RUNNING;
+            case FINISHED:
+                //state 为finished状态下需要兼顾判断finalStatus.
+                FinalApplicationStatus finalApplicationStatus = report.getFinalApplicationStatus();
+                if(finalApplicationStatus == FinalApplicationStatus.FAILED){
+                    return TaskStatus.FAILED;
+                }else if(finalApplicationStatus == FinalApplicationStatus.SUCCEEDED){
+                    return TaskStatus.FINISHED;
+                }else if(finalApplicationStatus == FinalApplicationStatus.KILLED){
+                    return TaskStatus.KILLED;
+                }else{
+                    return TaskStatus.RUNNING;
+                }
+
+            case FAILED:
+                return TaskStatus.FAILED;
+            default:
+                throw new PluginDefineException("Unsupported application state");
+        }
+    }
+
     @Override
     public String getJobMaster(JobIdentifier jobIdentifier) {
         throw new PluginDefineException("hadoop client not support method 'getJobMaster'");
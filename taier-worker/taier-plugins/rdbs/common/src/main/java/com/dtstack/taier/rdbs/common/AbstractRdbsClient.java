@@ -23,6 +23,8 @@ import com.dtstack.taier.base.resource.EngineResourceInfo;
 import com.dtstack.taier.pluginapi.JobClient;
 import com.dtstack.taier.pluginapi.JobIdentifier;
 import com.dtstack.taier.pluginapi.client.AbstractClient;
+import com.dtstack.taier.pluginapi.client.ListQueryCursor;
+import com.dtstack.taier.pluginapi.client.QueryCursor;
 import com.dtstack.taier.pluginapi.enums.EJobType;
 import com.dtstack.taier.pluginapi.enums.TaskStatus;
 import com.dtstack.taier.pluginapi.exception.ExceptionUtil;
@@ -40,10 +42,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.Statement;
-import java.text.SimpleDateFormat;
 import java.util.List;
 import java.util.Properties;
 
@@ -168,71 +166,31 @@ public abstract class AbstractRdbsClient extends AbstractClient {
 
     @Override
     public List<List<Object>> executeQuery(String sql, String database) {
-        Statement statement = null;
-        ResultSet res = null;
-        Connection conn = null;
+        if (StringUtils.isBlank(sql)) {
+            return null;
+        }
         List<List<Object>> result = Lists.newArrayList();
-        try {
-            if (StringUtils.isBlank(sql)) {
-                return null;
+        try (QueryCursor cursor = executeQueryCursor(sql, database, 0, 0)) {
+            if (cursor.getColumnNames() != null) {
+                result.add(Lists.newArrayList(cursor.getColumnNames()));
             }
-            conn = connFactory.getConn();
-            statement = conn.createStatement();
-            if (StringUtils.isNotBlank(database)) {
-                statement.execute("use " + database);
+            while (cursor.hasNext()) {
+                result.add(cursor.next());
             }
+        }
+        return result;
+    }
 
-            if (statement.execute(sql)) {
-                res = statement.getResultSet();
-                int columns = res.getMetaData().getColumnCount();
-                List<Object> cloumnName = Lists.newArrayList();
-                int timeStamp = 0;
-                SimpleDateFormat dateFormat = null;
-
-                for (int i = 1; i <= columns; ++i) {
-                    String name = res.getMetaData().getColumnName(i);
-                    if (name.contains(".")) {
-                        name = name.split("\\.")[1];
-                    }
-                    cloumnName.add(name);
-                }
-
-                result.add(cloumnName);
-
-                while (res.next()) {
-                    List<Object> objects = Lists.newArrayList();
-
-                    for (int i = 1; i <= columns; ++i) {
-                        if (i == timeStamp && null != dateFormat) {
-                            objects.add(dateFormat.format(res.getObject(i)));
-                        } else {
-                            objects.add(res.getObject(i));
-                        }
-                    }
-
-                    result.add(objects);
-                }
-            }
+    @Override
+    public QueryCursor executeQueryCursor(String sql, String database, int fetchSize, int maxRows) {
+        if (StringUtils.isBlank(sql)) {
+            return new ListQueryCursor(null, maxRows);
+        }
+        try {
+            return new RdbsQueryCursor(connFactory.getConn(database), sql, fetchSize, maxRows);
         } catch (Exception e) {
-            LOG.error("execue sql {} error",sql,e);
+            LOG.error("execue sql {} error", sql, e);
             throw new PluginDefineException(e);
-        } finally {
-            try {
-                if (res != null) {
-                    res.close();
-                }
-
-                if (statement != null) {
-                    statement.close();
-                }
-
-                if (null != conn){
-                    conn.close();;
-                }
-            } catch (Throwable var18) {
-                LOG.error("", var18);
-            }
         }
-        return result;
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.rdbs.common;
+
+import com.dtstack.taier.pluginapi.client.QueryCursor;
+import com.dtstack.taier.pluginapi.exception.PluginDefineException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于 jdbc ResultSet 的查询游标
+ * 1. 按 fetchSize 从服务端分批拉取，maxRows 同时设置到 statement 并在客户端限制
+ * 2. 读取结束、出错或关闭时依次关闭 ResultSet、Statement 并归还连接
+ */
+public class RdbsQueryCursor implements QueryCursor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RdbsQueryCursor.class);
+
+    private final Connection conn;
+
+    private final Statement statement;
+
+    private final int maxRows;
+
+    private ResultSet res;
+
+    private int columns;
+
+    private List<String> columnNames;
+
+    private List<Object> nextRow;
+
+    private int readRows = 0;
+
+    private volatile boolean closed = false;
+
+    private boolean released = false;
+
+    public RdbsQueryCursor(Connection conn, String sql, int fetchSize, int maxRows) throws SQLException {
+        this.conn = conn;
+        this.maxRows = maxRows;
+        try {
+            this.statement = conn.createStatement();
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw e;
+        }
+        try {
+            if (fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (maxRows > 0) {
+                try {
+                    statement.setMaxRows(maxRows);
+                } catch (SQLException e) {
+                    // 部分驱动不支持 setMaxRows，由游标自身限制读取行数
+                    LOG.debug("statement not support setMaxRows", e);
+                }
+            }
+            if (statement.execute(sql)) {
+                res = statement.getResultSet();
+                ResultSetMetaData metaData = res.getMetaData();
+                columns = metaData.getColumnCount();
+                columnNames = new ArrayList<>(columns);
+                for (int i = 1; i <= columns; ++i) {
+                    String name = metaData.getColumnName(i);
+                    if (name.contains(".")) {
+                        name = name.split("\\.")[1];
+                    }
+                    columnNames.add(name);
+                }
+            } else {
+                close();
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        if (nextRow != null) {
+            return true;
+        }
+        if (closed) {
+            close();
+            return false;
+        }
+        if (maxRows > 0 && readRows >= maxRows) {
+            close();
+            return false;
+        }
+        try {
+            if (!res.next()) {
+                close();
+                return false;
+            }
+            List<Object> row = new ArrayList<>(columns);
+            for (int i = 1; i <= columns; ++i) {
+                row.add(res.getObject(i));
+            }
+            nextRow = row;
+            return true;
+        } catch (SQLException e) {
+            boolean cancelled = closed;
+            close();
+            if (cancelled) {
+                return false;
+            }
+            throw new PluginDefineException(e);
+        }
+    }
+
+    @Override
+    public synchronized List<Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<Object> row = nextRow;
+        nextRow = null;
+        readRows++;
+        return row;
+    }
+
+    @Override
+    public void cancel() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            statement.cancel();
+        } catch (Throwable e) {
+            LOG.warn("cancel statement error", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (released) {
+            return;
+        }
+        released = true;
+        if (res != null) {
+            closeQuietly(res);
+        }
+        closeQuietly(statement);
+        closeQuietly(conn);
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Throwable e) {
+            LOG.error("", e);
+        }
+    }
+}
@@ -36,4 +36,6 @@ public class ConfigConstant {
     public static final String MAX_JOB_POOL_KEY = "maxJobPoolSize";
     public static final String MIN_JOB_POOL_KEY = "minJobPoolSize";
 
+    public static final String MAX_CONN_POOL_KEY = "maxConnPoolSize";
+
 }
@@ -35,6 +35,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -48,6 +49,13 @@ public abstract class AbstractConnFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(AbstractConnFactory.class);
 
+    /**
+     * 任务连接池在最大同时执行任务数之外预留的连接数(连通性测试等)，也是每个数据库查询连接池的最大连接数
+     */
+    private static final int RESERVED_CONN_POOL_SIZE = 5;
+
+    private static final String POOL_KEY_SPLIT = "|";
+
     private AtomicBoolean isFirstLoaded = new AtomicBoolean(true);
 
     protected String jdbcUrl;
@@ -64,6 +72,8 @@ public abstract class AbstractConnFactory {
 
     protected BaseConfig baseConfig = new BaseConfig();
 
+    private int maxConnPoolSize = RdbsExeQueue.DEFAULT_MAX_SIZE + RESERVED_CONN_POOL_SIZE;
+
     public void init(Properties properties) throws ClassNotFoundException {
         synchronized (AbstractConnFactory.class) {
             if (isFirstLoaded.get()) {
@@ -75,6 +85,14 @@ public abstract class AbstractConnFactory {
         jdbcUrl = MathUtil.getString(properties.get(ConfigConstant.JDBCURL));
         username = MathUtil.getString(properties.get(ConfigConstant.USERNAME));
         password = MathUtil.getString(properties.get(ConfigConstant.PASSWORD));
+        // 未配置连接数时按最大同时执行任务数计算，任务不会因等待连接而阻塞
+        Integer maxConnPool = MathUtil.getIntegerVal(properties.get(ConfigConstant.MAX_CONN_POOL_KEY));
+        Integer maxJobPool = MathUtil.getIntegerVal(properties.get(ConfigConstant.MAX_JOB_POOL_KEY));
+        if (maxConnPool != null && maxConnPool > 0) {
+            maxConnPoolSize = maxConnPool;
+        } else if (maxJobPool != null && maxJobPool > 0) {
+            maxConnPoolSize = maxJobPool + RESERVED_CONN_POOL_SIZE;
+        }
 
         Preconditions.checkNotNull(jdbcUrl, "db url can't be null");
 
@@ -118,7 +136,53 @@ public abstract class AbstractConnFactory {
 
     }
 
+    /**
+     * 从连接池中获取连接，使用完 close 即归还
+     */
     public Connection getConn() throws Exception {
+        return getPooledConn(null, this::createConn, null, maxConnPoolSize);
+    }
+
+    /**
+     * 获取已切换到指定数据库的连接，不同数据库使用各自的连接池，避免 use 语句污染其他连接
+     */
+    public Connection getConn(String database) throws Exception {
+        if (StringUtils.isBlank(database)) {
+            return getConn();
+        }
+        return getPooledConn("database=" + database, () -> {
+            Connection conn = createConn();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("use " + database);
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+            return conn;
+        }, null, RESERVED_CONN_POOL_SIZE);
+    }
+
+    /**
+     * 按 url、用户、kerberos principal 和会话参数从连接池中获取连接
+     *
+     * @param sessionKey 建立连接时携带的会话参数，参数不同的连接不能复用
+     * @param creator    创建物理连接
+     * @param initSql    每次借出连接时执行的语句，可以为 null
+     */
+    protected Connection getPooledConn(String sessionKey, Callable<Connection> creator, String initSql) throws Exception {
+        return getPooledConn(sessionKey, creator, initSql, maxConnPoolSize);
+    }
+
+    private Connection getPooledConn(String sessionKey, Callable<Connection> creator, String initSql, int maxTotal) throws Exception {
+        String poolKey = StringUtils.join(Arrays.asList(getClass().getName(), jdbcUrl, username, Objects.hashCode(password),
+                baseConfig.isOpenKerberos() ? baseConfig.getPrincipal() : null, sessionKey), POOL_KEY_SPLIT);
+        return RdbsConnPool.getOrCreate(poolKey, creator, maxTotal).getConnection(initSql);
+    }
+
+    /**
+     * 创建新的物理连接
+     */
+    protected Connection createConn() throws Exception {
         return KerberosUtils.login(baseConfig, () -> {
             Connection conn = null;
             try {
@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.rdbs.common.executor;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * 插件内按数据源复用的 jdbc 连接池
+ * 1. 连接池按 url、用户、kerberos principal 及会话参数区分，同一个插件 classloader 内共享
+ * 2. 连接在调用线程中创建，保证 kerberos 认证生效；空闲连接定时校验和回收
+ * 3. 执行过 use/set 等修改会话状态语句的连接关闭时直接销毁，不放回连接池
+ */
+public class RdbsConnPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RdbsConnPool.class);
+
+    private static final Map<String, RdbsConnPool> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * 会修改会话状态的语句，允许前面有注释
+     */
+    private static final Pattern SESSION_SQL = Pattern.compile(
+            "(?is)^(\\s*--[^\\n]*\\n)*\\s*(use|set|reset|add|delete\\s+(jar|file|archive)|(create|drop)\\s+temporary)\\b.*");
+
+    /**
+     * 空闲超过该时间的连接借出时先校验
+     */
+    private static final long VALIDATE_IDLE_TIME = 30 * 1000L;
+
+    private static final int VALIDATE_TIMEOUT_SECONDS = 5;
+
+    private static final String VALIDATION_QUERY = "select 1";
+
+    private static final long MAX_WAIT = 60 * 1000L;
+
+    private static final long TIME_BETWEEN_EVICTION_RUNS = 60 * 1000L;
+
+    private static final long MIN_EVICTABLE_IDLE_TIME = 300 * 1000L;
+
+    private final GenericObjectPool<Connection> pool;
+
+    private RdbsConnPool(Callable<Connection> creator, int maxTotal) {
+        GenericObjectPoolConfig<Connection> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(maxTotal);
+        config.setMaxIdle(maxTotal);
+        config.setMinIdle(0);
+        config.setMaxWaitMillis(MAX_WAIT);
+        config.setTestWhileIdle(true);
+        config.setTimeBetweenEvictionRunsMillis(TIME_BETWEEN_EVICTION_RUNS);
+        config.setMinEvictableIdleTimeMillis(MIN_EVICTABLE_IDLE_TIME);
+        config.setJmxEnabled(false);
+        this.pool = new GenericObjectPool<>(new ConnectionFactory(creator), config);
+    }
+
+    public static RdbsConnPool getOrCreate(String key, Callable<Connection> creator, int maxTotal) {
+        return POOLS.computeIfAbsent(key, k -> new RdbsConnPool(creator, maxTotal));
+    }
+
+    /**
+     * 借出连接，调用 close 时归还
+     */
+    public Connection getConnection() throws Exception {
+        return getConnection(null);
+    }
+
+    /**
+     * 借出连接，第一次创建 statement 前先执行初始化语句(如设置本次任务的任务名)，调用 close 时归还
+     */
+    public Connection getConnection(String initSql) throws Exception {
+        Connection physical = pool.borrowObject();
+        return (Connection) Proxy.newProxyInstance(RdbsConnPool.class.getClassLoader(),
+                new Class[]{Connection.class}, new PooledConnectionHandler(physical, initSql));
+    }
+
+    private static boolean isSessionSql(Object sql) {
+        return sql instanceof String && SESSION_SQL.matcher((String) sql).matches();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class PooledConnectionHandler implements InvocationHandler {
+
+        private final Connection physical;
+
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+        private volatile String initSql;
+
+        private PooledConnectionHandler(Connection physical, String initSql) {
+            this.physical = physical;
+            this.initSql = initSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                release();
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return returned.get() || physical.isClosed();
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if (returned.get()) {
+                throw new SQLException("connection has been closed");
+            }
+            if ("createStatement".equals(name) || "prepareStatement".equals(name) || "prepareCall".equals(name)) {
+                init();
+            }
+            if (("prepareStatement".equals(name) || "prepareCall".equals(name)) && args != null && isSessionSql(args[0])) {
+                dirty.set(true);
+            }
+            Object result = RdbsConnPool.invoke(physical, method, args);
+            if (result instanceof Statement) {
+                Class<?> statementInterface = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(RdbsConnPool.class.getClassLoader(), new Class[]{statementInterface},
+                        (statementProxy, statementMethod, statementArgs) -> {
+                            if ("getConnection".equals(statementMethod.getName())) {
+                                return proxy;
+                            }
+                            String statementMethodName = statementMethod.getName();
+                            if ((statementMethodName.startsWith("execute") || "addBatch".equals(statementMethodName))
+                                    && statementArgs != null && isSessionSql(statementArgs[0])) {
+                                dirty.set(true);
+                            }
+                            return RdbsConnPool.invoke(result, statementMethod, statementArgs);
+                        });
+            }
+            return result;
+        }
+
+        private synchronized void init() throws SQLException {
+            if (initSql == null) {
+                return;
+            }
+            try (Statement statement = physical.createStatement()) {
+                statement.execute(initSql);
+            } catch (SQLException e) {
+                dirty.set(true);
+                throw e;
+            }
+            initSql = null;
+        }
+
+        private void release() {
+            if (!returned.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (dirty.get() || physical.isClosed()) {
+                    pool.invalidateObject(physical);
+                } else {
+                    pool.returnObject(physical);
+                }
+            } catch (Exception e) {
+                LOG.error("release connection error", e);
+            }
+        }
+    }
+
+    private static class ConnectionFactory extends BasePooledObjectFactory<Connection> {
+
+        private final Callable<Connection> creator;
+
+        private ConnectionFactory(Callable<Connection> creator) {
+            this.creator = creator;
+        }
+
+        @Override
+        public Connection create() throws Exception {
+            return creator.call();
+        }
+
+        @Override
+        public PooledObject<Connection> wrap(Connection connection) {
+            return new DefaultPooledObject<>(connection);
+        }
+
+        @Override
+        public void activateObject(PooledObject<Connection> p) throws Exception {
+            if (System.currentTimeMillis() - p.getLastReturnTime() > VALIDATE_IDLE_TIME && !validateObject(p)) {
+                throw new SQLException("pooled connection is invalid");
+            }
+        }
+
+        @Override
+        public void passivateObject(PooledObject<Connection> p) throws Exception {
+            Connection connection = p.getObject();
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<Connection> p) {
+            Connection connection = p.getObject();
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                return connection.isValid(VALIDATE_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                // 部分驱动(如 hive 1.x)不支持 isValid，使用校验语句
+                return validateByQuery(connection);
+            } catch (Throwable e) {
+                LOG.warn("validate connection error", e);
+                return false;
+            }
+        }
+
+        private boolean validateByQuery(Connection connection) {
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(VALIDATE_TIMEOUT_SECONDS);
+                statement.execute(VALIDATION_QUERY);
+                return true;
+            } catch (Throwable e) {
+                LOG.warn("validate connection error", e);
+                return false;
+            }
+        }
+
+        @Override
+        public void destroyObject(PooledObject<Connection> p) {
+            try {
+                p.getObject().close();
+            } catch (Throwable e) {
+                LOG.error("close connection error", e);
+            }
+        }
+    }
+}
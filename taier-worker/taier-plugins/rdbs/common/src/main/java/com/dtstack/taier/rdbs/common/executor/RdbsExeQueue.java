@@ -63,10 +63,15 @@ public class RdbsExeQueue {
 
     private int minSize = 20;
 
+    /**
+     * 默认最大允许同时执行的sql任务长度
+     */
+    public static final int DEFAULT_MAX_SIZE = 20;
+
     /**
      * 最大允许同时执行的sql任务长度
      */
-    private int maxSize = 20;
+    private int maxSize = DEFAULT_MAX_SIZE;
 
     private BlockingQueue<Runnable> queue;
 
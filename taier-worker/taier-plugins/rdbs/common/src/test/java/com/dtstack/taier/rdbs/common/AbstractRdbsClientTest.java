@@ -192,7 +192,7 @@ public class AbstractRdbsClientTest {
         when(stmt.getResultSet()).thenReturn(res);
 
         when(connection.createStatement()).thenReturn(stmt);
-        when(connFactory.getConn()).thenReturn(connection);
+        when(connFactory.getConn(any(String.class))).thenReturn(connection);
         MemberModifier.field(TestRdbsClient.class, "connFactory").set(testRdbsClient, connFactory);
 
         String sql = "select * from tables";
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.rdbs.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+public class RdbsQueryCursorTest {
+
+    @Test
+    public void testMaxRows() throws Exception {
+        Connection conn = PowerMockito.mock(Connection.class);
+        Statement stmt = PowerMockito.mock(Statement.class);
+        ResultSet res = PowerMockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = PowerMockito.mock(ResultSetMetaData.class);
+        when(conn.createStatement()).thenReturn(stmt);
+        when(stmt.execute(any(String.class))).thenReturn(true);
+        when(stmt.getResultSet()).thenReturn(res);
+        when(res.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(metaData.getColumnName(1)).thenReturn("t.id");
+        when(res.next()).thenReturn(true);
+        when(res.getObject(anyInt())).thenReturn(1);
+
+        RdbsQueryCursor cursor = new RdbsQueryCursor(conn, "select id from t", 100, 2);
+        Assert.assertEquals(Arrays.asList("id"), cursor.getColumnNames());
+        int rows = 0;
+        while (cursor.hasNext()) {
+            cursor.next();
+            rows++;
+        }
+        Assert.assertEquals(2, rows);
+        Mockito.verify(stmt).setFetchSize(100);
+        Mockito.verify(conn).close();
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        Connection conn = PowerMockito.mock(Connection.class);
+        Statement stmt = PowerMockito.mock(Statement.class);
+        when(conn.createStatement()).thenReturn(stmt);
+        when(stmt.execute(any(String.class))).thenReturn(true);
+        ResultSet res = PowerMockito.mock(ResultSet.class);
+        ResultSetMetaData metaData = PowerMockito.mock(ResultSetMetaData.class);
+        when(stmt.getResultSet()).thenReturn(res);
+        when(res.getMetaData()).thenReturn(metaData);
+        when(res.next()).thenReturn(true);
+
+        RdbsQueryCursor cursor = new RdbsQueryCursor(conn, "select 1", 0, 0);
+        cursor.cancel();
+        Assert.assertFalse(cursor.hasNext());
+        Mockito.verify(stmt).cancel();
+        Mockito.verify(conn).close();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.rdbs.common.executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.mockito.PowerMockito;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+public class RdbsConnPoolTest {
+
+    private Connection mockConnection() throws Exception {
+        Connection conn = PowerMockito.mock(Connection.class);
+        Statement stmt = PowerMockito.mock(Statement.class);
+        when(stmt.execute(any(String.class))).thenReturn(true);
+        when(conn.createStatement()).thenReturn(stmt);
+        when(conn.getAutoCommit()).thenReturn(true);
+        return conn;
+    }
+
+    @Test
+    public void testReuseConnection() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        RdbsConnPool pool = RdbsConnPool.getOrCreate("testReuseConnection", () -> {
+            created.incrementAndGet();
+            return mockConnection();
+        }, 2);
+
+        Connection conn = pool.getConnection();
+        conn.createStatement().execute("select 1");
+        conn.close();
+        Assert.assertTrue(conn.isClosed());
+
+        pool.getConnection().close();
+        Assert.assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testSessionSqlNotReused() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        RdbsConnPool pool = RdbsConnPool.getOrCreate("testSessionSqlNotReused", () -> {
+            created.incrementAndGet();
+            return mockConnection();
+        }, 2);
+
+        Connection conn = pool.getConnection();
+        conn.createStatement().execute("-- comment\nuse test_db");
+        conn.close();
+
+        pool.getConnection().close();
+        Assert.assertEquals(2, created.get());
+    }
+}
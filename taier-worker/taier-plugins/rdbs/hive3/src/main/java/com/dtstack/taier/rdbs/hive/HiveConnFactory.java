@@ -32,7 +32,9 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 
 /** @author dtstack tiezhu 2021/4/20 星期二 */
 public class HiveConnFactory extends AbstractConnFactory {
@@ -46,6 +48,7 @@ public class HiveConnFactory extends AbstractConnFactory {
 
     private static final String HIVE_CONF_PREFIX = "hiveconf:";
     private static final String HIVE_JOBNAME_PROPERTY = "hiveconf:mapreduce.job.name";
+    private static final String SET_JOBNAME_SQL = "set mapreduce.job.name=%s";
 
     private static final String MAPREDUCE_JOB_QUEUENAME = "mapreduce.job.queuename=";
 
@@ -76,11 +79,8 @@ public class HiveConnFactory extends AbstractConnFactory {
     @Override
     public Connection getConnByTaskParams(String taskParams, String jobName)
             throws ClassNotFoundException, SQLException, IOException {
-        Properties properties = new Properties();
-        Connection conn;
-
-        properties.setProperty(HIVE_JOBNAME_PROPERTY, jobName);
-
+        // 没有任务参数的连接从连接池借出，每次借出时重设任务名；带任务参数的连接不复用，参数在建立连接时生效
+        Map<String, String> sessionConf = new TreeMap<>();
         if (StringUtils.isNotEmpty(taskParams)) {
             for (String line : taskParams.split("\n")) {
                 line = StringUtils.trim(line);
@@ -95,33 +95,41 @@ public class HiveConnFactory extends AbstractConnFactory {
                                     ? keyAndVal[0]
                                     : HIVE_CONF_PREFIX + keyAndVal[0];
                     String newValue = keyAndVal[1];
-                    properties.setProperty(newKey, newValue);
+                    sessionConf.put(newKey, newValue);
                 }
             }
         }
+        String jobNameConf = sessionConf.remove(HIVE_JOBNAME_PROPERTY);
+        if (jobNameConf != null) {
+            jobName = jobNameConf;
+        }
+        jobName = StringUtils.isBlank(jobName) ? "" : jobName.replaceAll("[\r\n]", " ");
 
         try {
-            conn =
-                    KerberosUtils.login(
-                            baseConfig,
-                            () -> {
-                                Connection connection;
-                                try {
-                                    if (getUsername() != null) {
-                                        properties.setProperty(HIVE_USER, getUsername());
-                                        properties.setProperty(HIVE_PASSWORD, getPassword());
-                                    }
-                                    connection = DriverManager.getConnection(jdbcUrl, properties);
-                                } catch (Exception e) {
-                                    throw new PluginDefineException(e);
-                                }
-                                return connection;
-                            },
-                            yarnConf);
+            if (!sessionConf.isEmpty()) {
+                sessionConf.put(HIVE_JOBNAME_PROPERTY, jobName);
+                return createConn(sessionConf);
+            }
+            return getPooledConn(null, () -> createConn(sessionConf), String.format(SET_JOBNAME_SQL, jobName));
         } catch (Exception e) {
             throw new PluginDefineException("get connection by taskParams error", e);
         }
-        return conn;
+    }
+
+    private Connection createConn(Map<String, String> sessionConf) throws Exception {
+        return KerberosUtils.login(baseConfig, () -> {
+            Properties properties = new Properties();
+            properties.putAll(sessionConf);
+            try {
+                if (getUsername() != null) {
+                    properties.setProperty(HIVE_USER, getUsername());
+                    properties.setProperty(HIVE_PASSWORD, getPassword());
+                }
+                return DriverManager.getConnection(jdbcUrl, properties);
+            } catch (Exception e) {
+                throw new PluginDefineException(e);
+            }
+        }, yarnConf);
     }
 
     @Override
@@ -21,6 +21,7 @@ package com.dtstack.taier.sparkyarn.sparkyarn;
 import com.alibaba.fastjson.JSON;
 import com.dtstack.taier.base.filesystem.FilesystemManager;
 import com.dtstack.taier.base.monitor.AcceptedApplicationMonitor;
+import com.dtstack.taier.base.resource.YarnResourceSnapshotManager;
 import com.dtstack.taier.base.util.HadoopConfTool;
 import com.dtstack.taier.base.util.KerberosUtils;
 import com.dtstack.taier.base.util.Splitter;
@@ -112,6 +113,28 @@ public class SparkYarnClient extends AbstractClient {
     /**如果请求 CLUSTER_INFO_WS_FORMAT 返回信息包含该特征则表示是alive*/
     private static final String ALIVE_WEB_FLAG = "clusterInfo";
 
+    private static final String SPARK_APPLICATION_TYPE = "SPARK";
+
+    /**
+     * 批量查询状态时只拉取未结束的任务，已结束的任务逐个查询
+     */
+    private static final EnumSet<YarnApplicationState> ACTIVE_APPLICATION_STATES = EnumSet.of(YarnApplicationState.NEW,
+            YarnApplicationState.NEW_SAVING, YarnApplicationState.SUBMITTED, YarnApplicationState.ACCEPTED, YarnApplicationState.RUNNING);
+
+    /**
+     * 批量查询的任务数小于该值时直接逐个查询
+     */
+    private static final int BATCH_STATUS_MIN_SIZE = 10;
+
+    /**
+     * 未结束任务列表的缓存时间，小于状态轮询间隔，同一轮轮询的多个批次共用一次 getApplications 请求
+     */
+    private static final long ACTIVE_REPORTS_CACHE_TIME = 2000L;
+
+    private volatile long activeReportsTime = 0L;
+
+    private volatile Map<String, ApplicationReport> activeReports = Collections.emptyMap();
+
     private List<String> webAppAddrList = Lists.newArrayList();
 
     private SparkYarnConfig sparkYarnConfig;
@@ -126,6 +149,9 @@ public class SparkYarnClient extends AbstractClient {
 
     private ThreadPoolExecutor threadPoolExecutor;
 
+    private final YarnResourceSnapshotManager resourceSnapshotManager =
+            new YarnResourceSnapshotManager(this::getYarnClient, YarnResourceSnapshotManager.DEFAULT_REFRESH_INTERVAL);
+
     private static String userDir = System.getProperty("user.dir");
 
     private static final String SPARK_CONF_DIR = "sparkconf";
@@ -620,38 +646,7 @@ public class SparkYarnClient extends AbstractClient {
                 ApplicationId appId = ConverterUtils.toApplicationId(jobId);
                 try {
                     ApplicationReport report = getYarnClient().getApplicationReport(appId);
-                    YarnApplicationState applicationState = report.getYarnApplicationState();
-                    switch(applicationState) {
-                        case KILLED:
-                            return TaskStatus.KILLED;
-                        case NEW:
-                        case NEW_SAVING:
-                            return TaskStatus.CREATED;
-                        case SUBMITTED:
-                            //FIXME 特殊逻辑,认为已提交到计算引擎的状态为等待资源状态
-                            return TaskStatus.WAITCOMPUTE;
-                        case ACCEPTED:
-                            return TaskStatus.SCHEDULED;
-                        case RUNNING:
-                            return TaskStatus.RUNNING;
-                        case FINISHED:
-                            //state 为finished状态下需要兼顾判断finalStatus.
-                            FinalApplicationStatus finalApplicationStatus = report.getFinalApplicationStatus();
-                            if(finalApplicationStatus == FinalApplicationStatus.FAILED){
-                                return TaskStatus.FAILED;
-                            }else if(finalApplicationStatus == FinalApplicationStatus.SUCCEEDED){
-                                return TaskStatus.FINISHED;
-                            }else if(finalApplicationStatus == FinalApplicationStatus.KILLED){
-                                return TaskStatus.KILLED;
-                            }else{
-                                return TaskStatus.RUNNING;
-                            }
-
-                        case FAILED:
-                            return TaskStatus.FAILED;
-                        default:
-                            throw new PluginDefineException("Unsupported application state");
-                    }
+                    return convertToTaskStatus(report);
                 } catch (Exception e) {
                     logger.error("", e);
                     return TaskStatus.NOTFOUND;
@@ -663,6 +658,96 @@ public class SparkYarnClient extends AbstractClient {
         }
     }
 
+    /**
+     * 通过 getApplications 请求获取未结束的 spark 任务状态，结果短时间缓存供同一轮轮询的其他批次使用，
+     * 已结束或 RM 已经淘汰的任务再逐个查询
+     */
+    @Override
+    public Map<String, TaskStatus> getJobStatus(List<JobIdentifier> jobIdentifiers) throws IOException {
+        Map<String, TaskStatus> statusMap = new HashMap<>(jobIdentifiers.size());
+        Map<String, ApplicationReport> reportMap = jobIdentifiers.size() < BATCH_STATUS_MIN_SIZE
+                ? Collections.emptyMap() : getActiveReports();
+
+        for (JobIdentifier jobIdentifier : jobIdentifiers) {
+            String applicationId = jobIdentifier.getApplicationId();
+            if (StringUtils.isEmpty(applicationId)) {
+                continue;
+            }
+            ApplicationReport report = reportMap.get(applicationId);
+            TaskStatus taskStatus;
+            try {
+                taskStatus = report == null ? getJobStatus(jobIdentifier) : convertToTaskStatus(report);
+            } catch (Exception e) {
+                logger.error("jobId:{} convert status error", jobIdentifier.getJobId(), e);
+                taskStatus = TaskStatus.NOTFOUND;
+            }
+            if (taskStatus != null) {
+                statusMap.put(jobIdentifier.getJobId(), taskStatus);
+            }
+        }
+        return statusMap;
+    }
+
+    private synchronized Map<String, ApplicationReport> getActiveReports() {
+        if (System.currentTimeMillis() - activeReportsTime < ACTIVE_REPORTS_CACHE_TIME) {
+            return activeReports;
+        }
+        Map<String, ApplicationReport> reportMap = new HashMap<>();
+        try {
+            KerberosUtils.login(sparkYarnConfig, () -> {
+                try {
+                    for (ApplicationReport report : getYarnClient().getApplications(Collections.singleton(SPARK_APPLICATION_TYPE), ACTIVE_APPLICATION_STATES)) {
+                        reportMap.put(report.getApplicationId().toString(), report);
+                    }
+                } catch (Exception e) {
+                    throw new PluginDefineException(e);
+                }
+                return null;
+            }, yarnConf, false);
+        } catch (Exception e) {
+            logger.error("getApplications error, fallback to getApplicationReport", e);
+            return Collections.emptyMap();
+        }
+        activeReports = reportMap;
+        activeReportsTime = System.currentTimeMillis();
+        return reportMap;
+    }
+
+    private TaskStatus convertToTaskStatus(ApplicationReport report) {
+        YarnApplicationState applicationState = report.getYarnApplicationState();
+        switch(applicationState) {
+            case KILLED:
+                return TaskStatus.KILLED;
+            case NEW:
+            case NEW_SAVING:
+                return TaskStatus.CREATED;
+            case SUBMITTED:
+                //FIXME 特殊逻辑,认为已提交到计算引擎的状态为等待资源状态
+                return TaskStatus.WAITCOMPUTE;
+            case ACCEPTED:
+                return TaskStatus.SCHEDULED;
+            case RUNNING:
+                return TaskStatus.RUNNING;
+            case FINISHED:
+                //state 为finished状态下需要兼顾判断finalStatus.
+                FinalApplicationStatus finalApplicationStatus = report.getFinalApplicationStatus();
+                if(finalApplicationStatus == FinalApplicationStatus.FAILED){
+                    return TaskStatus.FAILED;
+                }else if(finalApplicationStatus == FinalApplicationStatus.SUCCEEDED){
+                    return TaskStatus.FINISHED;
+                }else if(finalApplicationStatus == FinalApplicationStatus.KILLED){
+                    return TaskStatus.KILLED;
+                }else{
+                    return TaskStatus.RUNNING;
+                }
+
+            case FAILED:
+                return TaskStatus.FAILED;
+            default:
+                throw new PluginDefineException("Unsupported application state");
+        }
+    }
+
     @Override
     public String getJobMaster(JobIdentifier jobIdentifier) {
         //解析config,获取web-address
@@ -769,6 +854,7 @@ public class SparkYarnClient extends AbstractClient {
                             .withYarnClient(getYarnClient())
                             .withQueueName(sparkYarnConfig.getQueue())
                             .withYarnAccepterTaskNumber(sparkYarnConfig.getYarnAccepterTaskNumber())
+                            .withSnapshotManager(resourceSnapshotManager)
                             .build();
                     return resourceInfo.judgeSlots(jobClient);
             }, yarnConf, false);
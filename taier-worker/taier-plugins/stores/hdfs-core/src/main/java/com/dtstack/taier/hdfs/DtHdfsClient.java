@@ -23,6 +23,7 @@ import com.dtstack.taier.pluginapi.pojo.ClusterResource;
 import com.dtstack.taier.pluginapi.pojo.ComponentTestResult;
 import com.dtstack.taier.base.util.HadoopConfTool;
 import com.dtstack.taier.base.util.KerberosUtils;
+import com.dtstack.taier.pluginapi.CustomThreadFactory;
 import com.dtstack.taier.pluginapi.JobClient;
 import com.dtstack.taier.pluginapi.JobIdentifier;
 import com.dtstack.taier.pluginapi.client.AbstractClient;
@@ -30,27 +31,44 @@ import com.dtstack.taier.pluginapi.enums.TaskStatus;
 import com.dtstack.taier.pluginapi.exception.ExceptionUtil;
 import com.dtstack.taier.pluginapi.exception.PluginDefineException;
 import com.dtstack.taier.pluginapi.pojo.JobResult;
+import com.dtstack.taier.pluginapi.util.ContentAddressUtil;
 import com.dtstack.taier.pluginapi.util.PublicUtil;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 public class DtHdfsClient extends AbstractClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(DtHdfsClient.class);
+
+    /**
+     * 清理按内容寻址上传的文件的间隔
+     */
+    private static final long CLEANUP_INTERVAL_MINUTES = 60L;
+
     private Config config;
     private Configuration configuration;
 
+    /**
+     * 上传过按内容寻址文件的目录，由后台线程定期清理
+     */
+    private final Set<String> artifactDirs = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService cleanupScheduler;
+
     @Override
     public void init(Properties prop) throws Exception {
         LOG.info("hadoop client init...");
@@ -58,6 +76,14 @@ public class DtHdfsClient extends AbstractClient {
         String configStr = PublicUtil.objToString(prop);
         config = PublicUtil.jsonStrToObject(configStr, Config.class);
         configuration =  this.initYarnConf(config.getYarnConf());
+
+        ThreadFactory threadFactory = new CustomThreadFactory(this.getClass().getSimpleName());
+        cleanupScheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = threadFactory.newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleanupScheduler.scheduleWithFixedDelay(this::cleanupArtifacts, CLEANUP_INTERVAL_MINUTES, CLEANUP_INTERVAL_MINUTES, TimeUnit.MINUTES);
     }
 
     private Configuration initYarnConf(Map<String, Object> conf){
@@ -133,11 +159,15 @@ public class DtHdfsClient extends AbstractClient {
             return KerberosUtils.login(config, () -> {
                 FileSystem fs = null;
                 try {
-                    ByteArrayInputStream is = new ByteArrayInputStream(bytes.getBytes());
                     fs = FileSystem.get(configuration);
-                    Path destP = new Path(hdfsPath);
-                    FSDataOutputStream os = fs.create(destP);
-                    IOUtils.copyBytes(is, os, 4096, true);
+                    Path path = new Path(hdfsPath);
+                    boolean reused = HdfsArtifactStore.upload(fs, path, bytes.getBytes());
+                    if (ContentAddressUtil.isContentAddressed(path.getName()) && path.getParent() != null) {
+                        artifactDirs.add(path.getParent().toUri().getPath());
+                    }
+                    if (reused && LOG.isDebugEnabled()) {
+                        LOG.debug("file {} already exists in hdfs, reuse it.", hdfsPath);
+                    }
                 } catch (IOException e) {
                     LOG.error("submit file {} to hdfs error", hdfsPath,e);
                     throw new PluginDefineException("上传文件失败", e);
@@ -159,6 +189,44 @@ public class DtHdfsClient extends AbstractClient {
         }
     }
 
+    /**
+     * 删除上传目录下长时间未被引用的文件，在后台线程执行，不影响上传
+     */
+    private void cleanupArtifacts() {
+        if (artifactDirs.isEmpty()) {
+            return;
+        }
+        try {
+            Configuration cleanupConf = this.initYarnConf(config.getYarnConf());
+            KerberosUtils.login(config, () -> {
+                FileSystem fs = null;
+                try {
+                    // 使用独立的实例，关闭时不影响上传共用的缓存实例
+                    fs = FileSystem.newInstance(cleanupConf);
+                    long now = System.currentTimeMillis();
+                    for (String dir : artifactDirs) {
+                        int deleted = HdfsArtifactStore.cleanup(fs, new Path(dir), now);
+                        if (deleted > 0) {
+                            LOG.info("delete {} stale files under {}", deleted, dir);
+                        }
+                    }
+                } catch (IOException e) {
+                    LOG.warn("cleanup stale files under {} error", artifactDirs, e);
+                } finally {
+                    if (Objects.nonNull(fs)) {
+                        try {
+                            fs.close();
+                        } catch (IOException e) {
+                        }
+                    }
+                }
+                return null;
+            }, cleanupConf);
+        } catch (Throwable e) {
+            LOG.error("cleanup stale files error", e);
+        }
+    }
+
     @Override
     public ClusterResource getClusterResource() {
         return null;
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.hdfs;
+
+import com.dtstack.taier.pluginapi.util.ContentAddressUtil;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 文件上传，按内容寻址的文件(见 {@link ContentAddressUtil})只保留一份
+ * 1. 文件已存在且长度一致时不再写入，只刷新修改时间，修改时间即最后一次被引用的时间
+ * 2. 写入时先写临时文件再 rename，同一内容并发上传不会互相覆盖正在写的文件
+ * 3. 上传时不做清理，由调用方在后台定期调用 {@link #cleanup} 删除超过保留时间未被引用的文件和残留的临时文件
+ * 只依赖 FileSystem 接口，可以使用 file:// 本地文件系统验证
+ */
+public class HdfsArtifactStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HdfsArtifactStore.class);
+
+    /**
+     * 未被引用的文件保留时间，需要远大于任务的运行时间，运行中任务引用的文件不会被删除
+     */
+    private static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    private static final Pattern TMP_NAME = Pattern.compile("\\..*_[0-9a-f]{64}\\.[0-9a-zA-Z]+\\.[0-9a-f]{32}\\.tmp");
+
+    /**
+     * 上传文件
+     *
+     * @return 是否复用了已存在的文件
+     */
+    public static boolean upload(FileSystem fs, Path path, byte[] content) throws IOException {
+        if (!ContentAddressUtil.isContentAddressed(path.getName())) {
+            write(fs, path, content);
+            return false;
+        }
+        if (touchIfExists(fs, path, content.length)) {
+            return true;
+        }
+        return writeByRename(fs, path, content);
+    }
+
+    /**
+     * 删除目录下超过保留时间未被引用的文件
+     *
+     * @return 删除的文件数
+     */
+    public static int cleanup(FileSystem fs, Path dir, long now) throws IOException {
+        FileStatus[] statuses;
+        try {
+            statuses = fs.listStatus(dir);
+        } catch (FileNotFoundException e) {
+            return 0;
+        }
+        int deleted = 0;
+        for (FileStatus status : statuses) {
+            String name = status.getPath().getName();
+            if (!status.isFile() || now - status.getModificationTime() <= RETENTION_MILLIS) {
+                continue;
+            }
+            if (!ContentAddressUtil.isContentAddressed(name) && !TMP_NAME.matcher(name).matches()) {
+                continue;
+            }
+            try {
+                if (fs.delete(status.getPath(), false)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                LOG.warn("delete stale file {} error", status.getPath(), e);
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean touchIfExists(FileSystem fs, Path path, long length) {
+        try {
+            FileStatus status = fs.getFileStatus(path);
+            if (!status.isFile() || status.getLen() != length) {
+                return false;
+            }
+            fs.setTimes(path, System.currentTimeMillis(), -1);
+            return true;
+        } catch (FileNotFoundException e) {
+            return false;
+        } catch (IOException e) {
+            LOG.warn("reuse file {} error, upload again", path, e);
+            return false;
+        }
+    }
+
+    private static boolean writeByRename(FileSystem fs, Path path, byte[] content) throws IOException {
+        Path tmpPath = new Path(path.getParent(), "." + path.getName() + "." + UUID.randomUUID().toString().replace("-", "") + ".tmp");
+        write(fs, tmpPath, content);
+        boolean renamed = false;
+        try {
+            renamed = fs.rename(tmpPath, path);
+        } finally {
+            if (!renamed) {
+                fs.delete(tmpPath, false);
+            }
+        }
+        if (renamed) {
+            return false;
+        }
+        // 目标已被并发上传的相同内容占用
+        if (touchIfExists(fs, path, content.length)) {
+            return true;
+        }
+        throw new IOException("rename " + tmpPath + " to " + path + " failed");
+    }
+
+    private static void write(FileSystem fs, Path path, byte[] content) throws IOException {
+        try (FSDataOutputStream os = fs.create(path, true)) {
+            os.write(content);
+        }
+    }
+}
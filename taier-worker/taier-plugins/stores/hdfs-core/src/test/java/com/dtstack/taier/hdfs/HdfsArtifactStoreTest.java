@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dtstack.taier.hdfs;
+
+import com.dtstack.taier.pluginapi.util.ContentAddressUtil;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+public class HdfsArtifactStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileSystem fs;
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws Exception {
+        fs = FileSystem.getLocal(new Configuration());
+        dir = new Path(folder.getRoot().toURI());
+    }
+
+    @Test
+    public void testUploadReuseSameContent() throws Exception {
+        byte[] content = "echo 1".getBytes(StandardCharsets.UTF_8);
+        Path path = new Path(dir, ContentAddressUtil.buildFileName("shell_1_0_a", content, "sh"));
+
+        Assert.assertFalse(HdfsArtifactStore.upload(fs, path, content));
+        long firstModified = fs.getFileStatus(path).getModificationTime();
+        fs.setTimes(path, firstModified - TimeUnit.DAYS.toMillis(1), -1);
+
+        // 相同内容复用已存在的文件，并刷新修改时间
+        Assert.assertTrue(HdfsArtifactStore.upload(fs, path, content));
+        Assert.assertTrue(fs.getFileStatus(path).getModificationTime() >= firstModified);
+        Assert.assertEquals(1, fs.listStatus(dir).length);
+    }
+
+    @Test
+    public void testUploadNotContentAddressed() throws Exception {
+        Path path = new Path(dir, "shell_1_0_a.sh");
+        Assert.assertFalse(HdfsArtifactStore.upload(fs, path, "echo 1".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertFalse(HdfsArtifactStore.upload(fs, path, "echo 2".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(6, fs.getFileStatus(path).getLen());
+    }
+
+    @Test
+    public void testCleanupStaleFiles() throws Exception {
+        byte[] staleContent = "echo stale".getBytes(StandardCharsets.UTF_8);
+        byte[] usedContent = "echo used".getBytes(StandardCharsets.UTF_8);
+        Path stale = new Path(dir, ContentAddressUtil.buildFileName("shell_1_0_a", staleContent, "sh"));
+        Path used = new Path(dir, ContentAddressUtil.buildFileName("shell_1_0_b", usedContent, "sh"));
+        Path other = new Path(dir, "other.sh");
+        HdfsArtifactStore.upload(fs, stale, staleContent);
+        HdfsArtifactStore.upload(fs, used, usedContent);
+        HdfsArtifactStore.upload(fs, other, usedContent);
+
+        long old = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(60);
+        fs.setTimes(stale, old, -1);
+        fs.setTimes(used, old, -1);
+        fs.setTimes(other, old, -1);
+        // 再次上传刷新引用时间，不会被清理
+        HdfsArtifactStore.upload(fs, used, usedContent);
+
+        Assert.assertEquals(1, HdfsArtifactStore.cleanup(fs, dir, System.currentTimeMillis()));
+        Assert.assertFalse(fs.exists(stale));
+        Assert.assertTrue(fs.exists(used));
+        Assert.assertTrue(fs.exists(other));
+        Assert.assertEquals(0, HdfsArtifactStore.cleanup(fs, new Path(dir, "missing"), System.currentTimeMillis()));
+    }
+}